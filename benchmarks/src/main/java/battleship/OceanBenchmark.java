@@ -0,0 +1,288 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the hot paths of Ocean and Ship, for both the Ship[][] and the bitboard backend.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OceanBenchmark {
+
+    //Number of layouts in the pool of the shootAt target board
+    static final int BOARDS = 64;
+
+    //Which Ocean implementation to measure
+    @Param({"array", "bitboard"})
+    String backend;
+
+    //Random stream for placement and play, one per benchmark thread
+    private SplittableRandom rd;
+    //Board with the fleet placed, for okToPlaceShipAt
+    private Ocean placed;
+    //Board shot at by shootAt, placed again from the pool after every 100 shots
+    private Ocean target;
+    //Layouts of the target board, BOARDS layouts of one placement id per ship
+    private int[] targetLayouts;
+    //Orders in which the target board is shot at, BOARDS shuffles of the 100 locations
+    private int[] targetOrders;
+    //Boards placed on the target so far, and shots fired at the current one
+    private int targetBoard;
+    private int targetShot;
+    //Ship shot at in isSunk
+    private Ship ship;
+    //Ship probed in okToPlaceShipAt
+    private Ship probe;
+    //All 100 locations, shuffled once per game
+    private int[] shots;
+    //Next location for okToPlaceShipAt
+    private int next;
+    //Computer player of probabilityGame
+    private ProbabilityShotStrategy strategy;
+    //Placement ids of the fleet replayed by replayOneByOne and replayBatch
+    private int[] layout;
+    //Outcomes of replayBatch
+    private int[] outcomes;
+    //Ships sunk by one salvo of salvoGame
+    private int[] sunkIds;
+    //Board reset and played again by randomGameOnReset
+    private Ocean reused;
+
+    /**
+     * Prepares the boards and ships used by the benchmarks.
+     */
+    @Setup
+    public void setUp() {
+        this.rd = new SplittableRandom(42);
+        this.strategy = new ProbabilityShotStrategy(GameConfig.standard(), this.rd.split());
+        this.placed = newOcean();
+        this.placed.placeAllShipsRandomly(this.rd);
+        this.ship = new Cruiser();
+        this.ship.placeShipAt(5, 5, true, newOcean());
+        this.ship.shootAt(5, 5);
+        this.probe = new Destroyer();
+        this.shots = new int[100];
+        for (int i = 0; i < 100; i++) {
+            this.shots[i] = i;
+        }
+        this.layout = new int[Ocean.FLEET_LENGTHS.length];
+        PlacementIndex.sampleFleet(Ocean.FLEET_LENGTHS, this.rd, this.layout);
+        this.outcomes = new int[100];
+        this.sunkIds = new int[Ocean.FLEET_LENGTHS.length];
+        this.reused = newOcean();
+        int fleetSize = Ocean.FLEET_LENGTHS.length;
+        this.targetLayouts = new int[BOARDS * fleetSize];
+        this.targetOrders = new int[BOARDS * 100];
+        int[] drawn = new int[fleetSize];
+        for (int b = 0; b < BOARDS; b++) {
+            PlacementIndex.sampleFleet(Ocean.FLEET_LENGTHS, this.rd, drawn);
+            System.arraycopy(drawn, 0, this.targetLayouts, b * fleetSize, fleetSize);
+            for (int i = 0; i < 100; i++) {
+                int j = this.rd.nextInt(i + 1);
+                this.targetOrders[b * 100 + i] = this.targetOrders[b * 100 + j];
+                this.targetOrders[b * 100 + j] = i;
+            }
+        }
+        this.target = newOcean();
+        this.target.placeFleet(this.targetLayouts, 0);
+        this.targetBoard = 0;
+        this.targetShot = 0;
+    }
+
+    /**
+     * Creates an empty ocean of the selected backend.
+     */
+    private Ocean newOcean() {
+        return "bitboard".equals(this.backend) ? new BitboardOcean() : new Ocean();
+    }
+
+    @Benchmark
+    public Ocean newEmptyOcean() {
+        return newOcean();
+    }
+
+    @Benchmark
+    public Ocean placeAllShipsRandomly() {
+        Ocean ocean = newOcean();
+        ocean.placeAllShipsRandomly(this.rd);
+        return ocean;
+    }
+
+    @Benchmark
+    public Ocean placeAllShipsWithBacktracking() {
+        Ocean ocean = newOcean();
+        ocean.placeAllShipsWithBacktracking(this.rd);
+        return ocean;
+    }
+
+    /**
+     * One shot at a location of the target board not fired upon yet, so every shot takes the hit
+     * or the miss path, as during a game. After 100 shots the board is reset and the next layout
+     * of the pool is placed; that costs about one shot's worth, spread over the 100 shots.
+     */
+    @Benchmark
+    public boolean shootAt() {
+        if (this.targetShot == 100) {
+            this.targetBoard = (this.targetBoard + 1) % BOARDS;
+            this.targetShot = 0;
+            this.target.reset();
+            this.target.placeFleet(this.targetLayouts, this.targetBoard * Ocean.FLEET_LENGTHS.length);
+        }
+        int cell = this.targetOrders[this.targetBoard * 100 + this.targetShot++];
+        return this.target.shootAt(cell / 10, cell % 10);
+    }
+
+    @Benchmark
+    public boolean isSunk() {
+        return this.ship.isSunk();
+    }
+
+    /**
+     * Checks one (row, column, orientation) of a destroyer on the placed board.
+     */
+    @Benchmark
+    public boolean okToPlaceShipAt() {
+        int cell = this.next;
+        this.next = (cell + 1) % 200;
+        return this.probe.okToPlaceShipAt((cell % 100) / 10, cell % 10, cell < 100, this.placed);
+    }
+
+    /**
+     * A whole game: a new board, random placement, and random shots without repeats until every
+     * ship is sunk.
+     */
+    @Benchmark
+    public int randomGame() {
+        Ocean ocean = newOcean();
+        ocean.placeAllShipsRandomly(this.rd);
+        int[] order = this.shots;
+        for (int i = 0; !ocean.isGameOver(); i++) {
+            //pick the next shot among the locations not fired upon yet
+            int j = i + this.rd.nextInt(100 - i);
+            int cell = order[j];
+            order[j] = order[i];
+            order[i] = cell;
+            ocean.shootAt(cell / 10, cell % 10);
+        }
+        return ocean.getShotsFired();
+    }
+
+    /**
+     * The same game as randomGame, on a board reset after the previous game instead of a new
+     * one, so the board and the fleet are reused.
+     */
+    @Benchmark
+    public int randomGameOnReset() {
+        Ocean ocean = this.reused;
+        ocean.reset();
+        ocean.placeAllShipsRandomly(this.rd);
+        int[] order = this.shots;
+        for (int i = 0; !ocean.isGameOver(); i++) {
+            int j = i + this.rd.nextInt(100 - i);
+            int cell = order[j];
+            order[j] = order[i];
+            order[i] = cell;
+            ocean.shootAt(cell / 10, cell % 10);
+        }
+        return ocean.getShotsFired();
+    }
+
+    /**
+     * The placement of GameSimulator.playGames(): a board reset after the previous game, then
+     * the fleet placed with backtracking, so the fleet, the sampler and its buffers are reused.
+     */
+    @Benchmark
+    public Ocean placeWithBacktrackingOnReset() {
+        Ocean ocean = this.reused;
+        ocean.reset();
+        ocean.placeAllShipsWithBacktracking(this.rd);
+        return ocean;
+    }
+
+    /**
+     * A whole game played by ProbabilityShotStrategy: a new board, random placement, and one
+     * density update per shot until every ship is sunk. Divide by the shots per game for the
+     * cost of a move.
+     */
+    @Benchmark
+    public int probabilityGame() {
+        Ocean ocean = newOcean();
+        ocean.placeAllShipsRandomly(this.rd);
+        this.strategy.reset();
+        while (!ocean.isGameOver()) {
+            int cell = this.strategy.nextShot();
+            int sunk = ocean.getShipsSunk();
+            boolean hit = ocean.shootAt(cell / 10, cell % 10);
+            this.strategy.onResult(cell, hit, ocean.getShipsSunk() > sunk ? ocean.getLastSunk().getLength() : 0);
+        }
+        return ocean.getShotsFired();
+    }
+
+    /**
+     * Replays a logged game: a fixed layout, then a shot at every location in order, one
+     * shootAt() call per shot. Compare with replayBatch.
+     */
+    @Benchmark
+    public int replayOneByOne() {
+        Ocean ocean = newOcean();
+        ocean.placeFleet(this.layout, 0);
+        for (int cell = 0; cell < 100; cell++) {
+            ocean.shootAt(cell / 10, cell % 10);
+        }
+        return ocean.getShotsFired();
+    }
+
+    /**
+     * Replays the same game as replayOneByOne with a single shootAll() call.
+     */
+    @Benchmark
+    public int replayBatch() {
+        Ocean ocean = newOcean();
+        ocean.placeFleet(this.layout, 0);
+        ocean.shootAll(this.shots, 0, 100, this.outcomes);
+        return ocean.getShotsFired();
+    }
+
+    /**
+     * A whole game with the Salvo rules: a fixed layout, then salvos of one random location per
+     * ship afloat until every ship is sunk, each resolved by one shootSalvo() call.
+     */
+    @Benchmark
+    public int salvoGame() {
+        Ocean ocean = newOcean();
+        ocean.placeFleet(this.layout, 0);
+        while (!ocean.isGameOver()) {
+            long lo = 0;
+            long hi = 0;
+            for (int i = ocean.getShipsAfloat(); i > 0; i--) {
+                int idx = this.rd.nextInt(100);
+                if (idx < 64) lo |= 1L << idx;
+                else hi |= 1L << idx;
+            }
+            ocean.shootSalvo(lo, hi, this.sunkIds);
+        }
+        return ocean.getShotsFired();
+    }
+}
@@ -22,18 +22,23 @@ public class BattleshipGame {
      * Set up the game; accept ”shots” from the user; display the results; and print final scores.
      * Complete all input/output including calling methods from other classes.
      *
-     * @param args
+     * @param args "salvo" to play with the Salvo rules, nothing for one shot per turn
      */
     public static void main(String[] args) {
         //initialization
         scan = new Scanner(System.in);
-        ocean = new Ocean();
+        ocean = Ocean.create(GameConfig.standard());
         //place ships of computer
         ocean.placeAllShipsRandomly();
         //print welcome messages
         printWelcome();
         //lunch game
-        lunchGame();
+        if (args.length > 0 && args[0].equalsIgnoreCase("salvo")) {
+            System.out.println("Salvo rules: every turn, fire one shot per ship still afloat.\n");
+            lunchSalvoGame();
+        } else {
+            lunchGame();
+        }
         //print out final results
         printResults();
     }
@@ -64,13 +69,13 @@ public class BattleshipGame {
             }
         }
         //check if row index within the proper range
-        if (rowAndCol[0] < 0 || rowAndCol[0] > 9) {
+        if (rowAndCol[0] < 0 || rowAndCol[0] >= ocean.getRows()) {
             System.out.println("Row index out of bound!");
             //prompt again until get valid inputs
             return getUserInput();
         }
         //check if row index within the proper range
-        if (rowAndCol[1] < 0 || rowAndCol[1] > 9) {
+        if (rowAndCol[1] < 0 || rowAndCol[1] >= ocean.getColumns()) {
             System.out.println("Column index out of bound!");
             //prompt again until get valid inputs
             return getUserInput();
@@ -106,6 +111,52 @@ public class BattleshipGame {
         }
     }
 
+    /**
+     * Lunches a game with the Salvo rules until game over. Each turn asks for one location per
+     * ship still afloat, then fires the whole salvo at once and reports every shot and every
+     * ship sunk by the salvo.
+     */
+    static void lunchSalvoGame() {
+        int[] sunkIds = new int[ocean.getFleetSize()];
+        //locations of the salvo in the order they were entered, and the outcome at each location
+        int[] rows = new int[ocean.getFleetSize()];
+        int[] cols = new int[ocean.getFleetSize()];
+        int[] outcomes = new int[100];
+        while (!ocean.isGameOver()) {
+            //print ocean
+            ocean.print();
+            //one shot per ship still afloat
+            int shots = ocean.getShipsAfloat();
+            System.out.println("Salvo of " + shots + (shots == 1 ? " shot." : " shots."));
+            //locations of the salvo as a bitboard, so a location can only be chosen once
+            long lo = 0;
+            long hi = 0;
+            for (int i = 0; i < shots; ) {
+                int[] rowAndCol = getUserInput();
+                int idx = BitboardOcean.index(rowAndCol[0], rowAndCol[1]);
+                long bit = 1L << idx;
+                if (((idx < 64 ? lo : hi) & bit) != 0) {
+                    System.out.println("Location already in this salvo!");
+                    continue;
+                }
+                if (idx < 64) lo |= bit;
+                else hi |= bit;
+                rows[i] = rowAndCol[0];
+                cols[i] = rowAndCol[1];
+                i++;
+            }
+            //the salvo reports the outcome at each of its locations
+            int sunk = ocean.shootSalvo(lo, hi, sunkIds, outcomes);
+            for (int i = 0; i < shots; i++) {
+                boolean hit = outcomes[BitboardOcean.index(rows[i], cols[i])] != Ocean.SHOT_MISS;
+                System.out.println(rows[i] + "," + cols[i] + ": " + (hit ? "Hit!" : "Miss!"));
+            }
+            for (int i = 0; i < sunk; i++) {
+                System.out.println("You just sank a ship - " + ocean.getShip(sunkIds[i]).getShipType() + ".");
+            }
+        }
+    }
+
     /**
      * Prints out final scores.
      */
@@ -0,0 +1,579 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * An alternative Ocean backend for simulations. Instead of a 10x10 array of Ship references
+ * filled with EmptySea, the board is stored as three 128-bit bitboards (occupied, hit
+ * and missed locations, each held in two longs) plus a byte array of ship ids.
+ * Location (row, column) is bit number row * 10 + column; bits 0-63 live in the low word
+ * and bits 64-99 in the high word.
+ * shootAt(), isOccupied() and isGameOver() behave exactly like in Ocean, and a shot never
+ * allocates any objects.
+ * Shots can be taken back: mark() saves the state of the game in a few words and undo() goes
+ * back to it, repairing only the ship parts hit since, so a search can try shots and roll them
+ * back without copying the board.
+ */
+public class BitboardOcean extends Ocean {
+
+    //Number of locations on the board
+    static final int CELLS = 100;
+    //Bits of the high word that are on the board (locations 64 to 99)
+    static final long HIGH_WORD = (1L << (CELLS - 64)) - 1;
+    //Words saved by mark(): hit, miss and sunk bitboards, three counters and the last ship sunk
+    private static final int MARK_WORDS = 10;
+
+    //Bitboard of locations covered by a ship
+    private long occupiedLo;
+    private long occupiedHi;
+    //Bitboard of locations that were fired upon and hit a ship
+    private long hitLo;
+    private long hitHi;
+    //Bitboard of locations that were fired upon and found nothing
+    private long missLo;
+    private long missHi;
+    //Id plus one of the ship at each location, 0 for empty sea
+    private final byte[] shipIds = new byte[CELLS];
+    //Ship array view, only created if getShipArray() is called
+    private Ship[][] shipArray;
+    //Bitboard of the locations of each ship, by ship id
+    private long[] shipLo = new long[10];
+    private long[] shipHi = new long[10];
+    //Bitboard of locations covered by a sunk ship
+    private long sunkLo;
+    private long sunkHi;
+    //Saved states of mark(), MARK_WORDS per mark, the last mark at the end
+    private long[] marks = new long[MARK_WORDS * 8];
+    //Number of saved states
+    private int markCount;
+
+    /**
+     * Constructor creates an empty ocean. No ships array is created.
+     */
+    public BitboardOcean() {
+        this(GameConfig.standard());
+    }
+
+    /**
+     * Constructor creates an empty ocean for a 10x10 configuration with any fleet.
+     *
+     * @param config board size and fleet, the board must be 10x10
+     */
+    public BitboardOcean(GameConfig config) {
+        super(config, null);
+        if (!config.isStandardSize()) {
+            throw new IllegalArgumentException("BitboardOcean only supports 10x10 boards");
+        }
+    }
+
+    /**
+     * Returns the bit index of the given location.
+     *
+     * @param row
+     * @param column
+     * @return bit index from 0 to 99
+     */
+    static int index(int row, int column) {
+        return row * 10 + column;
+    }
+
+    /**
+     * Records the given ship in the bitboards and the ship id array.
+     *
+     * @param ship ship to record in this ocean
+     */
+    @Override
+    void putShip(Ship ship) {
+        byte id = (byte) (registerShip(ship) + 1);
+        if (id > this.shipLo.length) {
+            this.shipLo = Arrays.copyOf(this.shipLo, this.fleet.length);
+            this.shipHi = Arrays.copyOf(this.shipHi, this.fleet.length);
+        }
+        //step between two parts of the ship: one column for horizontal, one row for vertical
+        int step = ship.isHorizontal() ? 1 : 10;
+        int idx = index(ship.getBowRow(), ship.getBowColumn());
+        for (int i = 0; i < ship.getLength(); i++, idx -= step) {
+            this.shipIds[idx] = id;
+            if (idx < 64) {
+                this.occupiedLo |= 1L << idx;
+                this.shipLo[id - 1] |= 1L << idx;
+            } else {
+                this.occupiedHi |= 1L << idx;
+                this.shipHi[id - 1] |= 1L << idx;
+            }
+            //keep the ship array view in sync
+            if (this.shipArray != null) this.shipArray[idx / 10][idx % 10] = ship;
+        }
+    }
+
+    /**
+     * Removes the location from the occupied bitboard and from the ship that covered it.
+     *
+     * @param row
+     * @param column
+     */
+    @Override
+    void clearLocation(int row, int column) {
+        int idx = index(row, column);
+        //the location no longer belongs to the ship that was there
+        if (this.shipIds[idx] != 0) {
+            if (idx < 64) this.shipLo[this.shipIds[idx] - 1] &= ~(1L << idx);
+            else this.shipHi[this.shipIds[idx] - 1] &= ~(1L << idx);
+        }
+        this.shipIds[idx] = 0;
+        if (idx < 64) this.occupiedLo &= ~(1L << idx);
+        else this.occupiedHi &= ~(1L << idx);
+        if (this.shipArray != null) this.shipArray[row][column] = EmptySea.SEA;
+    }
+
+    /**
+     * Clears the bitboards, the ship ids and the marks.
+     */
+    @Override
+    void clearBoard() {
+        this.occupiedLo = 0;
+        this.occupiedHi = 0;
+        this.hitLo = 0;
+        this.hitHi = 0;
+        this.missLo = 0;
+        this.missHi = 0;
+        this.sunkLo = 0;
+        this.sunkHi = 0;
+        Arrays.fill(this.shipIds, (byte) 0);
+        Arrays.fill(this.shipLo, 0);
+        Arrays.fill(this.shipHi, 0);
+        this.markCount = 0;
+        this.shipArray = null;
+    }
+
+    /**
+     * Returns true if the given location contains a ship, false if it does not
+     *
+     * @param row
+     * @param column
+     * @return whether given location is occupied
+     */
+    @Override
+    boolean isOccupied(int row, int column) {
+        int idx = index(row, column);
+        long word = idx < 64 ? this.occupiedLo : this.occupiedHi;
+        return (word & (1L << idx)) != 0;
+    }
+
+    /**
+     * Returns the low word (locations 0 to 63) of the occupancy bitboard
+     *
+     * @return occupied locations, low word
+     */
+    long getOccupiedLo() {
+        return this.occupiedLo;
+    }
+
+    /**
+     * Returns the high word (locations 64 to 99) of the occupancy bitboard
+     *
+     * @return occupied locations, high word
+     */
+    long getOccupiedHi() {
+        return this.occupiedHi;
+    }
+
+    /**
+     * Returns the low word of the bitboard of locations fired upon that hit a ship
+     *
+     * @return hit locations, low word
+     */
+    long getHitLo() {
+        return this.hitLo;
+    }
+
+    /**
+     * Returns the high word of the bitboard of locations fired upon that hit a ship
+     *
+     * @return hit locations, high word
+     */
+    long getHitHi() {
+        return this.hitHi;
+    }
+
+    /**
+     * Returns the low word of the bitboard of locations fired upon that found nothing
+     *
+     * @return missed locations, low word
+     */
+    long getMissLo() {
+        return this.missLo;
+    }
+
+    /**
+     * Returns the high word of the bitboard of locations fired upon that found nothing
+     *
+     * @return missed locations, high word
+     */
+    long getMissHi() {
+        return this.missHi;
+    }
+
+    /**
+     * Returns true if the given location contains a ”real” ship, still afloat,
+     * false if it does not. Updates the number of shots fired, hits and ships sunk.
+     *
+     * @param row
+     * @param column
+     * @return if this shot succeeds
+     */
+    @Override
+    boolean shootAt(int row, int column) {
+        // if inputs are invalid, return false, and do not count in shotsFired
+        if (row < 0 || column < 0 || row > 9 || column > 9) {
+            return false;
+        }
+
+        // shotsFired increments
+        this.shotsFired++;
+        int outcome = fire(index(row, column));
+        if (this.shotListener != null) this.shotListener.shotFired(row, column, outcome);
+        if (outcome == SHOT_MISS) return false;
+        //hit counts every time, the ship only takes damage the first time a part is hit
+        this.hitCount++;
+        return true;
+    }
+
+    /**
+     * Fires a batch of shots like Ocean.shootAll(), reading the bitboards directly and updating
+     * the shot and hit counters once for the whole batch.
+     *
+     * @param rows     rows of the shots
+     * @param columns  columns of the shots, as many as rows
+     * @param outcomes array receiving one outcome per shot, at least as long as rows
+     * @return the number of shots that hit a ship
+     */
+    @Override
+    int shootAll(int[] rows, int[] columns, int[] outcomes) {
+        if (columns.length != rows.length) {
+            throw new IllegalArgumentException("Got " + rows.length + " rows and " + columns.length + " columns");
+        }
+        //a listener sees every shot through shootAt()
+        if (this.shotListener != null) return super.shootAll(rows, columns, outcomes);
+        int shots = 0;
+        int hits = 0;
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            int column = columns[i];
+            //one unsigned comparison per coordinate rejects both negative and too large values
+            if (Integer.compareUnsigned(row, 9) > 0 || Integer.compareUnsigned(column, 9) > 0) {
+                outcomes[i] = SHOT_OFF_BOARD;
+                continue;
+            }
+            shots++;
+            int outcome = fire(index(row, column));
+            if (outcome != SHOT_MISS) hits++;
+            outcomes[i] = outcome;
+        }
+        this.shotsFired += shots;
+        this.hitCount += hits;
+        return hits;
+    }
+
+    /**
+     * Fires a batch of shots given as bit indexes (row * 10 + column) like Ocean.shootAll(),
+     * updating the shot and hit counters once for the whole batch.
+     *
+     * @param locations bit indexes of the shots
+     * @param offset    index in locations of the first shot, and in outcomes of its outcome
+     * @param count     number of shots
+     * @param outcomes  array receiving one outcome per shot
+     * @return the number of shots that hit a ship
+     */
+    @Override
+    int shootAll(int[] locations, int offset, int count, int[] outcomes) {
+        if (this.shotListener != null) return super.shootAll(locations, offset, count, outcomes);
+        int shots = 0;
+        int hits = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int idx = locations[i];
+            if (Integer.compareUnsigned(idx, CELLS) >= 0) {
+                outcomes[i] = SHOT_OFF_BOARD;
+                continue;
+            }
+            shots++;
+            int outcome = fire(idx);
+            if (outcome != SHOT_MISS) hits++;
+            outcomes[i] = outcome;
+        }
+        this.shotsFired += shots;
+        this.hitCount += hits;
+        return hits;
+    }
+
+    /**
+     * Records a shot at the given location in the bitboards and the ships, without counting it.
+     *
+     * @param idx bit index of the location, from 0 to 99
+     * @return SHOT_MISS, SHOT_HIT or the length of the ship sunk by the shot
+     */
+    private int fire(int idx) {
+        long bit = 1L << idx;
+        int id = this.shipIds[idx];
+        //no ship here: record the miss
+        if (id == 0) {
+            if (idx < 64) this.missLo |= bit;
+            else this.missHi |= bit;
+            return SHOT_MISS;
+        }
+        Ship ship = this.fleet[id - 1];
+        //ship at this position is already sunk
+        if (ship.isSunk()) {
+            return SHOT_MISS;
+        }
+        //the ship only takes damage the first time a part is hit
+        if (idx < 64) this.hitLo |= bit;
+        else this.hitHi |= bit;
+        ship.shootAt(idx / 10, idx % 10);
+        if (!ship.isSunk()) return SHOT_HIT;
+        sink(id - 1);
+        return ship.getLength();
+    }
+
+    /**
+     * Fires a salvo like Ocean.shootSalvo(), with mask operations: misses and hits are found for
+     * the whole salvo at once, the counters are updated once, and a ship is sunk when its
+     * bitboard has no location left outside the hit bitboard. Only the ships hit by the salvo
+     * are checked, once per hit, and each Ship object still records its hits. The outcomes, if
+     * asked for, come from the same masks: every location outside the hits is a miss.
+     *
+     * @param lo       locations 0 to 63 of the salvo
+     * @param hi       locations 64 to 99 of the salvo
+     * @param sunkIds  array receiving the ids of the ships sunk by the salvo, in order of location
+     * @param outcomes array of 100 receiving the outcome of each shot at the index of its location,
+     *                 other entries are left alone; or null
+     * @return the number of ships sunk by the salvo
+     */
+    @Override
+    int shootSalvo(long lo, long hi, int[] sunkIds, int[] outcomes) {
+        if (this.shotListener != null) return super.shootSalvo(lo, hi, sunkIds, outcomes);
+        hi &= HIGH_WORD;
+        long missLo = lo & ~this.occupiedLo;
+        long missHi = hi & ~this.occupiedHi;
+        //a shot at a ship sunk before the salvo is neither a hit nor a miss, as in shootAt()
+        long hitLo = lo & this.occupiedLo & ~this.sunkLo;
+        long hitHi = hi & this.occupiedHi & ~this.sunkHi;
+        int hits = Long.bitCount(hitLo) + Long.bitCount(hitHi);
+        this.missLo |= missLo;
+        this.missHi |= missHi;
+        if (outcomes != null) {
+            //misses and shots at ships sunk before the salvo
+            for (int word = 0; word < 2; word++) {
+                long bits = word == 0 ? lo & ~hitLo : hi & ~hitHi;
+                while (bits != 0) {
+                    outcomes[word * 64 + Long.numberOfTrailingZeros(bits)] = SHOT_MISS;
+                    bits &= bits - 1;
+                }
+            }
+        }
+        int sunk = 0;
+        for (int word = 0; word < 2; word++) {
+            long bits = word == 0 ? hitLo : hitHi;
+            while (bits != 0) {
+                long bit = bits & -bits;
+                int idx = word * 64 + Long.numberOfTrailingZeros(bit);
+                bits ^= bit;
+                //add the hits one location at a time, so that ships sink in the same order as with shootAt()
+                if (word == 0) this.hitLo |= bit;
+                else this.hitHi |= bit;
+                int id = this.shipIds[idx] - 1;
+                //a location hit before, of a ship sunk earlier in this salvo
+                if ((this.shipLo[id] & this.sunkLo) != 0 || (this.shipHi[id] & this.sunkHi) != 0) {
+                    hits--;
+                    if (outcomes != null) outcomes[idx] = SHOT_MISS;
+                    continue;
+                }
+                this.fleet[id].shootAt(idx / 10, idx % 10);
+                if ((this.shipLo[id] & ~this.hitLo) == 0 && (this.shipHi[id] & ~this.hitHi) == 0) {
+                    sink(id);
+                    sunkIds[sunk++] = id;
+                    if (outcomes != null) outcomes[idx] = this.fleet[id].getLength();
+                } else if (outcomes != null) {
+                    outcomes[idx] = SHOT_HIT;
+                }
+            }
+        }
+        this.shotsFired += Long.bitCount(lo) + Long.bitCount(hi);
+        this.hitCount += hits;
+        return sunk;
+    }
+
+    /**
+     * Saves the state of the game, to go back to it with undo(). Marks nest: each undo() goes
+     * back to the most recent mark not undone yet. Ships must not be placed until the mark is
+     * undone.
+     *
+     * @return number of marks not undone yet, including this one
+     */
+    int mark() {
+        int base = this.markCount * MARK_WORDS;
+        if (base == this.marks.length) this.marks = Arrays.copyOf(this.marks, base * 2);
+        long[] m = this.marks;
+        m[base] = this.hitLo;
+        m[base + 1] = this.hitHi;
+        m[base + 2] = this.missLo;
+        m[base + 3] = this.missHi;
+        m[base + 4] = this.sunkLo;
+        m[base + 5] = this.sunkHi;
+        m[base + 6] = this.shotsFired;
+        m[base + 7] = this.hitCount;
+        m[base + 8] = this.shipsSunk;
+        m[base + 9] = this.lastSunk == null ? -1 : this.lastSunk.getShipId();
+        return ++this.markCount;
+    }
+
+    /**
+     * Takes back every shot fired since the most recent mark, restoring the bitboards, the
+     * counters, the last ship sunk and the ships. Listeners are not told.
+     *
+     * @throws IllegalStateException if there is no mark to go back to
+     */
+    void undo() {
+        if (this.markCount == 0) throw new IllegalStateException("No mark to undo");
+        int base = --this.markCount * MARK_WORDS;
+        long[] m = this.marks;
+        //repair the ship parts hit since the mark; parts hit again were already hit at the mark
+        repairShips(this.hitLo & ~m[base], 0);
+        repairShips(this.hitHi & ~m[base + 1], 64);
+        this.hitLo = m[base];
+        this.hitHi = m[base + 1];
+        this.missLo = m[base + 2];
+        this.missHi = m[base + 3];
+        this.sunkLo = m[base + 4];
+        this.sunkHi = m[base + 5];
+        this.shotsFired = (int) m[base + 6];
+        this.hitCount = (int) m[base + 7];
+        this.shipsSunk = (int) m[base + 8];
+        this.lastSunk = m[base + 9] < 0 ? null : this.fleet[(int) m[base + 9]];
+    }
+
+    /**
+     * Returns the number of marks not undone yet
+     *
+     * @return number of marks
+     */
+    int getMarkCount() {
+        return this.markCount;
+    }
+
+    /**
+     * Repairs the ship parts at the locations set in one word of a bitboard.
+     */
+    private void repairShips(long word, int firstBit) {
+        while (word != 0) {
+            int idx = firstBit + Long.numberOfTrailingZeros(word);
+            this.fleet[this.shipIds[idx] - 1].repair(idx / 10, idx % 10);
+            word &= word - 1;
+        }
+    }
+
+    /**
+     * Records the sinking of a ship: counters, sunk bitboard, last ship sunk and listener.
+     *
+     * @param id id of the ship
+     */
+    private void sink(int id) {
+        Ship ship = this.fleet[id];
+        this.shipsSunk++;
+        this.sunkLo |= this.shipLo[id];
+        this.sunkHi |= this.shipHi[id];
+        this.lastSunk = ship;
+        if (this.sinkListener != null) this.sinkListener.shipSunk(id, ship);
+    }
+
+    /**
+     * Returns a 10x10 array of Ships equivalent to the one kept by Ocean. It is built on the
+     * first call and kept in sync afterwards, so simulations that never call this method
+     * never pay for it.
+     *
+     * @return Ship array
+     */
+    @Override
+    Ship[][] getShipArray() {
+        if (this.shipArray == null) {
+            Ship[][] ships = new Ship[10][10];
+            for (int r = 0; r < 10; r++) {
+                for (int c = 0; c < 10; c++) {
+                    int idx = index(r, c);
+                    if (this.shipIds[idx] != 0) {
+                        ships[r][c] = this.fleet[this.shipIds[idx] - 1];
+                    } else {
+                        ships[r][c] = EmptySea.SEA;
+                    }
+                }
+            }
+            this.shipArray = ships;
+        }
+        return this.shipArray;
+    }
+
+    /**
+     * Prints the Ocean in the same format as Ocean.print(), reading the bitboards directly.
+     */
+    @Override
+    void print() {
+        //print column numbers on the top
+        for (int i = 0; i < 10; i++) {
+            System.out.print("\t" + i);
+        }
+        System.out.println();
+        //print each line
+        for (int r = 0; r < 10; r++) {
+            System.out.print(r);
+            for (int c = 0; c < 10; c++) {
+                System.out.print("\t");
+                int idx = index(r, c);
+                long bit = 1L << idx;
+                long hit = idx < 64 ? this.hitLo : this.hitHi;
+                long miss = idx < 64 ? this.missLo : this.missHi;
+                if ((hit & bit) != 0) {
+                    System.out.print(this.fleet[this.shipIds[idx] - 1].isSunk() ? "s" : "x");
+                } else if ((miss & bit) != 0) {
+                    System.out.print("-");
+                } else {
+                    System.out.print(".");
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * For debugging only. Prints the Ocean with ships in the same format as
+     * Ocean.printWithShips().
+     */
+    @Override
+    void printWithShips() {
+        //print column numbers on the top
+        System.out.print("  ");
+        for (int i = 0; i < 10; i++) {
+            System.out.print(i + " ");
+        }
+        System.out.println();
+        //print each line
+        for (int r = 0; r < 10; r++) {
+            System.out.print(r + " ");
+            for (int c = 0; c < 10; c++) {
+                int id = this.shipIds[index(r, c)];
+                if (id == 0) {
+                    System.out.print("  ");
+                } else {
+                    //first letter of the ship type: b, c, d, s (or a for a carrier)
+                    Ship ship = this.fleet[id - 1];
+                    System.out.print((ship instanceof Carrier ? 'a' : ship.getShipType().charAt(0)) + " ");
+                }
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs all OceanTest tests against BitboardOcean, plus a few backend specific checks.
+ */
+class BitboardOceanTest extends OceanTest {
+
+    @Override
+    Ocean createOcean() {
+        return new BitboardOcean();
+    }
+
+    @Test
+    void testHighWordLocations() {
+        //locations 64 to 99 are stored in the second long
+        Battleship battleship = new Battleship();
+        battleship.placeShipAt(9, 9, false, ocean);
+        assertTrue(ocean.isOccupied(6, 9));
+        assertTrue(ocean.isOccupied(9, 9));
+        assertFalse(ocean.isOccupied(5, 9));
+        assertFalse(ocean.isOccupied(9, 8));
+
+        //a ship crossing from the low word into the high word
+        Cruiser cruiser = new Cruiser();
+        cruiser.placeShipAt(7, 3, false, ocean);
+        assertTrue(ocean.isOccupied(5, 3));
+        assertTrue(ocean.isOccupied(6, 3));
+        assertTrue(ocean.isOccupied(7, 3));
+
+        assertTrue(ocean.shootAt(5, 3));
+        assertTrue(ocean.shootAt(6, 3));
+        assertTrue(ocean.shootAt(7, 3));
+        assertTrue(cruiser.isSunk());
+        assertEquals(1, ocean.getShipsSunk());
+    }
+
+    @Test
+    void testRepeatedHitDoesNotSink() {
+        Destroyer destroyer = new Destroyer();
+        destroyer.placeShipAt(3, 3, true, ocean);
+        //hitting the same part twice counts two hits but does not sink the ship
+        assertTrue(ocean.shootAt(3, 3));
+        assertTrue(ocean.shootAt(3, 3));
+        assertEquals(2, ocean.getHitCount());
+        assertEquals(0, ocean.getShipsSunk());
+        assertTrue(ocean.shootAt(3, 2));
+        assertEquals(1, ocean.getShipsSunk());
+    }
+
+    @Test
+    void testFullGame() {
+        ocean.placeAllShipsRandomly();
+        for (int r = 0; r < 10; r++) {
+            for (int c = 0; c < 10; c++) {
+                ocean.shootAt(r, c);
+            }
+        }
+        assertTrue(ocean.isGameOver());
+        assertEquals(100, ocean.getShotsFired());
+        assertEquals(20, ocean.getHitCount());
+    }
+
+    @Test
+    void testMarkAndUndo() {
+        SplittableRandom rd = new SplittableRandom(8);
+        for (int game = 0; game < 50; game++) {
+            BitboardOcean board = new BitboardOcean();
+            board.placeAllShipsFromSeed(game);
+            //a ship array view does not get in the way
+            board.getShipArray();
+            assertThrows(IllegalStateException.class, board::undo);
+            Deque<String> states = new ArrayDeque<>();
+            while (!board.isGameOver()) {
+                //save the state, fire a few shots, and take them back half of the time
+                states.push(state(board));
+                assertEquals(states.size(), board.mark());
+                int shots = 1 + rd.nextInt(5);
+                for (int i = 0; i < shots; i++) {
+                    int kind = rd.nextInt(3);
+                    if (kind == 0) board.shootAt(rd.nextInt(10), rd.nextInt(10));
+                    else if (kind == 1) board.shootAll(new int[]{rd.nextInt(100)}, 0, 1, new int[1]);
+                    else board.shootSalvo(1L << rd.nextInt(64), 1L << rd.nextInt(36), new int[10]);
+                }
+                if (rd.nextBoolean()) {
+                    board.undo();
+                    assertEquals(states.pop(), state(board));
+                }
+            }
+            //back to the start through every mark
+            while (!states.isEmpty()) {
+                board.undo();
+                assertEquals(states.pop(), state(board));
+            }
+            assertEquals(0, board.getShotsFired());
+            assertEquals(0, board.getMarkCount());
+        }
+    }
+
+    /**
+     * Describes everything a shot can change: image, ships, last ship sunk and printed board.
+     */
+    private static String state(BitboardOcean board) {
+        StringBuilder sb = new StringBuilder(Arrays.toString(GameSnapshot.snapshot(board)));
+        for (int id = 0; id < board.getFleetSize(); id++) {
+            sb.append(Arrays.toString(board.getShip(id).getHit())).append(board.getShip(id).isSunk());
+        }
+        sb.append(board.getShipsSunk()).append(board.getLastSunk() == null ? -1 : board.getLastSunk().getShipId());
+        return sb.append(printed(board)).toString();
+    }
+}
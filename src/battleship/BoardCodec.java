@@ -0,0 +1,262 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Fixed-size binary encoding of a board with the standard fleet of GameConfig.standard().
+ * A board takes BYTES bytes:
+ * bytes 0-9: one byte per ship, in the order of Ocean.FLEET_LENGTHS, holding the bow location
+ * (row * 10 + column) in the low 7 bits and 1 in the high bit for a vertical ship;
+ * bytes 10-25: the bitboard of hit locations (low word, then high word);
+ * bytes 26-41: the bitboard of missed locations (low word, then high word).
+ * Longs use the byte order of the buffer. The absolute get methods read a single field of a
+ * record without creating any objects, so records can be scanned in place, for example in a
+ * memory-mapped file.
+ */
+public final class BoardCodec {
+
+    //Number of ships in an encoded board
+    static final int FLEET_SIZE = Ocean.FLEET_LENGTHS.length;
+    //Offset of the hit bitboard in a record
+    static final int HITS = FLEET_SIZE;
+    //Offset of the miss bitboard in a record
+    static final int MISSES = HITS + 16;
+    //Size of an encoded board in bytes
+    public static final int BYTES = MISSES + 16;
+
+    /**
+     * No instances, this class only holds static methods.
+     */
+    private BoardCodec() {
+    }
+
+    /**
+     * Returns true if the boards of games with the given configuration can be encoded: a 10x10
+     * board with the ships of the standard fleet, in any order.
+     *
+     * @param config board size and fleet
+     * @return whether the boards can be encoded
+     */
+    static boolean canEncode(GameConfig config) {
+        if (!config.isStandardSize() || config.getFleetSize() != FLEET_SIZE) return false;
+        int[] lengths = config.getFleetLengths();
+        int[] standard = Ocean.FLEET_LENGTHS.clone();
+        Arrays.sort(lengths);
+        Arrays.sort(standard);
+        return Arrays.equals(lengths, standard);
+    }
+
+    /**
+     * Encodes one placement id as a ship byte.
+     *
+     * @param placement placement id
+     * @return ship byte
+     */
+    static byte encodeShip(int placement) {
+        int cell = PlacementIndex.row(placement) * 10 + PlacementIndex.column(placement);
+        return (byte) (PlacementIndex.isHorizontal(placement) ? cell : cell | 0x80);
+    }
+
+    /**
+     * Decodes a ship byte back into a placement id.
+     *
+     * @param ship   ship byte
+     * @param length length of the ship
+     * @return placement id
+     */
+    static int decodeShip(byte ship, int length) {
+        int cell = ship & 0x7f;
+        return PlacementIndex.id(length, cell / 10, cell % 10, (ship & 0x80) == 0);
+    }
+
+    /**
+     * Writes a board at the current position of buf and advances the position by BYTES.
+     * The ocean must hold exactly the standard fleet of GameConfig.standard(), in any placement
+     * order.
+     *
+     * @param ocean ocean to encode
+     * @param buf   buffer with at least BYTES bytes remaining
+     */
+    public static void write(BitboardOcean ocean, ByteBuffer buf) {
+        int base = buf.position();
+        write(ocean, buf, base);
+        buf.position(base + BYTES);
+    }
+
+    /**
+     * Writes a board at the given index of buf, without changing its position.
+     * The ocean must hold exactly the standard fleet of GameConfig.standard(), in any placement
+     * order.
+     *
+     * @param ocean ocean to encode
+     * @param buf   buffer to write to
+     * @param base  index of the first byte of the record
+     */
+    public static void write(BitboardOcean ocean, ByteBuffer buf, int base) {
+        if (ocean.getFleetSize() != FLEET_SIZE) {
+            throw new IllegalArgumentException("Only the standard fleet of " + FLEET_SIZE + " ships can be encoded");
+        }
+        //ships of the same length are interchangeable, so write them in fleet order by length
+        //(bit j of written is set once ship j has been written)
+        int written = 0;
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            int j = 0;
+            while (j < FLEET_SIZE && ((written & (1 << j)) != 0 || ocean.getShip(j).getLength() != Ocean.FLEET_LENGTHS[i])) j++;
+            if (j == FLEET_SIZE) {
+                throw new IllegalArgumentException("Only the standard fleet of " + FLEET_SIZE + " ships can be encoded");
+            }
+            written |= 1 << j;
+            Ship ship = ocean.getShip(j);
+            int p = PlacementIndex.id(ship.getLength(), ship.getBowRow(), ship.getBowColumn(), ship.isHorizontal());
+            buf.put(base + i, encodeShip(p));
+        }
+        buf.putLong(base + HITS, ocean.getHitLo());
+        buf.putLong(base + HITS + 8, ocean.getHitHi());
+        buf.putLong(base + MISSES, ocean.getMissLo());
+        buf.putLong(base + MISSES + 8, ocean.getMissHi());
+    }
+
+    /**
+     * Writes a layout produced by BoardGenerator (no shots fired yet) at the current position of
+     * buf and advances the position by BYTES.
+     *
+     * @param placements placement ids, one per ship in the order of Ocean.FLEET_LENGTHS
+     * @param offset     index of the placement of the first ship
+     * @param buf        buffer with at least BYTES bytes remaining
+     */
+    public static void writeLayout(int[] placements, int offset, ByteBuffer buf) {
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            buf.put(encodeShip(placements[offset + i]));
+        }
+        buf.putLong(0).putLong(0).putLong(0).putLong(0);
+    }
+
+    /**
+     * Reads a board at the current position of buf, advances the position by BYTES and returns
+     * it as a new BitboardOcean. The shots are replayed once per location, so the shots fired and
+     * hit counts are the numbers of distinct locations fired upon and hit.
+     *
+     * @param buf buffer with at least BYTES bytes remaining
+     * @return the decoded ocean
+     */
+    public static BitboardOcean read(ByteBuffer buf) {
+        int base = buf.position();
+        BitboardOcean ocean = read(buf, base);
+        buf.position(base + BYTES);
+        return ocean;
+    }
+
+    /**
+     * Reads the board at the given index of buf, without changing its position. The record is
+     * checked first, as it may come from a damaged file.
+     *
+     * @param buf  buffer to read from
+     * @param base index of the first byte of the record
+     * @return the decoded ocean
+     * @throws IllegalArgumentException if a ship is off the board or overlaps another ship, or a
+     *                                  shot is off the board
+     */
+    public static BitboardOcean read(ByteBuffer buf, int base) {
+        int[] placements = new int[FLEET_SIZE];
+        readLayout(buf, base, placements, 0);
+        check(buf, base, placements);
+        BitboardOcean ocean = new BitboardOcean();
+        ocean.placeFleet(placements, 0);
+        replay(ocean, buf.getLong(base + HITS), 0);
+        replay(ocean, buf.getLong(base + HITS + 8), 64);
+        replay(ocean, buf.getLong(base + MISSES), 0);
+        replay(ocean, buf.getLong(base + MISSES + 8), 64);
+        return ocean;
+    }
+
+    /**
+     * Reads the placement ids of the record at the given index of buf into out, without creating
+     * any objects.
+     *
+     * @param buf    buffer to read from
+     * @param base   index of the first byte of the record
+     * @param out    array receiving FLEET_SIZE placement ids
+     * @param offset index in out for the first ship
+     */
+    public static void readLayout(ByteBuffer buf, int base, int[] out, int offset) {
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            out[offset + i] = decodeShip(buf.get(base + i), Ocean.FLEET_LENGTHS[i]);
+        }
+    }
+
+    /**
+     * Returns the placement id of one ship of the record at the given index of buf.
+     *
+     * @param buf  buffer to read from
+     * @param base index of the first byte of the record
+     * @param ship index of the ship in the order of Ocean.FLEET_LENGTHS
+     * @return placement id
+     */
+    public static int placement(ByteBuffer buf, int base, int ship) {
+        return decodeShip(buf.get(base + ship), Ocean.FLEET_LENGTHS[ship]);
+    }
+
+    /**
+     * Returns one word of the hit bitboard of the record at the given index of buf.
+     *
+     * @param buf  buffer to read from
+     * @param base index of the first byte of the record
+     * @param word 0 for the low word, 1 for the high word
+     * @return hit locations
+     */
+    public static long hits(ByteBuffer buf, int base, int word) {
+        return buf.getLong(base + HITS + word * 8);
+    }
+
+    /**
+     * Returns one word of the miss bitboard of the record at the given index of buf.
+     *
+     * @param buf  buffer to read from
+     * @param base index of the first byte of the record
+     * @param word 0 for the low word, 1 for the high word
+     * @return missed locations
+     */
+    public static long misses(ByteBuffer buf, int base, int word) {
+        return buf.getLong(base + MISSES + word * 8);
+    }
+
+    /**
+     * Checks that the decoded ships lie on the board without overlapping, and that the hit and
+     * miss bitboards only hold locations of the board.
+     */
+    private static void check(ByteBuffer buf, int base, int[] placements) {
+        long occupiedLo = 0;
+        long occupiedHi = 0;
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            int p = placements[i];
+            if ((buf.get(base + i) & 0x7f) >= 100 || !PlacementIndex.inBounds(p)) {
+                throw new IllegalArgumentException("Corrupt board record at " + base + ": ship " + i + " is off the board");
+            }
+            if (((occupiedLo & PlacementIndex.bodyLo(p)) | (occupiedHi & PlacementIndex.bodyHi(p))) != 0) {
+                throw new IllegalArgumentException("Corrupt board record at " + base + ": ship " + i + " overlaps another ship");
+            }
+            occupiedLo |= PlacementIndex.bodyLo(p);
+            occupiedHi |= PlacementIndex.bodyHi(p);
+        }
+        if (((buf.getLong(base + HITS + 8) | buf.getLong(base + MISSES + 8)) & ~BitboardOcean.HIGH_WORD) != 0) {
+            throw new IllegalArgumentException("Corrupt board record at " + base + ": shot off the board");
+        }
+    }
+
+    /**
+     * Fires once at every location set in one word of a bitboard, straight from the set bits.
+     */
+    private static void replay(BitboardOcean ocean, long word, int firstBit) {
+        while (word != 0) {
+            int idx = firstBit + Long.numberOfTrailingZeros(word);
+            ocean.shootAt(idx / 10, idx % 10);
+            word &= word - 1;
+        }
+    }
+}
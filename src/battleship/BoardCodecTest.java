@@ -0,0 +1,106 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardCodecTest {
+
+    @Test
+    void testShipByte() {
+        for (int length = 1; length <= 4; length++) {
+            int p = PlacementIndex.id(length, 9, 3, false);
+            assertEquals(p, BoardCodec.decodeShip(BoardCodec.encodeShip(p), length));
+            p = PlacementIndex.id(length, 5, 9, true);
+            assertEquals(p, BoardCodec.decodeShip(BoardCodec.encodeShip(p), length));
+        }
+    }
+
+    @Test
+    void testRoundTrip() {
+        BitboardOcean ocean = new BitboardOcean();
+        ocean.placeAllShipsFromSeed(9);
+        //fire at the first half of the board
+        SplittableRandom rd = new SplittableRandom(4);
+        for (int i = 0; i < 50; i++) {
+            ocean.shootAt(rd.nextInt(10), rd.nextInt(10));
+        }
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(2 * BoardCodec.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(BoardCodec.BYTES);
+        BoardCodec.write(ocean, buf);
+        assertEquals(2 * BoardCodec.BYTES, buf.position());
+
+        buf.position(BoardCodec.BYTES);
+        BitboardOcean copy = BoardCodec.read(buf);
+        assertEquals(ocean.getOccupiedLo(), copy.getOccupiedLo());
+        assertEquals(ocean.getOccupiedHi(), copy.getOccupiedHi());
+        assertEquals(ocean.getHitLo(), copy.getHitLo());
+        assertEquals(ocean.getHitHi(), copy.getHitHi());
+        assertEquals(ocean.getMissLo(), copy.getMissLo());
+        assertEquals(ocean.getMissHi(), copy.getMissHi());
+        assertEquals(ocean.getShipsSunk(), copy.getShipsSunk());
+        assertEquals(Long.bitCount(ocean.getHitLo()) + Long.bitCount(ocean.getHitHi()), copy.getHitCount());
+    }
+
+    @Test
+    void testCorruptRecord() {
+        BitboardOcean ocean = new BitboardOcean();
+        ocean.placeAllShipsFromSeed(2);
+        ByteBuffer buf = ByteBuffer.allocate(BoardCodec.BYTES);
+        BoardCodec.write(ocean, buf, 0);
+        //a bow past location 99
+        ByteBuffer bad = ByteBuffer.allocate(BoardCodec.BYTES).put(0, buf, 0, BoardCodec.BYTES);
+        bad.put(0, (byte) 127);
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.read(bad, 0));
+        //a battleship running off the board
+        bad.put(0, buf, 0, BoardCodec.BYTES).put(0, (byte) 2);
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.read(bad, 0));
+        //two submarines at the same location
+        bad.put(0, buf, 0, BoardCodec.BYTES).put(9, bad.get(8));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.read(bad, 0));
+        //a shot past location 99
+        bad.put(0, buf, 0, BoardCodec.BYTES).putLong(BoardCodec.MISSES + 8, 1L << 40);
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.read(bad, 0));
+        //the record itself is fine
+        bad.put(0, buf, 0, BoardCodec.BYTES);
+        assertEquals(ocean.getOccupiedLo(), BoardCodec.read(bad, 0).getOccupiedLo());
+    }
+
+    @Test
+    void testLayout() {
+        BoardGenerator generator = new BoardGenerator();
+        int[] layouts = new int[3 * generator.getFleetSize()];
+        generator.generate(2, 3, layouts);
+        ByteBuffer buf = ByteBuffer.allocate(3 * BoardCodec.BYTES);
+        for (int board = 0; board < 3; board++) {
+            BoardCodec.writeLayout(layouts, board * generator.getFleetSize(), buf);
+        }
+        assertFalse(buf.hasRemaining());
+
+        int[] read = new int[layouts.length];
+        for (int board = 0; board < 3; board++) {
+            BoardCodec.readLayout(buf, board * BoardCodec.BYTES, read, board * generator.getFleetSize());
+            assertEquals(0, BoardCodec.hits(buf, board * BoardCodec.BYTES, 0));
+            assertEquals(0, BoardCodec.misses(buf, board * BoardCodec.BYTES, 1));
+        }
+        assertArrayEquals(layouts, read);
+        assertEquals(layouts[12], BoardCodec.placement(buf, BoardCodec.BYTES, 2));
+    }
+
+    @Test
+    void testNonStandardFleet() {
+        BitboardOcean ocean = new BitboardOcean();
+        new Submarine().placeShipAt(0, 0, true, ocean);
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.write(ocean, ByteBuffer.allocate(BoardCodec.BYTES)));
+    }
+}
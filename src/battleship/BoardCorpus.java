@@ -0,0 +1,255 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only file of boards in the BoardCodec encoding. Boards are appended through a
+ * buffered FileChannel and read back through memory-mapped segments of the file, so reading a
+ * board by index is O(1) and a full scan creates no objects per record.
+ * The file starts with a HEADER_BYTES header (magic number, version and record size) followed
+ * by the records, little-endian. A corpus is not thread safe.
+ */
+public class BoardCorpus implements Closeable {
+
+    //"BSHP", the first four bytes of every corpus file
+    static final int MAGIC = 0x42534850;
+    //Version of the file layout
+    static final int VERSION = 1;
+    //Size of the file header in bytes
+    static final int HEADER_BYTES = 16;
+    //Number of records in one mapped segment (about 700 MB), below the 2 GB limit of a mapping
+    static final int RECORDS_PER_SEGMENT = 1 << 24;
+    //Number of records buffered before they are written to the file
+    static final int WRITE_BATCH = 4096;
+
+    /**
+     * Receives the records of a scan. The buffer is shared between records, so a visitor must
+     * read what it needs before returning.
+     */
+    public interface RecordVisitor {
+        /**
+         * Called once per record.
+         *
+         * @param index index of the record in the corpus
+         * @param buf   buffer holding the record
+         * @param base  index in buf of the first byte of the record
+         */
+        void visit(long index, ByteBuffer buf, int base);
+    }
+
+    //Channel of the corpus file
+    private final FileChannel channel;
+    //Records waiting to be written
+    private final ByteBuffer pending;
+    //Number of records in the file, not counting pending ones
+    private long written;
+    //Mapped segments of the file, the last one may cover fewer records than the file holds
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    //Number of records covered by the last mapped segment
+    private int lastSegmentRecords;
+
+    /**
+     * Opens the corpus at the given path, creating an empty one if the file does not exist.
+     *
+     * @param path corpus file
+     * @throws IOException if the file cannot be opened or is not a corpus
+     */
+    public BoardCorpus(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.pending = ByteBuffer.allocateDirect(WRITE_BATCH * BoardCodec.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (this.channel.size() == 0) {
+            //new corpus: write the header
+            header.putInt(MAGIC).putInt(VERSION).putInt(BoardCodec.BYTES).putInt(0).flip();
+            while (header.hasRemaining()) this.channel.write(header, header.position());
+        } else {
+            //existing corpus: check the header
+            while (header.hasRemaining()) {
+                if (this.channel.read(header, header.position()) < 0) break;
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getInt() != BoardCodec.BYTES) {
+                this.channel.close();
+                throw new IOException("Not a board corpus: " + path);
+            }
+        }
+        //a record cut short by a crash is ignored and overwritten by the next append
+        this.written = (this.channel.size() - HEADER_BYTES) / BoardCodec.BYTES;
+    }
+
+    /**
+     * Returns the number of boards in the corpus, including boards not yet flushed.
+     *
+     * @return number of boards
+     */
+    public long size() {
+        return this.written + this.pending.position() / BoardCodec.BYTES;
+    }
+
+    /**
+     * Appends a board to the corpus.
+     *
+     * @param ocean board with the standard fleet
+     * @throws IOException if writing fails
+     */
+    public void append(BitboardOcean ocean) throws IOException {
+        if (!this.pending.hasRemaining()) flush();
+        BoardCodec.write(ocean, this.pending);
+    }
+
+    /**
+     * Appends count layouts produced by BoardGenerator.generate() to the corpus.
+     *
+     * @param layouts placement ids, Ocean.FLEET_LENGTHS.length per board
+     * @param count   number of boards
+     * @throws IOException if writing fails
+     */
+    public void appendLayouts(int[] layouts, int count) throws IOException {
+        for (int board = 0; board < count; board++) {
+            if (!this.pending.hasRemaining()) flush();
+            BoardCodec.writeLayout(layouts, board * BoardCodec.FLEET_SIZE, this.pending);
+        }
+    }
+
+    /**
+     * Writes all pending boards to the file.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        this.pending.flip();
+        long position = HEADER_BYTES + this.written * BoardCodec.BYTES;
+        while (this.pending.hasRemaining()) {
+            position += this.channel.write(this.pending, position);
+        }
+        this.written += this.pending.limit() / BoardCodec.BYTES;
+        this.pending.clear();
+    }
+
+    /**
+     * Returns the mapped buffer holding the board with the given index. Use offset() for the
+     * position of the record in it.
+     *
+     * @param index board index
+     * @return buffer holding the record
+     * @throws IOException if the file cannot be mapped
+     */
+    public ByteBuffer buffer(long index) throws IOException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Board " + index + " of " + size());
+        }
+        int segment = (int) (index / RECORDS_PER_SEGMENT);
+        int record = (int) (index % RECORDS_PER_SEGMENT);
+        //map more of the file if the record is past the mapped part
+        if (segment >= this.segments.size()
+                || (segment == this.segments.size() - 1 && record >= this.lastSegmentRecords)) {
+            if (this.pending.position() > 0) flush();
+            map();
+        }
+        return this.segments.get(segment);
+    }
+
+    /**
+     * Returns the position of the board with the given index in the buffer returned by buffer().
+     *
+     * @param index board index
+     * @return index of the first byte of the record
+     */
+    public static int offset(long index) {
+        return (int) (index % RECORDS_PER_SEGMENT) * BoardCodec.BYTES;
+    }
+
+    /**
+     * Reads the placement ids of the board with the given index into out, without creating
+     * any objects.
+     *
+     * @param index  board index
+     * @param out    array receiving Ocean.FLEET_LENGTHS.length placement ids
+     * @param offset index in out for the first ship
+     * @throws IOException if the file cannot be mapped
+     */
+    public void readLayout(long index, int[] out, int offset) throws IOException {
+        BoardCodec.readLayout(buffer(index), offset(index), out, offset);
+    }
+
+    /**
+     * Returns the board with the given index as a new BitboardOcean.
+     *
+     * @param index board index
+     * @return the board
+     * @throws IOException if the file cannot be mapped
+     */
+    public BitboardOcean get(long index) throws IOException {
+        return BoardCodec.read(buffer(index), offset(index));
+    }
+
+    /**
+     * Calls the visitor for every board in the corpus, in order.
+     *
+     * @param visitor receives each record
+     * @throws IOException if the file cannot be mapped
+     */
+    public void forEach(RecordVisitor visitor) throws IOException {
+        long size = size();
+        if (size == 0) return;
+        //make sure the whole corpus is mapped before scanning
+        buffer(size - 1);
+        for (int s = 0; s < this.segments.size(); s++) {
+            ByteBuffer buf = this.segments.get(s);
+            long first = (long) s * RECORDS_PER_SEGMENT;
+            int records = s == this.segments.size() - 1 ? this.lastSegmentRecords : RECORDS_PER_SEGMENT;
+            for (int r = 0; r < records; r++) {
+                visitor.visit(first + r, buf, r * BoardCodec.BYTES);
+            }
+        }
+    }
+
+    /**
+     * Maps every record written so far, replacing the last segment if it has grown.
+     */
+    private void map() throws IOException {
+        if (!this.segments.isEmpty() && this.lastSegmentRecords < RECORDS_PER_SEGMENT) {
+            this.segments.remove(this.segments.size() - 1);
+        }
+        long mapped = (long) this.segments.size() * RECORDS_PER_SEGMENT;
+        while (mapped < this.written) {
+            int records = (int) Math.min(RECORDS_PER_SEGMENT, this.written - mapped);
+            MappedByteBuffer segment = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES + mapped * BoardCodec.BYTES, (long) records * BoardCodec.BYTES);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            this.segments.add(segment);
+            this.lastSegmentRecords = records;
+            mapped += records;
+        }
+    }
+
+    /**
+     * Flushes pending boards and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (this.pending.position() > 0) flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
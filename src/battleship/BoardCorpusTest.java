@@ -0,0 +1,82 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardCorpusTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAppendAndRead() throws IOException {
+        BoardGenerator generator = new BoardGenerator();
+        int count = BoardCorpus.WRITE_BATCH + 10;
+        int[] layouts = new int[count * generator.getFleetSize()];
+        generator.generate(8, count, layouts);
+
+        Path file = dir.resolve("boards.bin");
+        try (BoardCorpus corpus = new BoardCorpus(file)) {
+            corpus.appendLayouts(layouts, count);
+            assertEquals(count, corpus.size());
+            //random access before and after the first batch is flushed
+            int[] layout = new int[generator.getFleetSize()];
+            corpus.readLayout(count - 1, layout, 0);
+            for (int i = 0; i < layout.length; i++) {
+                assertEquals(layouts[(count - 1) * generator.getFleetSize() + i], layout[i]);
+            }
+            corpus.readLayout(3, layout, 0);
+            assertEquals(layouts[3 * generator.getFleetSize()], layout[0]);
+        }
+        assertEquals(BoardCorpus.HEADER_BYTES + (long) count * BoardCodec.BYTES, Files.size(file));
+
+        //reopen and scan
+        try (BoardCorpus corpus = new BoardCorpus(file)) {
+            assertEquals(count, corpus.size());
+            int[] read = new int[layouts.length];
+            corpus.forEach((index, buf, base) ->
+                    BoardCodec.readLayout(buf, base, read, (int) index * BoardCodec.FLEET_SIZE));
+            assertArrayEquals(layouts, read);
+        }
+    }
+
+    @Test
+    void testAppendOcean() throws IOException {
+        BitboardOcean ocean = new BitboardOcean();
+        ocean.placeAllShipsFromSeed(1);
+        ocean.shootAt(0, 0);
+        ocean.shootAt(5, 5);
+        try (BoardCorpus corpus = new BoardCorpus(dir.resolve("games.bin"))) {
+            corpus.append(ocean);
+            BitboardOcean other = new BitboardOcean();
+            other.placeAllShipsFromSeed(2);
+            corpus.append(other);
+            BitboardOcean copy = corpus.get(0);
+            assertEquals(ocean.getOccupiedLo(), copy.getOccupiedLo());
+            assertEquals(ocean.getOccupiedHi(), copy.getOccupiedHi());
+            assertEquals(ocean.getShotsFired(), copy.getShotsFired());
+            assertEquals(2, corpus.size());
+            //appending after reading maps the new record too
+            corpus.append(ocean);
+            assertEquals(ocean.getMissLo(), corpus.get(2).getMissLo());
+        }
+    }
+
+    @Test
+    void testNotACorpus() throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+        assertThrows(IOException.class, () -> new BoardCorpus(file));
+    }
+}
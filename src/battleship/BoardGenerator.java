@@ -0,0 +1,168 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates large numbers of random fleet layouts on all cores.
+ * A layout is stored as one placement id (see PlacementIndex) per ship, in the order of the
+ * standard fleet of GameConfig.standard(), so a buffer of n layouts is an int array of n * 10
+ * placement ids.
+ * The work is cut into fixed chunks of boards and every chunk gets its own stream split from a
+ * SplittableRandom seeded by the caller, so the output only depends on the seed and not on the
+ * number of threads.
+ */
+public class BoardGenerator {
+
+    //Number of boards generated from one random stream
+    static final int CHUNK_SIZE = 4096;
+
+    //Board size and fleet of the generated layouts
+    private final GameConfig config;
+    //Ship lengths of the fleet, in placement order
+    private final int[] lengths;
+    //Number of boards generated by the last call
+    private long lastCount;
+    //Time taken by the last call, in nanoseconds
+    private long lastNanos;
+
+    /**
+     * Creates a generator for the standard fleet of GameConfig.standard().
+     */
+    public BoardGenerator() {
+        this(Ocean.FLEET_LENGTHS);
+    }
+
+    /**
+     * Creates a generator for a fleet with the given ship lengths on the 10x10 board.
+     *
+     * @param lengths ship lengths, in placement order
+     * @throws IllegalArgumentException if the fleet does not fit on the board
+     */
+    BoardGenerator(int[] lengths) {
+        this.config = new GameConfig(10, 10, lengths);
+        this.lengths = this.config.getFleetLengths();
+    }
+
+    /**
+     * Returns the number of placement ids in one layout.
+     *
+     * @return number of ships in the fleet
+     */
+    public int getFleetSize() {
+        return this.lengths.length;
+    }
+
+    /**
+     * Fills out with count layouts generated from the given seed, using all cores of the common
+     * fork-join pool (or of the pool this method is called from).
+     *
+     * @param seed  seed of the root random stream
+     * @param count number of layouts
+     * @param out   buffer of at least count * getFleetSize() ints
+     */
+    public void generate(long seed, int count, int[] out) {
+        int fleetSize = this.lengths.length;
+        if (out.length < (long) count * fleetSize) {
+            throw new IllegalArgumentException("Buffer too small for " + count + " boards");
+        }
+        SplittableRandom[] streams = splitStreams(seed, count);
+        long start = System.nanoTime();
+        IntStream.range(0, streams.length).parallel().forEach(chunk -> {
+            FleetSampler sampler = new FleetSampler(this.lengths);
+            int end = (int) Math.min(count, (long) (chunk + 1) * CHUNK_SIZE);
+            for (int board = chunk * CHUNK_SIZE; board < end; board++) {
+                sample(sampler, streams[chunk], out, board * fleetSize);
+            }
+        });
+        record(count, System.nanoTime() - start);
+    }
+
+    /**
+     * Returns an ordered parallel stream of count layouts generated from the given seed, each
+     * as a new int array of getFleetSize() placement ids. Gives the same layouts in the same
+     * order as generate(). The boards per second are recorded when the stream is closed.
+     *
+     * @param seed  seed of the root random stream
+     * @param count number of layouts
+     * @return stream of layouts
+     */
+    public Stream<int[]> stream(long seed, int count) {
+        SplittableRandom[] streams = splitStreams(seed, count);
+        long start = System.nanoTime();
+        return IntStream.range(0, streams.length).parallel().boxed().flatMap(chunk -> {
+            FleetSampler sampler = new FleetSampler(this.lengths);
+            int size = (int) Math.min(CHUNK_SIZE, count - (long) chunk * CHUNK_SIZE);
+            return Stream.generate(() -> {
+                int[] layout = new int[this.lengths.length];
+                sample(sampler, streams[chunk], layout, 0);
+                return layout;
+            }).limit(size);
+        }).onClose(() -> record(count, System.nanoTime() - start));
+    }
+
+    /**
+     * Returns the boards generated per second by the last call to generate(), or by the last
+     * stream that was closed.
+     *
+     * @return boards per second, 0 before the first run
+     */
+    public double getBoardsPerSecond() {
+        synchronized (this) {
+            if (this.lastNanos == 0) return 0;
+            return this.lastCount * 1e9 / this.lastNanos;
+        }
+    }
+
+    /**
+     * Creates a BitboardOcean with the fleet of this generator placed at the given layout.
+     *
+     * @param layouts buffer filled by generate()
+     * @param board   index of the layout in the buffer
+     * @return ocean with the fleet placed
+     */
+    public Ocean toOcean(int[] layouts, int board) {
+        Ocean ocean = new BitboardOcean(this.config);
+        ocean.placeFleet(layouts, board * this.lengths.length);
+        return ocean;
+    }
+
+    /**
+     * Splits one random stream per chunk from the root stream, in chunk order.
+     *
+     * @param seed  seed of the root random stream
+     * @param count number of boards
+     * @return one stream per chunk
+     */
+    private static SplittableRandom[] splitStreams(long seed, int count) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[(count + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = root.split();
+        }
+        return streams;
+    }
+
+    /**
+     * Draws one layout into out, failing if the fleet does not fit on the board.
+     */
+    private static void sample(FleetSampler sampler, SplittableRandom rd, int[] out, int offset) {
+        if (!sampler.sample(rd, out, offset)) {
+            throw new IllegalStateException("No legal placement for the fleet");
+        }
+    }
+
+    /**
+     * Records the size and duration of a run for getBoardsPerSecond().
+     */
+    private synchronized void record(long count, long nanos) {
+        this.lastCount = count;
+        this.lastNanos = Math.max(nanos, 1);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardGeneratorTest {
+
+    //more than two chunks, the last one partial
+    static final int COUNT = 2 * BoardGenerator.CHUNK_SIZE + 100;
+
+    @Test
+    void testGenerateIsLegal() {
+        BoardGenerator generator = new BoardGenerator();
+        int[] layouts = new int[COUNT * generator.getFleetSize()];
+        generator.generate(3, COUNT, layouts);
+        for (int board = 0; board < COUNT; board += 97) {
+            long lo = 0;
+            long hi = 0;
+            for (int i = 0; i < generator.getFleetSize(); i++) {
+                int p = layouts[board * generator.getFleetSize() + i];
+                assertEquals(Ocean.FLEET_LENGTHS[i], PlacementIndex.length(p));
+                assertTrue(PlacementIndex.isLegal(p, lo, hi));
+                lo |= PlacementIndex.bodyLo(p);
+                hi |= PlacementIndex.bodyHi(p);
+            }
+        }
+        assertTrue(generator.getBoardsPerSecond() > 0);
+    }
+
+    @Test
+    void testDeterministicAcrossThreadCounts() throws Exception {
+        BoardGenerator generator = new BoardGenerator();
+        int[] parallel = new int[COUNT * generator.getFleetSize()];
+        int[] single = new int[COUNT * generator.getFleetSize()];
+        generator.generate(11, COUNT, parallel);
+        //a parallel stream started inside a pool runs on that pool's threads only
+        ForkJoinPool pool = new ForkJoinPool(1);
+        pool.submit(() -> generator.generate(11, COUNT, single)).get();
+        pool.shutdown();
+        assertArrayEquals(parallel, single);
+
+        //a different seed gives different boards
+        int[] other = new int[COUNT * generator.getFleetSize()];
+        generator.generate(12, COUNT, other);
+        assertFalse(Arrays.equals(parallel, other));
+    }
+
+    @Test
+    void testStreamMatchesBuffer() {
+        BoardGenerator generator = new BoardGenerator();
+        int[] layouts = new int[COUNT * generator.getFleetSize()];
+        generator.generate(5, COUNT, layouts);
+        List<int[]> streamed;
+        try (Stream<int[]> stream = generator.stream(5, COUNT)) {
+            streamed = stream.collect(Collectors.toList());
+        }
+        assertEquals(COUNT, streamed.size());
+        for (int board = 0; board < COUNT; board++) {
+            for (int i = 0; i < generator.getFleetSize(); i++) {
+                assertEquals(layouts[board * generator.getFleetSize() + i], streamed.get(board)[i]);
+            }
+        }
+    }
+
+    @Test
+    void testToOcean() {
+        BoardGenerator generator = new BoardGenerator();
+        int[] layouts = new int[generator.getFleetSize()];
+        generator.generate(1, 1, layouts);
+        Ocean ocean = generator.toOcean(layouts, 0);
+        int occupied = 0;
+        for (int r = 0; r < 10; r++) {
+            for (int c = 0; c < 10; c++) {
+                if (ocean.isOccupied(r, c)) occupied++;
+            }
+        }
+        assertEquals(20, occupied);
+
+        //a generator for another fleet builds oceans with that fleet
+        BoardGenerator small = new BoardGenerator(new int[]{3, 2});
+        int[] layout = new int[small.getFleetSize()];
+        small.generate(2, 1, layout);
+        Ocean other = small.toOcean(layout, 0);
+        assertEquals(2, other.getFleetSize());
+        assertEquals(3, other.getShip(0).getLength());
+        assertEquals(2, other.getShip(1).getLength());
+    }
+}
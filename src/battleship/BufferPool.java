@@ -0,0 +1,66 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * A pool of direct ByteBuffers of one size, so that connections coming and going do not allocate
+ * (and later free) native memory. Buffers are cleared when they are released. A pool is not
+ * thread safe; it belongs to one event loop.
+ */
+class BufferPool {
+
+    //Capacity of every buffer
+    private final int bufferSize;
+    //Most buffers kept while unused; more are left to the garbage collector
+    private final int maxIdle;
+    //Buffers not in use
+    private final ArrayDeque<ByteBuffer> idle = new ArrayDeque<>();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param bufferSize capacity of every buffer, in bytes
+     * @param maxIdle    most buffers kept while unused
+     */
+    BufferPool(int bufferSize, int maxIdle) {
+        this.bufferSize = bufferSize;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns an empty buffer, from the pool if there is one.
+     *
+     * @return buffer with position 0 and limit at its capacity
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buf = this.idle.pollLast();
+        return buf != null ? buf : ByteBuffer.allocateDirect(this.bufferSize);
+    }
+
+    /**
+     * Gives a buffer back to the pool. The caller must not use it any more.
+     *
+     * @param buf buffer from acquire()
+     */
+    void release(ByteBuffer buf) {
+        if (this.idle.size() < this.maxIdle) {
+            buf.clear();
+            this.idle.addLast(buf);
+        }
+    }
+
+    /**
+     * Returns the number of buffers not in use
+     *
+     * @return idle buffers
+     */
+    int idleCount() {
+        return this.idle.size();
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.ArrayList;
+
+/**
+ * Per-thread pool of fleets, so that back-to-back games on one thread place the same Ship
+ * objects again instead of creating new ones. Ocean takes the fleets of its random placements
+ * from here and gives them back in reset(). Each thread also keeps the FleetSampler of the last
+ * fleet it placed with backtracking, with its scratch tables. A thread only ever sees its own
+ * fleets and sampler, so the pool needs no locking.
+ */
+final class FleetPool {
+
+    //Most fleets kept per thread; more are left to the garbage collector
+    static final int MAX_FLEETS = 16;
+
+    //Free fleets of each thread, all ships reset
+    private static final ThreadLocal<ArrayList<Ship[]>> FREE = ThreadLocal.withInitial(ArrayList::new);
+    //Sampler of each thread, for the fleet it was last asked for
+    private static final ThreadLocal<FleetSampler> SAMPLER = new ThreadLocal<>();
+
+    /**
+     * No instances, this class only holds static methods.
+     */
+    private FleetPool() {
+    }
+
+    /**
+     * Returns a fleet for the given configuration: a free fleet of the calling thread with the
+     * same ship lengths if there is one, otherwise a new one.
+     *
+     * @param config board size and fleet
+     * @return ships not hit and not placed yet, in placement order
+     */
+    static Ship[] acquire(GameConfig config) {
+        ArrayList<Ship[]> free = FREE.get();
+        //search from the end, where the fleet released last is
+        for (int i = free.size() - 1; i >= 0; i--) {
+            Ship[] fleet = free.get(i);
+            if (matches(fleet, config)) {
+                //move the last fleet into the hole
+                free.set(i, free.get(free.size() - 1));
+                free.remove(free.size() - 1);
+                return fleet;
+            }
+        }
+        return config.createFleet();
+    }
+
+    /**
+     * Gives a fleet back to the pool of the calling thread. Its ships are reset and must not be
+     * used by the caller anymore.
+     *
+     * @param fleet fleet returned by acquire()
+     */
+    static void release(Ship[] fleet) {
+        ArrayList<Ship[]> free = FREE.get();
+        if (free.size() >= MAX_FLEETS) return;
+        for (Ship ship : fleet) ship.reset();
+        free.add(fleet);
+    }
+
+    /**
+     * Returns the sampler of the calling thread for the fleet of the configuration, creating it
+     * if the thread last sampled another fleet.
+     *
+     * @param config board size and fleet
+     * @return sampler owned by the calling thread
+     */
+    static FleetSampler sampler(GameConfig config) {
+        FleetSampler sampler = SAMPLER.get();
+        if (sampler == null || !sampler.matches(config)) {
+            sampler = new FleetSampler(config.getFleetLengths());
+            SAMPLER.set(sampler);
+        }
+        return sampler;
+    }
+
+    /**
+     * Returns the sampler of the calling thread for the given ship lengths, creating it if the
+     * thread last sampled another fleet.
+     *
+     * @param lengths ship lengths, in placement order
+     * @return sampler owned by the calling thread
+     */
+    static FleetSampler sampler(int[] lengths) {
+        FleetSampler sampler = SAMPLER.get();
+        if (sampler == null || !sampler.matches(lengths)) {
+            sampler = new FleetSampler(lengths);
+            SAMPLER.set(sampler);
+        }
+        return sampler;
+    }
+
+    /**
+     * Returns the number of free fleets of the calling thread
+     *
+     * @return free fleets
+     */
+    static int size() {
+        return FREE.get().size();
+    }
+
+    /**
+     * Returns true if the fleet has the ship lengths of the configuration, in the same order.
+     */
+    private static boolean matches(Ship[] fleet, GameConfig config) {
+        if (fleet.length != config.getFleetSize()) return false;
+        for (int i = 0; i < fleet.length; i++) {
+            if (fleet[i].getLength() != config.getShipLength(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws random legal fleet layouts with the PlacementIndex masks, without a rejection loop.
+ * The scratch arrays of the search are allocated once, so one sampler can produce any number of
+ * layouts without allocating. A sampler is not thread safe; use one per thread.
+ */
+class FleetSampler {
+
+    //Ship lengths, in placement order
+    private final int[] lengths;
+    //Placements not tried yet at each level of the search
+    private final int[][] legal;
+    //Number of placements not tried yet at each level
+    private final int[] count;
+    //Occupancy before placing the ship of each level
+    private final long[] occupiedLo;
+    private final long[] occupiedHi;
+    //Placement ids drawn for the ocean placing its fleet with this sampler
+    private final int[] placements;
+
+    /**
+     * Creates a sampler for a fleet with the given ship lengths.
+     *
+     * @param lengths ship lengths, in placement order (larger ships first works best)
+     */
+    FleetSampler(int[] lengths) {
+        this.lengths = lengths.clone();
+        this.legal = new int[lengths.length][200];
+        this.count = new int[lengths.length];
+        this.occupiedLo = new long[lengths.length];
+        this.occupiedHi = new long[lengths.length];
+        this.placements = new int[lengths.length];
+    }
+
+    /**
+     * Returns a buffer of one placement id per ship, owned by this sampler, so that placing a
+     * fleet does not need an array of its own.
+     *
+     * @return placement buffer
+     */
+    int[] getPlacements() {
+        return this.placements;
+    }
+
+    /**
+     * Returns true if the sampler draws the given ship lengths, in the same order.
+     *
+     * @param lengths ship lengths, in placement order
+     * @return whether the lengths match
+     */
+    boolean matches(int[] lengths) {
+        return Arrays.equals(this.lengths, lengths);
+    }
+
+    /**
+     * Returns true if the sampler draws the fleet of the configuration, in the same order.
+     *
+     * @param config board size and fleet
+     * @return whether the fleet matches
+     */
+    boolean matches(GameConfig config) {
+        if (this.lengths.length != config.getFleetSize()) return false;
+        for (int i = 0; i < this.lengths.length; i++) {
+            if (this.lengths[i] != config.getShipLength(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of ships in the fleet.
+     *
+     * @return fleet size
+     */
+    int getFleetSize() {
+        return this.lengths.length;
+    }
+
+    /**
+     * Chooses a random legal placement for every ship of the fleet on an empty board and writes
+     * the placement ids into placements, starting at offset. Each ship is drawn uniformly from
+     * the placements still legal after the ships before it; when a ship has no legal placement
+     * left, the search backtracks and tries another placement for the ship before it.
+     * Returns false only if the fleet cannot be placed at all.
+     *
+     * @param rd         random number generator
+     * @param placements array receiving one placement id per ship
+     * @param offset     index in placements for the first ship
+     * @return whether a placement was found
+     */
+    boolean sample(RandomGenerator rd, int[] placements, int offset) {
+        int n = this.lengths.length;
+        int level = 0;
+        this.count[0] = PlacementIndex.legalPlacements(this.lengths[0], 0, 0, this.legal[0]);
+        while (level >= 0) {
+            //nothing left to try here: move the previous ship
+            if (this.count[level] == 0) {
+                level--;
+                continue;
+            }
+            //draw one of the remaining placements and remove it from the list
+            int[] candidates = this.legal[level];
+            int k = rd.nextInt(this.count[level]);
+            int p = candidates[k];
+            candidates[k] = candidates[--this.count[level]];
+            placements[offset + level] = p;
+            if (level == n - 1) return true;
+            //go on with the next ship
+            this.occupiedLo[level + 1] = this.occupiedLo[level] | PlacementIndex.bodyLo(p);
+            this.occupiedHi[level + 1] = this.occupiedHi[level] | PlacementIndex.bodyHi(p);
+            level++;
+            this.count[level] = PlacementIndex.legalPlacements(this.lengths[level],
+                    this.occupiedLo[level], this.occupiedHi[level], this.legal[level]);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+/**
+ * The size of the board and the ships of the fleet for a game. The standard game is a 10x10
+ * board with one battleship, two cruisers, three destroyers and four submarines.
+ * Ships of length 1 to 4 are the usual Submarine, Destroyer, Cruiser and Battleship; any other
+ * length is a Carrier. Instances are immutable.
+ */
+public class GameConfig {
+
+    //The standard 10x10 game
+    private static final GameConfig STANDARD = new GameConfig(10, 10, Ocean.FLEET_LENGTHS);
+
+    //The number of rows of the board
+    private final int rows;
+    //The number of columns of the board
+    private final int columns;
+    //The length of every ship, in placement order (larger ships first)
+    private final int[] fleet;
+
+    /**
+     * Creates a configuration with the given board size and ship lengths.
+     *
+     * @param rows    number of rows, at least 1
+     * @param columns number of columns, at least 1
+     * @param fleet   length of every ship, in placement order (larger ships first works best)
+     * @throws IllegalArgumentException if the board size is invalid, or the ships cannot fit
+     */
+    public GameConfig(int rows, int columns, int... fleet) {
+        if (rows < 1 || columns < 1 || (long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid board size " + rows + "x" + columns);
+        }
+        //a ship and the sea below and to the right of it take (length + 1) * 2 locations of a
+        //board grown by one row and one column, and these areas never overlap since ships never touch
+        long area = 0;
+        for (int length : fleet) {
+            if (length < 1 || length > Math.max(rows, columns)) {
+                throw new IllegalArgumentException("Ship of length " + length + " does not fit on the board");
+            }
+            area += (length + 1) * 2L;
+        }
+        if (area > (rows + 1L) * (columns + 1L)) {
+            throw new IllegalArgumentException("The fleet does not fit on a " + rows + "x" + columns + " board");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.fleet = fleet.clone();
+    }
+
+    /**
+     * Returns the configuration of the standard 10x10 game.
+     *
+     * @return standard configuration
+     */
+    public static GameConfig standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Returns the number of rows of the board
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the number of columns of the board
+     *
+     * @return number of columns
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Returns the number of ships in the fleet
+     *
+     * @return number of ships
+     */
+    public int getFleetSize() {
+        return this.fleet.length;
+    }
+
+    /**
+     * Returns the length of the i-th ship of the fleet
+     *
+     * @param i index of the ship, in placement order
+     * @return ship length
+     */
+    public int getShipLength(int i) {
+        return this.fleet[i];
+    }
+
+    /**
+     * Returns the length of every ship of the fleet, in placement order
+     *
+     * @return a copy of the ship lengths
+     */
+    public int[] getFleetLengths() {
+        return this.fleet.clone();
+    }
+
+    /**
+     * Returns whether the board is the standard 10x10 board, which the bitboard classes support
+     *
+     * @return if the board is 10x10
+     */
+    public boolean isStandardSize() {
+        return this.rows == 10 && this.columns == 10;
+    }
+
+    /**
+     * Creates the ships of the fleet, in placement order.
+     *
+     * @return new ships
+     */
+    Ship[] createFleet() {
+        Ship[] ships = new Ship[this.fleet.length];
+        for (int i = 0; i < ships.length; i++) {
+            ships[i] = createShip(this.fleet[i]);
+        }
+        return ships;
+    }
+
+    /**
+     * Creates a ship of the given length.
+     *
+     * @param length ship length
+     * @return a Submarine, Destroyer, Cruiser or Battleship for lengths 1 to 4, a Carrier otherwise
+     */
+    static Ship createShip(int length) {
+        switch (length) {
+            case 1:
+                return new Submarine();
+            case 2:
+                return new Destroyer();
+            case 3:
+                return new Cruiser();
+            case 4:
+                return new Battleship();
+            default:
+                return new Carrier(length);
+        }
+    }
+}
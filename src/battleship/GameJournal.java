@@ -0,0 +1,354 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only binary journal of games: the board of each game when it starts, then every
+ * shot fired at it with its outcome. Any game can be rebuilt by replaying its records, and a
+ * scan reads the whole file sequentially without creating any objects per record.
+ * The file starts with a HEADER_BYTES header (magic number and version) followed by the
+ * records, little-endian and 8-byte aligned:
+ * a start record (START_BYTES) holds the game id, the type START and the board in the
+ * BoardCodec encoding, padded to 8 bytes;
+ * a shot record (SHOT_BYTES) holds the game id, the type SHOT, the location (row * 10 + column)
+ * and the outcome (Ocean.SHOT_MISS, Ocean.SHOT_HIT or the length of the ship sunk).
+ * Records are appended to a buffer and written through the FileChannel when it fills up, so
+ * recording a shot costs a few stores. commit() makes the records durable: callers that
+ * commit at the same time share one write and one force of the file (group commit).
+ * Appending and committing are thread safe.
+ */
+public class GameJournal implements Closeable {
+
+    //"BSJL", the first four bytes of every journal file
+    static final int MAGIC = 0x42534a4c;
+    //Version of the file layout
+    static final int VERSION = 1;
+    //Size of the file header in bytes
+    static final int HEADER_BYTES = 16;
+    //Record type of the board of a game when it starts
+    static final byte START = 1;
+    //Record type of a shot
+    static final byte SHOT = 2;
+    //Size of a shot record in bytes
+    static final int SHOT_BYTES = 8;
+    //Size of a start record in bytes: game id, type, padding, board, padding to 8 bytes
+    static final int START_BYTES = (8 + BoardCodec.BYTES + 7) & ~7;
+    //Size of the buffer of records waiting to be written, and of the read buffer of a scan
+    static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Receives the records of a scan. The buffer is shared between records, so a visitor must
+     * read what it needs before returning.
+     */
+    public interface Visitor {
+        /**
+         * Called for the board of a game when it starts.
+         *
+         * @param gameId id of the game
+         * @param buf    buffer holding the board in the BoardCodec encoding
+         * @param base   index in buf of the first byte of the board
+         */
+        void gameStarted(int gameId, ByteBuffer buf, int base);
+
+        /**
+         * Called for a shot fired in a game.
+         *
+         * @param gameId   id of the game
+         * @param location location of the shot, row * 10 + column
+         * @param outcome  Ocean.SHOT_MISS, Ocean.SHOT_HIT or the length of the ship sunk
+         */
+        void shotFired(int gameId, int location, int outcome);
+    }
+
+    //Channel of the journal file
+    private final FileChannel channel;
+    //Records waiting to be written
+    private final ByteBuffer pending;
+    //Number of bytes in the file, not counting pending records
+    private long written;
+    //Number of bytes known to be on disk
+    private volatile long durable;
+    //Held by the thread forcing the file, so that appends can go on during the force
+    private final Object commitLock = new Object();
+
+    /**
+     * Opens the journal at the given path, creating an empty one if the file does not exist.
+     * An existing journal is scanned once to find the end of its last complete record; a record
+     * cut short by a crash is cut off the file.
+     *
+     * @param path journal file
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public GameJournal(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.pending = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (this.channel.size() == 0) {
+                //new journal: write the header
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putLong(0).flip();
+                while (header.hasRemaining()) {
+                    this.channel.write(header, header.position());
+                }
+                this.written = HEADER_BYTES;
+            } else {
+                this.written = scan(this.channel, null);
+                //cut off a record torn by a crash, so that shorter appends leave no stale bytes
+                if (this.channel.size() > this.written) {
+                    this.channel.truncate(this.written);
+                    this.channel.force(true);
+                }
+            }
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+        this.durable = this.written;
+    }
+
+    /**
+     * Returns the size of the journal in bytes, including records not yet written.
+     *
+     * @return size in bytes
+     */
+    public synchronized long size() {
+        return this.written + this.pending.position();
+    }
+
+    /**
+     * Records the current board of a game and reports every later shot at the ocean to this
+     * journal. Usually called right after the fleet is placed, but a game already in progress
+     * can be recorded too, as its hits and misses are part of the board.
+     *
+     * @param gameId id of the game, chosen by the caller
+     * @param ocean  ocean with the standard fleet
+     * @return position in the journal after the record, for commit()
+     * @throws IOException if writing fails
+     */
+    public synchronized long start(int gameId, BitboardOcean ocean) throws IOException {
+        if (this.pending.remaining() < START_BYTES) flush();
+        int base = this.pending.position();
+        this.pending.putInt(base, gameId).putInt(base + 4, START);
+        BoardCodec.write(ocean, this.pending, base + 8);
+        for (int i = base + 8 + BoardCodec.BYTES; i < base + START_BYTES; i++) {
+            this.pending.put(i, (byte) 0);
+        }
+        this.pending.position(base + START_BYTES);
+        ocean.setShotListener((row, column, outcome) -> {
+            try {
+                shot(gameId, row * 10 + column, outcome);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return size();
+    }
+
+    /**
+     * Records a shot. Called by the listener that start() sets on the ocean.
+     *
+     * @param gameId   id of the game
+     * @param location location of the shot, row * 10 + column
+     * @param outcome  Ocean.SHOT_MISS, Ocean.SHOT_HIT or the length of the ship sunk
+     * @return position in the journal after the record, for commit()
+     * @throws IOException if writing fails
+     */
+    public synchronized long shot(int gameId, int location, int outcome) throws IOException {
+        if (this.pending.remaining() < SHOT_BYTES) flush();
+        this.pending.putInt(gameId).put(SHOT).put((byte) location).put((byte) outcome).put((byte) 0);
+        return this.written + this.pending.position();
+    }
+
+    /**
+     * Writes the pending records to the file, without forcing them to disk.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void flush() throws IOException {
+        this.pending.flip();
+        long position = this.written;
+        while (this.pending.hasRemaining()) {
+            position += this.channel.write(this.pending, position);
+        }
+        this.written = position;
+        this.pending.clear();
+    }
+
+    /**
+     * Makes every record appended so far durable.
+     *
+     * @throws IOException if writing fails
+     */
+    public void commit() throws IOException {
+        commit(size());
+    }
+
+    /**
+     * Makes the journal durable up to the given position. If another thread is forcing the
+     * file, waits for it and returns at once if its force covered the position; otherwise
+     * writes and forces everything appended so far, for all threads.
+     *
+     * @param position position returned by start() or shot()
+     * @throws IOException if writing fails
+     */
+    public void commit(long position) throws IOException {
+        if (this.durable >= position) return;
+        synchronized (this.commitLock) {
+            if (this.durable >= position) return;
+            long end;
+            synchronized (this) {
+                if (this.pending.position() > 0) flush();
+                end = this.written;
+            }
+            this.channel.force(false);
+            this.durable = end;
+        }
+    }
+
+    /**
+     * Rebuilds a game from the journal at the given path: decodes its last start record and fires
+     * the shots recorded after it, checking that each shot has the recorded outcome.
+     *
+     * @param path   journal file
+     * @param gameId id of the game
+     * @return the ocean of the game after its last recorded shot, or null if the game is not in
+     * the journal
+     * @throws IOException if the file cannot be read, a board of the game is corrupt, or the shots
+     * do not have the recorded outcomes
+     */
+    public static BitboardOcean replay(Path path, int gameId) throws IOException {
+        BitboardOcean[] game = new BitboardOcean[1];
+        int[] shot = new int[1];
+        int[] outcome = new int[1];
+        int[] mismatch = {-1};
+        try {
+            scan(path, new Visitor() {
+                @Override
+                public void gameStarted(int id, ByteBuffer buf, int base) {
+                    if (id == gameId) game[0] = BoardCodec.read(buf, base);
+                }
+
+                @Override
+                public void shotFired(int id, int location, int recorded) {
+                    if (id != gameId || game[0] == null || mismatch[0] >= 0) return;
+                    shot[0] = location;
+                    game[0].shootAll(shot, 0, 1, outcome);
+                    if (outcome[0] != recorded) mismatch[0] = location;
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt board in the journal for game " + gameId, e);
+        }
+        if (mismatch[0] >= 0) {
+            throw new IOException("Replay of game " + gameId + " does not match the journal at location "
+                    + mismatch[0]);
+        }
+        return game[0];
+    }
+
+    /**
+     * Calls the visitor for every complete record of the journal at the given path, in order.
+     *
+     * @param path    journal file
+     * @param visitor receives each record
+     * @return size in bytes of the complete records, header included
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public static long scan(Path path, Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return scan(channel, visitor);
+        }
+    }
+
+    /**
+     * Reads the journal from the start, calling the visitor (if any) for every complete record.
+     *
+     * @return size in bytes of the complete records, header included
+     */
+    private static long scan(FileChannel channel, Visitor visitor) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        //file position of the next read and of the first byte of the buffer
+        long position = 0;
+        long bufStart = 0;
+        boolean eof = fill(channel, buf, position);
+        position += buf.limit();
+        if (buf.limit() < HEADER_BYTES || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+            throw new IOException("Not a game journal");
+        }
+        int base = HEADER_BYTES;
+        while (true) {
+            //decode the complete records in the buffer
+            int limit = buf.limit();
+            while (base + SHOT_BYTES <= limit) {
+                int gameId = buf.getInt(base);
+                byte type = buf.get(base + 4);
+                if (type == SHOT) {
+                    if (visitor != null) visitor.shotFired(gameId, buf.get(base + 5), buf.get(base + 6));
+                    base += SHOT_BYTES;
+                } else if (type == START) {
+                    if (base + START_BYTES > limit) break;
+                    if (visitor != null) visitor.gameStarted(gameId, buf, base + 8);
+                    base += START_BYTES;
+                } else {
+                    throw new IOException("Corrupt game journal at byte " + (bufStart + base));
+                }
+            }
+            if (eof) return bufStart + base;
+            //move the partial record to the front and read more
+            buf.position(base);
+            buf.compact();
+            bufStart += base;
+            int kept = buf.position();
+            eof = fill(channel, buf, position);
+            position += buf.limit() - kept;
+            base = 0;
+        }
+    }
+
+    /**
+     * Writes pending records, forces them to disk and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Reads from the given file position until the buffer is full or the file ends, then flips
+     * the buffer.
+     *
+     * @return true if the end of the file was reached
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        boolean eof = false;
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, position);
+            if (read < 0) {
+                eof = true;
+                break;
+            }
+            position += read;
+        }
+        buf.flip();
+        return eof;
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Plays count games with random shots, all recorded in the journal, one shot per game in
+     * turn so that their records are interleaved. Some shots go through the batch methods.
+     */
+    private static List<BitboardOcean> play(GameJournal journal, int firstId, int count, long seed) throws IOException {
+        SplittableRandom rd = new SplittableRandom(seed);
+        List<BitboardOcean> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BitboardOcean ocean = new BitboardOcean();
+            ocean.placeAllShipsWithBacktracking(rd);
+            journal.start(firstId + i, ocean);
+            games.add(ocean);
+        }
+        int[] outcomes = new int[2];
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (BitboardOcean ocean : games) {
+                if (ocean.isGameOver()) continue;
+                running = true;
+                if (rd.nextInt(4) == 0) {
+                    ocean.shootAll(new int[]{rd.nextInt(100), rd.nextInt(100)}, 0, 2, outcomes);
+                } else {
+                    ocean.shootAt(rd.nextInt(10), rd.nextInt(10));
+                }
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Asserts that a replayed game has the same state as the game played.
+     */
+    private static void assertSameGame(BitboardOcean expected, BitboardOcean actual) {
+        assertEquals(expected.getHitLo(), actual.getHitLo());
+        assertEquals(expected.getHitHi(), actual.getHitHi());
+        assertEquals(expected.getMissLo(), actual.getMissLo());
+        assertEquals(expected.getMissHi(), actual.getMissHi());
+        assertEquals(expected.getShipsSunk(), actual.getShipsSunk());
+        assertEquals(expected.getShotsFired(), actual.getShotsFired());
+        assertEquals(expected.getHitCount(), actual.getHitCount());
+    }
+
+    @Test
+    void testRecordAndReplay() throws IOException {
+        Path file = dir.resolve("games.journal");
+        List<BitboardOcean> games;
+        try (GameJournal journal = new GameJournal(file)) {
+            games = play(journal, 0, 300, 1);
+        }
+        //the games fill several write buffers
+        assertTrue(Files.size(file) > 2 * GameJournal.BUFFER_BYTES);
+
+        //scan: one start per game and one shot per shot counted by the oceans
+        int[] starts = new int[1];
+        long[] shots = new long[1];
+        int[] sunk = new int[1];
+        long end = GameJournal.scan(file, new GameJournal.Visitor() {
+            @Override
+            public void gameStarted(int gameId, ByteBuffer buf, int base) {
+                assertEquals(starts[0]++, gameId);
+                assertEquals(0, BoardCodec.hits(buf, base, 0) | BoardCodec.misses(buf, base, 0));
+            }
+
+            @Override
+            public void shotFired(int gameId, int location, int outcome) {
+                shots[0]++;
+                if (outcome > 0) sunk[0]++;
+            }
+        });
+        assertEquals(Files.size(file), end);
+        assertEquals(300, starts[0]);
+        assertEquals(games.stream().mapToLong(Ocean::getShotsFired).sum(), shots[0]);
+        assertEquals(300 * BoardCodec.FLEET_SIZE, sunk[0]);
+
+        //replay rebuilds any game
+        for (int id : new int[]{0, 17, 299}) {
+            BitboardOcean replayed = GameJournal.replay(file, id);
+            assertSameGame(games.get(id), replayed);
+            assertTrue(replayed.isGameOver());
+        }
+        assertNull(GameJournal.replay(file, 300));
+    }
+
+    @Test
+    void testReopenAfterCrash() throws IOException {
+        Path file = dir.resolve("games.journal");
+        try (GameJournal journal = new GameJournal(file)) {
+            play(journal, 0, 5, 2);
+        }
+        long size = Files.size(file);
+        //a start record cut short by a crash
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer torn = ByteBuffer.allocate(20);
+            torn.put(4, GameJournal.START);
+            channel.write(torn);
+        }
+        List<BitboardOcean> games;
+        try (GameJournal journal = new GameJournal(file)) {
+            assertEquals(size, journal.size());
+            games = play(journal, 5, 5, 3);
+        }
+        assertSameGame(games.get(4), GameJournal.replay(file, 9));
+        assertEquals(Files.size(file), GameJournal.scan(file, null));
+
+        //not a journal
+        Path other = dir.resolve("other.bin");
+        Files.write(other, new byte[64]);
+        assertThrows(IOException.class, () -> new GameJournal(other));
+        assertThrows(IOException.class, () -> GameJournal.scan(other, null));
+    }
+
+    @Test
+    void testShortAppendAfterTornStart() throws IOException {
+        Path file = dir.resolve("games.journal");
+        try (GameJournal journal = new GameJournal(file)) {
+            play(journal, 0, 2, 4);
+        }
+        long size = Files.size(file);
+        long[] shots = new long[1];
+        GameJournal.Visitor counter = new GameJournal.Visitor() {
+            @Override
+            public void gameStarted(int gameId, ByteBuffer buf, int base) {
+            }
+
+            @Override
+            public void shotFired(int gameId, int location, int outcome) {
+                shots[0]++;
+            }
+        };
+        GameJournal.scan(file, counter);
+        long before = shots[0];
+        //40 bytes of a start record, whose board bytes look like shot records past an 8-byte append
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer torn = ByteBuffer.allocate(40);
+            torn.put(4, GameJournal.START);
+            for (int i = 12; i < 40; i += 8) torn.put(i, GameJournal.SHOT);
+            channel.write(torn);
+        }
+        try (GameJournal journal = new GameJournal(file)) {
+            assertEquals(size, Files.size(file));
+            journal.shot(7, 12, Ocean.SHOT_MISS);
+        }
+        assertEquals(size + GameJournal.SHOT_BYTES, Files.size(file));
+        shots[0] = 0;
+        assertEquals(Files.size(file), GameJournal.scan(file, counter));
+        assertEquals(before + 1, shots[0]);
+    }
+
+    @Test
+    void testReplayDetectsTampering() throws IOException {
+        Path file = dir.resolve("games.journal");
+        try (GameJournal journal = new GameJournal(file)) {
+            BitboardOcean ocean = new BitboardOcean();
+            ocean.placeAllShipsFromSeed(4);
+            journal.start(1, ocean);
+            //a hit recorded as a miss
+            int location = Long.numberOfTrailingZeros(ocean.getOccupiedLo());
+            journal.shot(1, location, Ocean.SHOT_MISS);
+        }
+        assertThrows(IOException.class, () -> GameJournal.replay(file, 1));
+    }
+
+    @Test
+    void testGroupCommit() throws Exception {
+        Path file = dir.resolve("games.journal");
+        int threads = 4;
+        int perThread = 500;
+        try (GameJournal journal = new GameJournal(file)) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                Thread writer = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perThread; i++) {
+                            journal.commit(journal.shot(id, i % 100, Ocean.SHOT_MISS));
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) writer.join();
+            //every record was committed
+            assertEquals(journal.size(), Files.size(file));
+        }
+        int[] perGame = new int[threads];
+        GameJournal.scan(file, new GameJournal.Visitor() {
+            @Override
+            public void gameStarted(int gameId, ByteBuffer buf, int base) {
+                fail("No game was started");
+            }
+
+            @Override
+            public void shotFired(int gameId, int location, int outcome) {
+                //records of one thread stay in order
+                assertEquals(perGame[gameId]++ % 100, location);
+            }
+        });
+        for (int count : perGame) assertEquals(perThread, count);
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of one simulated game: shots, hits and the order in which ships were sunk.
+ * A result object is meant to be reused from game to game, so the simulator does not allocate.
+ */
+public class GameResult {
+
+    //Total number of shots fired
+    private int shots;
+    //Total number of hits
+    private int hits;
+    //Whether every ship was sunk before the shot limit
+    private boolean finished;
+    //Number of ships sunk
+    private int sinkCount;
+    //For each sink in order: the shot number (starting at 1) that sank the ship
+    private int[] sinkShot = new int[10];
+    //For each sink in order: the length of the ship sunk
+    private int[] sinkLength = new int[10];
+
+    /**
+     * Clears the result before a new game.
+     */
+    void reset() {
+        this.shots = 0;
+        this.hits = 0;
+        this.finished = false;
+        this.sinkCount = 0;
+    }
+
+    /**
+     * Records one shot.
+     *
+     * @param hit        whether the shot hit
+     * @param sunkLength length of the ship sunk by the shot, 0 if none
+     */
+    void recordShot(boolean hit, int sunkLength) {
+        this.shots++;
+        if (hit) this.hits++;
+        if (sunkLength > 0) {
+            if (this.sinkCount == this.sinkShot.length) {
+                this.sinkShot = Arrays.copyOf(this.sinkShot, this.sinkCount * 2);
+                this.sinkLength = Arrays.copyOf(this.sinkLength, this.sinkCount * 2);
+            }
+            this.sinkShot[this.sinkCount] = this.shots;
+            this.sinkLength[this.sinkCount] = sunkLength;
+            this.sinkCount++;
+        }
+    }
+
+    /**
+     * Marks the game as won.
+     */
+    void finish() {
+        this.finished = true;
+    }
+
+    /**
+     * Returns the total number of shots fired
+     *
+     * @return number of shots
+     */
+    public int getShots() {
+        return this.shots;
+    }
+
+    /**
+     * Returns the total number of hits
+     *
+     * @return number of hits
+     */
+    public int getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns whether every ship was sunk
+     *
+     * @return if the game was finished
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Returns the number of ships sunk
+     *
+     * @return number of sinks
+     */
+    public int getSinkCount() {
+        return this.sinkCount;
+    }
+
+    /**
+     * Returns the shot number (starting at 1) of the i-th sink
+     *
+     * @param i index of the sink, from 0 to getSinkCount() - 1
+     * @return shot number
+     */
+    public int getSinkShot(int i) {
+        return this.sinkShot[i];
+    }
+
+    /**
+     * Returns the length of the ship of the i-th sink
+     *
+     * @param i index of the sink, from 0 to getSinkCount() - 1
+     * @return ship length
+     */
+    public int getSinkLength(int i) {
+        return this.sinkLength[i];
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A TCP server hosting one game per connection, with a blocking thread per connection.
+ * The protocol is line based, in ASCII. On connect the server sends WELCOME; every line the
+ * client sends is handled by GameSession.handle() ("row,column", as typed into
+ * BattleshipGame) and answered with one line. After the shot that sinks the last ship, the server
+ * sends one more line with the results (see GameSession.getResults()) and closes the connection.
+ * A line longer than MAX_LINE characters is answered "Invalid inputs!" and skipped.
+ * Connections run on virtual threads when the runtime has them (Java 21 and later), so a node
+ * can hold a very large number of idle players; on older runtimes they fall back to platform
+ * threads with a small stack.
+ */
+public class GameServer implements Closeable {
+
+    //First line sent on every connection
+    static final String WELCOME = "Welcome to Battleship! Enter row,column:";
+    //Length of the queue of connections not accepted yet
+    static final int BACKLOG = 4096;
+    //Stack size of the platform threads used when there are no virtual threads
+    static final long FALLBACK_STACK_SIZE = 256 * 1024;
+    //Longest line read from a client, the size of the input buffer of NioGameServer
+    static final int MAX_LINE = NioGameServer.BUFFER_SIZE;
+    //Returned by readLine() for a line longer than MAX_LINE
+    private static final int OVERLONG = -2;
+
+    //Games of the connected players
+    private final SessionManager sessions;
+    //Listening socket
+    private final ServerSocket serverSocket;
+    //Runs one task per connection
+    private final ExecutorService connections;
+    //Open client sockets, closed with the server
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    //Thread accepting connections
+    private final Thread acceptor;
+
+    /**
+     * Creates a server for the given sessions listening on the given address, and starts
+     * accepting connections.
+     *
+     * @param sessions games of the players
+     * @param address  address to listen on, port 0 for any free port
+     * @throws IOException if the socket cannot be bound
+     */
+    public GameServer(SessionManager sessions, InetSocketAddress address) throws IOException {
+        this.sessions = sessions;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(address, BACKLOG);
+        this.connections = newConnectionExecutor("battleship-connection-");
+        this.acceptor = new Thread(this::acceptLoop, "battleship-acceptor");
+        this.acceptor.start();
+    }
+
+    /**
+     * Returns the port the server listens on
+     *
+     * @return local port
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of connected clients
+     *
+     * @return open connections
+     */
+    public int getConnectionCount() {
+        return this.clients.size();
+    }
+
+    /**
+     * Creates an executor running every task on a thread of its own: a virtual thread if the
+     * runtime has them, otherwise a daemon platform thread with a small stack.
+     *
+     * @param prefix name prefix of the fallback threads
+     * @return executor with one thread per task
+     */
+    static ExecutorService newConnectionExecutor(String prefix) {
+        try {
+            //Executors.newVirtualThreadPerTaskExecutor() exists from Java 21 on
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicLong count = new AtomicLong();
+            ThreadFactory factory = task -> {
+                Thread thread = new Thread(null, task, prefix + count.incrementAndGet(), FALLBACK_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    private void acceptLoop() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                this.clients.add(socket);
+                this.connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                //the socket was closed, or one connection failed: keep going while open
+            }
+        }
+    }
+
+    /**
+     * Plays one game over a connection, from the welcome line to the results.
+     *
+     * @param socket client connection
+     */
+    private void serve(Socket socket) {
+        GameSession session = this.sessions.open();
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+            writeLine(out, WELCOME);
+            char[] line = new char[MAX_LINE];
+            int length;
+            while ((length = readLine(in, line)) != -1) {
+                if (length == OVERLONG) {
+                    writeLine(out, GameSession.INVALID);
+                    continue;
+                }
+                String reply = session.handle(new String(line, 0, length));
+                if (session.isGameOver()) {
+                    out.write(reply);
+                    out.write('\n');
+                    writeLine(out, session.getResults());
+                    break;
+                }
+                writeLine(out, reply);
+            }
+        } catch (IOException e) {
+            //the client went away; its game ends with the connection
+        } finally {
+            this.clients.remove(socket);
+            this.sessions.close(session);
+        }
+    }
+
+    /**
+     * Reads one line ended by "\n" or "\r\n" into a fixed buffer, so a client cannot make the
+     * server hold an unbounded line. The rest of a line longer than the buffer is skipped.
+     *
+     * @param in   client input
+     * @param line buffer receiving the line, without its line break
+     * @return length of the line, OVERLONG for a line longer than the buffer, or -1 at the end
+     * of the input
+     */
+    private static int readLine(BufferedReader in, char[] line) throws IOException {
+        int length = 0;
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (length < line.length) line[length] = (char) c;
+            //keep counting past the buffer, up to one more than it holds
+            if (length <= line.length) length++;
+        }
+        if (c == -1 && length == 0) return -1;
+        if (length > 0 && length <= line.length && line[length - 1] == '\r') length--;
+        return length > line.length ? OVERLONG : length;
+    }
+
+    /**
+     * Writes one line and sends it.
+     */
+    private static void writeLine(Writer out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Stops accepting connections and closes every open one.
+     *
+     * @throws IOException if the listening socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        for (Socket socket : this.clients) {
+            socket.close();
+        }
+        this.connections.shutdown();
+        try {
+            this.acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args optional port, 7070 by default
+     * @throws IOException if the socket cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        GameServer server = new GameServer(new SessionManager(), new InetSocketAddress(port));
+        System.out.println("Battleship server listening on port " + server.getPort());
+    }
+
+    /**
+     * Returns the loopback address with the given port.
+     *
+     * @param port port, 0 for any free port
+     * @return loopback socket address
+     */
+    static InetSocketAddress loopback(int port) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+
+    @Test
+    void testSessionReplies() {
+        SessionManager sessions = new SessionManager();
+        GameSession session = sessions.open();
+        assertSame(session, sessions.get(session.getId()));
+        assertEquals(GameSession.INVALID, session.handle("a,b"));
+        assertEquals(GameSession.INVALID, session.handle("3"));
+        assertEquals(GameSession.ROW_OUT_OF_BOUND, session.handle("10,0"));
+        assertEquals(GameSession.COLUMN_OUT_OF_BOUND, session.handle(" 0 , -1"));
+        assertEquals(0, session.getOcean().getShotsFired());
+
+        //sink every ship through the protocol
+        int sinks = 0;
+        for (int r = 0; r < 10; r++) {
+            for (int c = 0; c < 10; c++) {
+                String reply = session.handle(r + "," + c);
+                assertEquals(session.getOcean().isOccupied(r, c), reply.startsWith(GameSession.HIT));
+                if (reply.contains("You just sank a ship")) sinks++;
+            }
+        }
+        assertEquals(10, sinks);
+        assertTrue(session.isGameOver());
+        assertEquals("Game over! Total shots: 100, total hits: 20", session.getResults());
+        sessions.close(session);
+        assertEquals(0, sessions.size());
+        assertEquals(1, sessions.getGamesFinished());
+    }
+
+    @Test
+    void testSnapshotAndRestore(@TempDir Path dir) throws IOException {
+        SessionManager sessions = new SessionManager();
+        SplittableRandom rd = new SplittableRandom(6);
+        int count = SessionManager.IO_BATCH + 100;
+        for (int i = 0; i < count; i++) {
+            GameSession session = sessions.open();
+            for (int shot = rd.nextInt(60); shot > 0; shot--) session.fire(rd.nextInt(10), rd.nextInt(10));
+        }
+        sessions.close(sessions.get(3));
+        Path file = dir.resolve("sessions.bin");
+        assertEquals(count - 1, sessions.snapshot(file));
+        assertEquals(SessionManager.HEADER_BYTES + (long) (count - 1) * SessionManager.SESSION_BYTES, Files.size(file));
+
+        //a new manager resumes every session where it was
+        SessionManager restarted = new SessionManager();
+        assertEquals(count - 1, restarted.restore(file));
+        assertEquals(count - 1, restarted.size());
+        assertNull(restarted.get(3));
+        for (long id = 0; id < count; id++) {
+            if (id == 3) continue;
+            Ocean before = sessions.get(id).getOcean();
+            Ocean after = restarted.get(id).getOcean();
+            assertEquals(before.getShotsFired(), after.getShotsFired());
+            assertEquals(before.getHitCount(), after.getHitCount());
+            assertEquals(before.getShipsSunk(), after.getShipsSunk());
+            for (int r = 0; r < 10; r++) {
+                for (int c = 0; c < 10; c++) assertEquals(before.isOccupied(r, c), after.isOccupied(r, c));
+            }
+            assertEquals(sessions.get(id).fire(4, 4), restarted.get(id).fire(4, 4));
+        }
+        //new sessions get fresh ids
+        assertEquals(count, restarted.open().getId());
+
+        //not a snapshot, or cut short
+        Files.write(file, new byte[SessionManager.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> new SessionManager().restore(file));
+        sessions.snapshot(file);
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 1));
+        assertThrows(IOException.class, () -> new SessionManager().restore(file));
+        assertThrows(IllegalStateException.class, () -> new SessionManager(new GameConfig(20, 20, Ocean.FLEET_LENGTHS)).snapshot(file));
+        //another fleet on a 10x10 board cannot be encoded either, and leaves no temporary file
+        SessionManager small = new SessionManager(new GameConfig(10, 10, 3, 2));
+        small.open();
+        assertThrows(IllegalStateException.class, () -> small.snapshot(file));
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+    }
+
+    @Test
+    void testProtocol() throws Exception {
+        SessionManager sessions = new SessionManager();
+        try (GameServer server = new GameServer(sessions, GameServer.loopback(0));
+             Socket socket = new Socket(GameServer.loopback(0).getAddress(), server.getPort())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+            assertEquals(GameServer.WELCOME, in.readLine());
+            out.println("hello");
+            assertEquals(GameSession.INVALID, in.readLine());
+            out.println("4,12");
+            assertEquals(GameSession.COLUMN_OUT_OF_BOUND, in.readLine());
+            //a line longer than MAX_LINE gets one reply
+            out.println("1" + " ".repeat(3 * GameServer.MAX_LINE) + ",1");
+            assertEquals(GameSession.INVALID, in.readLine());
+            out.print("12,0\r\n");
+            out.flush();
+            assertEquals(GameSession.ROW_OUT_OF_BOUND, in.readLine());
+            out.println("4,5");
+            String reply = in.readLine();
+            assertTrue(reply.equals(GameSession.HIT) || reply.equals(GameSession.MISS)
+                    || reply.startsWith(GameSession.HIT + " You just sank"), reply);
+            assertEquals(1, sessions.size());
+        }
+    }
+
+    @Test
+    void testLoadTest() throws Exception {
+        SessionManager sessions = new SessionManager();
+        try (GameServer server = new GameServer(sessions, GameServer.loopback(0))) {
+            LoadTestClient client = new LoadTestClient(GameServer.loopback(server.getPort()));
+            client.run(50, 1);
+            assertEquals(50, client.getGames());
+            assertEquals(0, client.getFailures());
+            //random play never repeats a location and needs at least 20 shots
+            assertTrue(client.getShots() >= 50 * 20 && client.getShots() <= 50 * 100);
+            //the server ends every session with its connection
+            for (int i = 0; i < 100 && sessions.getGamesFinished() < 50; i++) Thread.sleep(10);
+            assertEquals(50, sessions.getGamesFinished());
+            assertEquals(0, sessions.size());
+        }
+    }
+}
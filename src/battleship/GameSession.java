@@ -0,0 +1,149 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One game hosted by a SessionManager: an Ocean of its own and the replies of the text protocol.
+ * A line of input is handled like BattleshipGame.getUserInput() and lunchGame(): "row,column"
+ * fires a shot and the reply is the message the console game would print.
+ * A session is meant to be driven by one connection at a time; its methods are synchronized so
+ * that a misbehaving client cannot corrupt it.
+ */
+public class GameSession {
+
+    //Reply to a shot that hits a ship
+    static final String HIT = "Hit!";
+    //Reply to a shot that finds nothing
+    static final String MISS = "Miss!";
+    //Reply to a line that is not two integers separated by a comma
+    static final String INVALID = "Invalid inputs!";
+    //Reply to a row outside the board
+    static final String ROW_OUT_OF_BOUND = "Row index out of bound!";
+    //Reply to a column outside the board
+    static final String COLUMN_OUT_OF_BOUND = "Column index out of bound!";
+
+    //Outcome of fire() for a shot that finds nothing
+    static final int MISSED = Ocean.SHOT_MISS;
+    //Outcome of fire() for a shot that hits a ship without sinking it
+    static final int HIT_AFLOAT = Ocean.SHOT_HIT;
+
+    //Id of the session in its manager
+    private final long id;
+    //Board of this game
+    private final Ocean ocean;
+
+    /**
+     * Creates a session for a board with the fleet already placed.
+     *
+     * @param id    id of the session
+     * @param ocean board of the game
+     */
+    GameSession(long id, Ocean ocean) {
+        this.id = id;
+        this.ocean = ocean;
+    }
+
+    /**
+     * Returns the id of the session
+     *
+     * @return session id
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the board of the game
+     *
+     * @return ocean
+     */
+    Ocean getOcean() {
+        return this.ocean;
+    }
+
+    /**
+     * Returns true if every ship has been sunk
+     *
+     * @return whether the game is over
+     */
+    public synchronized boolean isGameOver() {
+        return this.ocean.isGameOver();
+    }
+
+    /**
+     * Handles one line of input and returns the reply: "Hit!", "Miss!", "Hit!" followed by the
+     * sunk message, or one of the error messages of BattleshipGame.getUserInput().
+     *
+     * @param line "row,column"
+     * @return reply, without a line break
+     */
+    public synchronized String handle(String line) {
+        String[] strs = line.split(",");
+        if (strs.length < 2) return INVALID;
+        int row;
+        int column;
+        try {
+            row = Integer.parseInt(strs[0].trim());
+            column = Integer.parseInt(strs[1].trim());
+        } catch (final NumberFormatException e) {
+            return INVALID;
+        }
+        if (row < 0 || row >= this.ocean.getRows()) return ROW_OUT_OF_BOUND;
+        if (column < 0 || column >= this.ocean.getColumns()) return COLUMN_OUT_OF_BOUND;
+        return shoot(row, column);
+    }
+
+    /**
+     * Fires at a location on the board and returns the reply.
+     *
+     * @param row    row, inside the board
+     * @param column column, inside the board
+     * @return "Hit!", "Miss!", or "Hit!" followed by the sunk message
+     */
+    public synchronized String shoot(int row, int column) {
+        int outcome = fire(row, column);
+        if (outcome == MISSED) return MISS;
+        if (outcome == HIT_AFLOAT) return HIT;
+        return HIT + " You just sank a ship - " + this.ocean.getLastSunk().getShipType() + ".";
+    }
+
+    /**
+     * Fires at a location on the board and returns the outcome as a number, without creating
+     * any objects: MISSED, HIT_AFLOAT, or the length of the ship sunk by the shot.
+     *
+     * @param row    row, inside the board
+     * @param column column, inside the board
+     * @return MISSED, HIT_AFLOAT or the length of the ship sunk
+     */
+    public synchronized int fire(int row, int column) {
+        int originalSunk = this.ocean.getShipsSunk();
+        if (!this.ocean.shootAt(row, column)) return MISSED;
+        if (this.ocean.getShipsSunk() == originalSunk) return HIT_AFLOAT;
+        return this.ocean.getLastSunk().getLength();
+    }
+
+    /**
+     * Writes the image of the game (see GameSnapshot) at the given index of buf. The session is
+     * locked meanwhile, so the image never holds half a shot.
+     *
+     * @param buf  buffer to write to
+     * @param base index of the first byte of the image
+     */
+    synchronized void snapshot(ByteBuffer buf, int base) {
+        GameSnapshot.write((BitboardOcean) this.ocean, buf, base);
+    }
+
+    /**
+     * Returns the final results line, as printed by BattleshipGame.printResults().
+     *
+     * @return results, without a line break
+     */
+    public synchronized String getResults() {
+        return "Game over! Total shots: " + this.ocean.getShotsFired() + ", total hits: " + this.ocean.getHitCount();
+    }
+}
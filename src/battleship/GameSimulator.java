@@ -0,0 +1,106 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays complete games between an Ocean and a ShotStrategy without any console input or output.
+ * One simulator reuses its strategy and result object for every game, so it should be used by
+ * one thread at a time; run one simulator per thread to use several cores.
+ */
+public class GameSimulator {
+
+    //Default maximum number of shots per game, in case a strategy never finishes
+    static final int DEFAULT_SHOT_LIMIT = 1000;
+
+    /**
+     * Receives the result of each game played by playGames(). The result object is reused for the
+     * next game, so a consumer must read what it needs before returning.
+     */
+    public interface ResultConsumer {
+        /**
+         * Called once per game.
+         *
+         * @param game   index of the game, starting at 0
+         * @param ocean  the board of the game, after the last shot; reused for the next game
+         * @param result the result of the game
+         */
+        void accept(long game, Ocean ocean, GameResult result);
+    }
+
+    //The player firing the shots
+    private final ShotStrategy strategy;
+    //Maximum number of shots per game
+    private final int shotLimit;
+    //Result object reused by playGames()
+    private final GameResult result = new GameResult();
+
+    /**
+     * Creates a simulator for the given strategy with the default shot limit.
+     *
+     * @param strategy the player firing the shots
+     */
+    public GameSimulator(ShotStrategy strategy) {
+        this(strategy, DEFAULT_SHOT_LIMIT);
+    }
+
+    /**
+     * Creates a simulator for the given strategy.
+     *
+     * @param strategy  the player firing the shots
+     * @param shotLimit maximum number of shots per game
+     */
+    public GameSimulator(ShotStrategy strategy, int shotLimit) {
+        this.strategy = strategy;
+        this.shotLimit = shotLimit;
+    }
+
+    /**
+     * Plays one game on an ocean whose ships are already placed, until every ship is sunk or the
+     * shot limit is reached. Shots outside the board count towards the limit but not as shots
+     * fired in the ocean.
+     *
+     * @param ocean  board to shoot at
+     * @param result receives the outcome, cleared first
+     * @return result
+     */
+    public GameResult play(Ocean ocean, GameResult result) {
+        result.reset();
+        this.strategy.reset();
+        while (!ocean.isGameOver() && result.getShots() < this.shotLimit) {
+            int location = this.strategy.nextShot();
+            //record original sunk count
+            int originalSunk = ocean.getShipsSunk();
+            boolean hit = ocean.shootAt(location / 10, location % 10);
+            //if newly sunk a ship, report its length
+            int sunkLength = ocean.getShipsSunk() > originalSunk ? ocean.getLastSunk().getLength() : 0;
+            result.recordShot(hit, sunkLength);
+            this.strategy.onResult(location, hit, sunkLength);
+        }
+        if (ocean.isGameOver()) result.finish();
+        return result;
+    }
+
+    /**
+     * Plays count games with the standard fleet placed from rd, and passes every result to the
+     * consumer. All games are played on one BitboardOcean, reset between games, so the board is
+     * only valid until the consumer returns.
+     *
+     * @param count    number of games
+     * @param rd       random number generator for ship placement
+     * @param consumer receives each result
+     */
+    public void playGames(long count, RandomGenerator rd, ResultConsumer consumer) {
+        Ocean ocean = new BitboardOcean();
+        for (long game = 0; game < count; game++) {
+            if (game > 0) ocean.reset();
+            ocean.placeAllShipsWithBacktracking(rd);
+            play(ocean, this.result);
+            consumer.accept(game, ocean, this.result);
+        }
+    }
+}
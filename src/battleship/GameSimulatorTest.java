@@ -0,0 +1,75 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSimulatorTest {
+
+    @Test
+    void testRandomGame() {
+        Ocean ocean = new BitboardOcean();
+        ocean.placeAllShipsFromSeed(3);
+        GameSimulator simulator = new GameSimulator(new RandomShotStrategy(new SplittableRandom(3)));
+        GameResult result = simulator.play(ocean, new GameResult());
+
+        assertTrue(result.isFinished());
+        assertTrue(ocean.isGameOver());
+        //random play never repeats a location
+        assertTrue(result.getShots() <= 100);
+        assertEquals(ocean.getShotsFired(), result.getShots());
+        assertEquals(20, result.getHits());
+        assertEquals(10, result.getSinkCount());
+        //sinks are in shot order and cover the whole fleet
+        int cells = 0;
+        for (int i = 0; i < result.getSinkCount(); i++) {
+            if (i > 0) assertTrue(result.getSinkShot(i) > result.getSinkShot(i - 1));
+            cells += result.getSinkLength(i);
+        }
+        assertEquals(20, cells);
+        assertEquals(result.getShots(), result.getSinkShot(9));
+    }
+
+    @Test
+    void testShotLimit() {
+        //a strategy that only fires at one location never finishes
+        ShotStrategy stuck = new ShotStrategy() {
+            public void reset() {
+            }
+
+            public int nextShot() {
+                return 0;
+            }
+
+            public void onResult(int location, boolean hit, int sunkLength) {
+            }
+        };
+        Ocean ocean = new Ocean();
+        ocean.placeAllShipsRandomly();
+        GameResult result = new GameSimulator(stuck, 50).play(ocean, new GameResult());
+        assertFalse(result.isFinished());
+        assertEquals(50, result.getShots());
+    }
+
+    @Test
+    void testPlayGames() {
+        GameSimulator simulator = new GameSimulator(new RandomShotStrategy(new SplittableRandom(1)));
+        long[] totals = new long[2];
+        simulator.playGames(200, new SplittableRandom(2), (game, ocean, result) -> {
+            assertEquals(totals[0], game);
+            assertTrue(result.isFinished());
+            totals[0]++;
+            totals[1] += result.getShots();
+        });
+        assertEquals(200, totals[0]);
+        //random play needs more than 20 and at most 100 shots
+        assertTrue(totals[1] > 200 * 20 && totals[1] <= 200 * 100);
+    }
+}
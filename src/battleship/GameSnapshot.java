@@ -0,0 +1,83 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size binary image of a game in progress on a board with the standard fleet: the board
+ * in the BoardCodec encoding (fleet, hit and missed locations) followed by the shots fired and
+ * hit counters, which count repeated shots and cannot be told from the bitboards.
+ * An image takes BYTES bytes and restores to an ocean that plays on exactly like the original:
+ * same ships, same damage, same counters.
+ */
+public final class GameSnapshot {
+
+    //Offset of the number of shots fired in an image
+    static final int SHOTS_FIRED = BoardCodec.BYTES;
+    //Offset of the number of hits in an image
+    static final int HIT_COUNT = SHOTS_FIRED + 4;
+    //Size of an image in bytes
+    public static final int BYTES = HIT_COUNT + 4;
+
+    /**
+     * No instances, this class only holds static methods.
+     */
+    private GameSnapshot() {
+    }
+
+    /**
+     * Writes the image of a game at the given index of buf, without changing its position.
+     *
+     * @param ocean ocean of the game, with the standard fleet
+     * @param buf   buffer to write to
+     * @param base  index of the first byte of the image
+     */
+    public static void write(BitboardOcean ocean, ByteBuffer buf, int base) {
+        BoardCodec.write(ocean, buf, base);
+        buf.putInt(base + SHOTS_FIRED, ocean.getShotsFired());
+        buf.putInt(base + HIT_COUNT, ocean.getHitCount());
+    }
+
+    /**
+     * Restores the game whose image is at the given index of buf.
+     *
+     * @param buf  buffer to read from
+     * @param base index of the first byte of the image
+     * @return a new ocean in the state of the game
+     */
+    public static BitboardOcean read(ByteBuffer buf, int base) {
+        BitboardOcean ocean = BoardCodec.read(buf, base);
+        ocean.restoreCounters(buf.getInt(base + SHOTS_FIRED), buf.getInt(base + HIT_COUNT));
+        return ocean;
+    }
+
+    /**
+     * Returns the image of a game as a new array, little-endian.
+     *
+     * @param ocean ocean of the game, with the standard fleet
+     * @return BYTES bytes
+     */
+    public static byte[] snapshot(BitboardOcean ocean) {
+        byte[] image = new byte[BYTES];
+        write(ocean, ByteBuffer.wrap(image).order(ByteOrder.LITTLE_ENDIAN), 0);
+        return image;
+    }
+
+    /**
+     * Restores a game from an image returned by snapshot().
+     *
+     * @param image BYTES bytes
+     * @return a new ocean in the state of the game
+     */
+    public static BitboardOcean restore(byte[] image) {
+        if (image.length != BYTES) {
+            throw new IllegalArgumentException("A game image has " + BYTES + " bytes, got " + image.length);
+        }
+        return read(ByteBuffer.wrap(image).order(ByteOrder.LITTLE_ENDIAN), 0);
+    }
+}
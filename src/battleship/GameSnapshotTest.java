@@ -0,0 +1,44 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSnapshotTest {
+
+    @Test
+    void testRestorePlaysOnLikeTheOriginal() {
+        SplittableRandom rd = new SplittableRandom(5);
+        for (int game = 0; game < 50; game++) {
+            BitboardOcean original = new BitboardOcean();
+            original.placeAllShipsFromSeed(game);
+            //random shots, with repeats, until about half the board was fired at
+            for (int i = 0; i < 50; i++) original.shootAt(rd.nextInt(10), rd.nextInt(10));
+            byte[] image = GameSnapshot.snapshot(original);
+            assertEquals(GameSnapshot.BYTES, image.length);
+            BitboardOcean restored = GameSnapshot.restore(image);
+            assertEquals(original.getShotsFired(), restored.getShotsFired());
+            assertEquals(original.getHitCount(), restored.getHitCount());
+            assertEquals(original.getShipsSunk(), restored.getShipsSunk());
+            assertArrayEquals(image, GameSnapshot.snapshot(restored));
+            //both games go on the same way to the end
+            while (!original.isGameOver()) {
+                int row = rd.nextInt(10);
+                int column = rd.nextInt(10);
+                assertEquals(original.shootAt(row, column), restored.shootAt(row, column));
+                assertEquals(original.getShipsSunk(), restored.getShipsSunk());
+            }
+            assertTrue(restored.isGameOver());
+            assertEquals(original.getShotsFired(), restored.getShotsFired());
+            assertEquals(original.getHitCount(), restored.getHitCount());
+        }
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.restore(new byte[GameSnapshot.BYTES - 1]));
+    }
+}
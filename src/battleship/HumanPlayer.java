@@ -0,0 +1,95 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A player whose shots come from outside the match, typed at a console or received over the
+ * network. Shots are handed over with Match.submit(), from any thread. Everything the player
+ * should see is sent as lines of text, with the same messages as BattleshipGame.
+ */
+public class HumanPlayer implements Player {
+
+    //Name shown in front of every message
+    private final String name;
+    //Receives the messages for this player
+    private final Consumer<String> out;
+    //Shot submitted and not fired yet, or WAITING
+    private final AtomicInteger pending = new AtomicInteger(WAITING);
+    //Whether the player was told that it is its turn
+    private boolean prompted;
+
+    /**
+     * Creates a player sending its messages to the given consumer.
+     *
+     * @param name name shown in front of every message
+     * @param out  receives the messages, one line at a time
+     */
+    public HumanPlayer(String name, Consumer<String> out) {
+        this.name = name;
+        this.out = out;
+    }
+
+    /**
+     * Hands over the next shot.
+     *
+     * @param location location as row * 10 + column
+     * @return false if a shot is already waiting to be fired
+     */
+    boolean submit(int location) {
+        return this.pending.compareAndSet(WAITING, location);
+    }
+
+    @Override
+    public void reset() {
+        this.pending.set(WAITING);
+        this.prompted = false;
+    }
+
+    @Override
+    public int nextShot() {
+        int location = this.pending.getAndSet(WAITING);
+        if (location == WAITING && !this.prompted) {
+            this.prompted = true;
+            send("Enter row,column:");
+        }
+        return location;
+    }
+
+    @Override
+    public void onResult(int location, boolean hit, int sunkLength) {
+        this.prompted = false;
+        send(location / 10 + "," + location % 10 + ": " + message(hit, sunkLength));
+    }
+
+    @Override
+    public void onOpponentShot(int location, boolean hit, int sunkLength) {
+        send("Opponent fired at " + location / 10 + "," + location % 10 + ": " + message(hit, sunkLength));
+    }
+
+    @Override
+    public void onGameOver(boolean won) {
+        send(won ? "You win! You've sunk all the ships!" : "You lose! All your ships have been sunk.");
+    }
+
+    /**
+     * Returns the message for a shot, as printed by BattleshipGame.
+     */
+    private static String message(boolean hit, int sunkLength) {
+        if (!hit) return GameSession.MISS;
+        if (sunkLength == 0) return GameSession.HIT;
+        return GameSession.HIT + " You just sank a ship - " + GameConfig.createShip(sunkLength).getShipType() + ".";
+    }
+
+    /**
+     * Sends one line to the player.
+     */
+    private void send(String line) {
+        this.out.accept(this.name + ": " + line);
+    }
+}
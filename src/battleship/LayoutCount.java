@@ -0,0 +1,61 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+/**
+ * The result of LayoutCounter: the number of fleet layouts that agree with an observation, and
+ * for every location the number of those layouts with a ship on it.
+ */
+public class LayoutCount {
+
+    //Number of layouts agreeing with the observation
+    private final long layouts;
+    //Number of those layouts with a ship on each location, by row * 10 + column
+    private final long[] occupied;
+
+    /**
+     * Creates a result.
+     *
+     * @param layouts  number of layouts
+     * @param occupied number of layouts with a ship on each location
+     */
+    LayoutCount(long layouts, long[] occupied) {
+        this.layouts = layouts;
+        this.occupied = occupied;
+    }
+
+    /**
+     * Returns the number of layouts agreeing with the observation, 0 if it is impossible.
+     *
+     * @return number of layouts
+     */
+    public long getLayouts() {
+        return this.layouts;
+    }
+
+    /**
+     * Returns the number of layouts with a ship on the given location.
+     *
+     * @param row
+     * @param column
+     * @return number of layouts
+     */
+    public long getOccupied(int row, int column) {
+        return this.occupied[row * 10 + column];
+    }
+
+    /**
+     * Returns the probability that the given location holds a ship, if every layout agreeing with
+     * the observation is equally likely.
+     *
+     * @param row
+     * @param column
+     * @return probability from 0 to 1, 0 if no layout agrees with the observation
+     */
+    public double getProbability(int row, int column) {
+        return this.layouts == 0 ? 0 : (double) this.occupied[row * 10 + column] / this.layouts;
+    }
+}
@@ -0,0 +1,418 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * Counts exactly how many fleet layouts agree with a partial observation of the board, and in
+ * how many of them each location holds a ship. Layouts follow the rules of
+ * Ship.okToPlaceShipAt(): ships are straight, inside the board and never touch, not even
+ * diagonally. Ships of the same length are interchangeable, so a layout is the set of locations
+ * of each ship.
+ * The board is filled row by row. Between two rows, all that matters for the rest of the board is
+ * the profile of the last row (for each column: empty, part of a horizontal ship, or the bottom
+ * of a vertical run and its length so far) and the ships not placed yet, so the count of every
+ * such state is computed once and memoized. The ways to fill a row below a profile are
+ * enumerated once per profile and row, and applied to the counts of every fleet left at once.
+ * A forward pass counts the ways to reach each state, a backward pass the ways to complete it;
+ * their products give the per-location counts.
+ * Only 10x10 boards with ships of length 1 to MAX_LENGTH, at most MAX_COUNT of each length, are
+ * supported. A counter is not thread safe.
+ */
+public class LayoutCounter {
+
+    //Longest ship the state encoding supports
+    static final int MAX_LENGTH = 6;
+    //Most ships of one length the state encoding supports
+    static final int MAX_COUNT = 7;
+    //Profile code of a column whose last location is empty
+    private static final int EMPTY = 0;
+    //Profile code of a column whose last location is part of a horizontal ship
+    private static final int CLOSED = 7;
+    //Locations of one row as a 10 bit mask
+    private static final int ROW = 0x3ff;
+    //Top bit of the 4 bit count of every length in the packed fleet encoding, always 0 in a
+    //fleet, so that subtracting a fleet from another one shows a shortage in any length at once
+    private static final long GUARD = 0x888888L;
+
+    //Number of ships of each length in the fleet
+    private final int[] fleetCount = new int[MAX_LENGTH + 1];
+    //Longest ship of the fleet
+    private final int maxLength;
+    //Number of fleets left that can occur: every count from 0 to the full count, for each length
+    private final int fleets;
+    //Index step of one ship of each length in the fleet index
+    private final int[] stride = new int[MAX_LENGTH + 1];
+    //For each fleet index: its counts packed 4 bits per length, its longest ship, and the area
+    //its ships need (see next())
+    private final long[] packed;
+    private final int[] longest;
+    private final int[] area;
+
+    //Transitions of the profiles seen in the current row, memoized: profile -> first index plus one
+    private final LongIntMap profileIndex = new LongIntMap();
+    //Ship locations of the row, profile after it, ships finished in it (packed, and as a fleet
+    //index step), longest open run and sum of the open runs, for every transition; the
+    //transitions of a profile are consecutive and end with a -1 mask
+    private int[] transitionMask = new int[1024];
+    private long[] transitionProfile = new long[1024];
+    private long[] transitionShips = new long[1024];
+    private int[] transitionStep = new int[1024];
+    private int[] transitionOpen = new int[1024];
+    private int[] transitionRuns = new int[1024];
+    private int transitionCount;
+    //Known empty and ship locations of the current row
+    private int emptyRow;
+    private int shipRow;
+    //Area of the rows below the current row, plus one row and one column (see next())
+    private int areaBelow;
+
+    /**
+     * Creates a counter for the standard fleet.
+     */
+    public LayoutCounter() {
+        this(GameConfig.standard());
+    }
+
+    /**
+     * Creates a counter for the given configuration.
+     *
+     * @param config board size and fleet; the board must be 10x10, ships at most MAX_LENGTH long
+     *               and at most MAX_COUNT ships of each length
+     */
+    public LayoutCounter(GameConfig config) {
+        if (!config.isStandardSize()) {
+            throw new IllegalArgumentException("LayoutCounter only supports 10x10 boards");
+        }
+        int maxLength = 0;
+        for (int length : config.getFleetLengths()) {
+            if (length > MAX_LENGTH || this.fleetCount[length] == MAX_COUNT) {
+                throw new IllegalArgumentException("LayoutCounter supports ships of length 1 to " + MAX_LENGTH
+                        + ", at most " + MAX_COUNT + " of each length");
+            }
+            this.fleetCount[length]++;
+            maxLength = Math.max(maxLength, length);
+        }
+        this.maxLength = maxLength;
+        int fleets = 1;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            this.stride[length] = fleets;
+            fleets *= this.fleetCount[length] + 1;
+        }
+        this.fleets = fleets;
+        this.packed = new long[fleets];
+        this.longest = new int[fleets];
+        this.area = new int[fleets];
+        for (int f = 0; f < fleets; f++) {
+            for (int length = 1; length <= MAX_LENGTH; length++) {
+                int count = (f / this.stride[length]) % (this.fleetCount[length] + 1);
+                this.packed[f] |= (long) count << (4 * (length - 1));
+                if (count > 0) this.longest[f] = length;
+                this.area[f] += 2 * (length + 1) * count;
+            }
+        }
+    }
+
+    /**
+     * Counts the layouts that agree with the shots fired at an ocean: every hit location holds a
+     * ship and every missed location is empty. Which ships were sunk is not used.
+     *
+     * @param ocean ocean with the fleet of this counter
+     * @return layout and location counts
+     */
+    public LayoutCount count(BitboardOcean ocean) {
+        return count(ocean.getMissLo(), ocean.getMissHi(), ocean.getHitLo(), ocean.getHitHi());
+    }
+
+    /**
+     * Counts the layouts that have no ship on the given empty locations and a ship on every one of
+     * the given ship locations.
+     *
+     * @param emptyLo locations known to be empty, low word
+     * @param emptyHi locations known to be empty, high word
+     * @param shipLo  locations known to hold a ship, low word
+     * @param shipHi  locations known to hold a ship, high word
+     * @return layout and location counts
+     * @throws ArithmeticException if a count does not fit in a long
+     */
+    public LayoutCount count(long emptyLo, long emptyHi, long shipLo, long shipHi) {
+        int[] emptyRows = rows(emptyLo, emptyHi);
+        int[] shipRows = rows(shipLo, shipHi);
+        int full = this.fleets - 1;
+
+        //forward pass: the number of ways to fill the rows above each state
+        Layer[] reach = new Layer[11];
+        reach[0] = new Layer(this.fleets);
+        reach[0].ways[reach[0].slot(0) * this.fleets + full] = 1;
+        for (int row = 0; row < 10; row++) {
+            startRow(row, emptyRows[row], shipRows[row]);
+            Layer current = reach[row];
+            Layer next = new Layer(this.fleets);
+            for (int s = 0; s < current.size; s++) {
+                int from = s * this.fleets;
+                for (int t = transitions(current.profiles[s]); this.transitionMask[t] >= 0; t++) {
+                    int to = next.slot(this.transitionProfile[t]) * this.fleets;
+                    long[] ways = next.ways;
+                    for (int f = 0; f < this.fleets; f++) {
+                        long w = current.ways[from + f];
+                        if (w == 0) continue;
+                        int g = next(f, t);
+                        if (g >= 0) ways[to + g] = Math.addExact(ways[to + g], w);
+                    }
+                }
+            }
+            reach[row + 1] = next;
+        }
+
+        //backward pass: the number of ways to complete each state; 1 at the bottom if the
+        //vertical runs still open finish the fleet exactly
+        Layer bottom = reach[10];
+        long[] complete = new long[bottom.size * this.fleets];
+        for (int s = 0; s < bottom.size; s++) {
+            long ships = 0;
+            for (int c = 0; c < 10; c++) {
+                ships += finished(bottom.profiles[s], c);
+            }
+            for (int f = 0; f < this.fleets; f++) {
+                if (this.packed[f] == ships) complete[s * this.fleets + f] = 1;
+            }
+        }
+        long[] occupied = new long[100];
+        for (int row = 9; row >= 0; row--) {
+            startRow(row, emptyRows[row], shipRows[row]);
+            Layer current = reach[row];
+            Layer below = reach[row + 1];
+            long[] above = new long[current.size * this.fleets];
+            for (int s = 0; s < current.size; s++) {
+                int from = s * this.fleets;
+                for (int t = transitions(current.profiles[s]); this.transitionMask[t] >= 0; t++) {
+                    int to = below.index.get(this.transitionProfile[t]) - 1;
+                    if (to < 0) continue;
+                    to *= this.fleets;
+                    long layouts = 0;
+                    for (int f = 0; f < this.fleets; f++) {
+                        int g = next(f, t);
+                        if (g < 0) continue;
+                        long completions = complete[to + g];
+                        if (completions == 0) continue;
+                        above[from + f] = Math.addExact(above[from + f], completions);
+                        layouts = Math.addExact(layouts, Math.multiplyExact(current.ways[from + f], completions));
+                    }
+                    //every layout through this transition has a ship on the locations of its mask
+                    for (int mask = this.transitionMask[t]; mask != 0 && layouts != 0; mask &= mask - 1) {
+                        int idx = row * 10 + Integer.numberOfTrailingZeros(mask);
+                        occupied[idx] = Math.addExact(occupied[idx], layouts);
+                    }
+                }
+            }
+            //the counts of the rows below are not needed any more
+            reach[row + 1] = null;
+            complete = above;
+        }
+        return new LayoutCount(complete[full], occupied);
+    }
+
+    /**
+     * The states between two rows: the profiles seen, and for each one the count of every fleet
+     * left, in fleet index order.
+     */
+    private static final class Layer {
+
+        //Number of fleets left per profile
+        private final int fleets;
+        //Profile -> slot plus one
+        private final LongIntMap index = new LongIntMap();
+        //Profile of each slot
+        private long[] profiles = new long[64];
+        //Count of each fleet left of each slot
+        private long[] ways;
+        //Number of slots
+        private int size;
+
+        /**
+         * Creates an empty layer.
+         */
+        Layer(int fleets) {
+            this.fleets = fleets;
+            this.ways = new long[64 * fleets];
+        }
+
+        /**
+         * Returns the slot of a profile, adding it if it is new.
+         */
+        int slot(long profile) {
+            int slot = this.index.get(profile) - 1;
+            if (slot >= 0) return slot;
+            if (this.size == this.profiles.length) {
+                this.profiles = Arrays.copyOf(this.profiles, this.size * 2);
+                this.ways = Arrays.copyOf(this.ways, this.size * 2 * this.fleets);
+            }
+            this.profiles[this.size] = profile;
+            this.index.put(profile, this.size + 1);
+            return this.size++;
+        }
+    }
+
+    /**
+     * Forgets the memoized transitions and sets the row to fill next.
+     */
+    private void startRow(int row, int emptyRow, int shipRow) {
+        this.profileIndex.clear();
+        this.transitionCount = 0;
+        this.emptyRow = emptyRow;
+        this.shipRow = shipRow;
+        this.areaBelow = (10 - row) * 11;
+    }
+
+    /**
+     * Returns the index of the fleet left after transition t from fleet index f, or -1 if fleet f
+     * does not have the ships it needs or what is left cannot fit on the rows below.
+     */
+    private int next(int f, int t) {
+        if (((this.packed[f] | GUARD) - this.transitionShips[t] & GUARD) != GUARD) return -1;
+        int g = f - this.transitionStep[t];
+        //an open vertical run needs a ship at least as long as it is now
+        if (this.longest[g] < this.transitionOpen[t]) return -1;
+        //grown by one location to the right and one down, ships that do not touch cover disjoint
+        //rectangles of the board grown the same way: a ship of length L left to place needs
+        //2 * (L + 1) locations of the rows below, minus 2 for every location already placed in
+        //an open run
+        if (this.area[g] - 2 * this.transitionRuns[t] > this.areaBelow) return -1;
+        return g;
+    }
+
+    /**
+     * Returns the index of the first transition of a profile in the current row, enumerating them
+     * the first time the profile is seen.
+     */
+    private int transitions(long profile) {
+        int first = this.profileIndex.get(profile) - 1;
+        if (first >= 0) return first;
+        first = this.transitionCount;
+        int occupied = 0;
+        int closed = 0;
+        for (int c = 0; c < 10; c++) {
+            int code = code(profile, c);
+            if (code != EMPTY) occupied |= 1 << c;
+            if (code == CLOSED) closed |= 1 << c;
+        }
+        //a ship location never touches the row above diagonally, nor a horizontal ship above it
+        int allowed = ROW & ~((occupied << 1) | (occupied >> 1)) & ~closed & ~this.emptyRow;
+        if ((this.shipRow & ~allowed) == 0) fill(profile, allowed, 0, 0, 0, 0, 0, 0);
+        addTransition(-1, 0, 0, 0, 0);
+        this.profileIndex.put(profile, first + 1);
+        return first;
+    }
+
+    /**
+     * Enumerates the ways to fill the row from the given column on, depth first.
+     *
+     * @param above   profile of the row above
+     * @param allowed locations of the row that may hold a ship
+     * @param column  next column to fill
+     * @param mask    ship locations so far
+     * @param profile profile of the row so far
+     * @param ships   ships finished so far, packed
+     * @param open    longest vertical run so far
+     * @param runs    sum of the lengths of the vertical runs so far
+     */
+    private void fill(long above, int allowed, int column, int mask, long profile, long ships, int open, int runs) {
+        if (column >= 10) {
+            addTransition(mask, profile, ships, open, runs);
+            return;
+        }
+        //leave the column empty; a vertical run above it is a finished ship
+        if ((this.shipRow & (1 << column)) == 0) {
+            fill(above, allowed, column + 1, mask, profile, ships + finished(above, column), open, runs);
+        }
+        //a vertical run starts or grows by one
+        if ((allowed & (1 << column)) == 0) return;
+        int code = code(above, column) + 1;
+        if (code <= this.maxLength) {
+            fillAfterRun(above, allowed, column + 1, mask | 1 << column,
+                    profile | (long) code << (3 * column), ships, Math.max(open, code), runs + code);
+        }
+        //a horizontal ship of length 2 or more, finished as soon as it is placed
+        int run = 1 << column;
+        long closedRun = (long) CLOSED << (3 * column);
+        for (int length = 2; length <= this.maxLength && column + length <= 10; length++) {
+            int c = column + length - 1;
+            if ((allowed & (1 << c)) == 0) break;
+            run |= 1 << c;
+            closedRun |= (long) CLOSED << (3 * c);
+            fillAfterRun(above, allowed, c + 1, mask | run, profile | closedRun,
+                    ships + (1L << (4 * (length - 1))), open, runs);
+        }
+    }
+
+    /**
+     * Continues fill() after a run of ship locations: the next column must stay empty.
+     */
+    private void fillAfterRun(long above, int allowed, int column, int mask, long profile, long ships, int open,
+                              int runs) {
+        if (column >= 10) {
+            fill(above, allowed, column, mask, profile, ships, open, runs);
+        } else if ((this.shipRow & (1 << column)) == 0) {
+            fill(above, allowed, column + 1, mask, profile, ships + finished(above, column), open, runs);
+        }
+    }
+
+    /**
+     * Returns the ship finished by leaving a column empty below the given profile, packed, or 0 if
+     * no vertical run ends there.
+     */
+    private static long finished(long above, int column) {
+        int code = code(above, column);
+        return code != EMPTY && code != CLOSED ? 1L << (4 * (code - 1)) : 0;
+    }
+
+    /**
+     * Appends one transition to the table, growing it if needed.
+     */
+    private void addTransition(int mask, long profile, long ships, int open, int runs) {
+        //a transition needing more ships of a length than the fleet has can never be taken
+        if (mask >= 0 && ((this.packed[this.fleets - 1] | GUARD) - ships & GUARD) != GUARD) return;
+        if (this.transitionCount == this.transitionMask.length) {
+            int size = this.transitionCount * 2;
+            this.transitionMask = Arrays.copyOf(this.transitionMask, size);
+            this.transitionProfile = Arrays.copyOf(this.transitionProfile, size);
+            this.transitionShips = Arrays.copyOf(this.transitionShips, size);
+            this.transitionStep = Arrays.copyOf(this.transitionStep, size);
+            this.transitionOpen = Arrays.copyOf(this.transitionOpen, size);
+            this.transitionRuns = Arrays.copyOf(this.transitionRuns, size);
+        }
+        int step = 0;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            step += (int) (ships >>> (4 * (length - 1)) & 15) * this.stride[length];
+        }
+        this.transitionMask[this.transitionCount] = mask;
+        this.transitionProfile[this.transitionCount] = profile;
+        this.transitionShips[this.transitionCount] = ships;
+        this.transitionStep[this.transitionCount] = step;
+        this.transitionOpen[this.transitionCount] = open;
+        this.transitionRuns[this.transitionCount] = runs;
+        this.transitionCount++;
+    }
+
+    /**
+     * Returns the profile code of a column.
+     */
+    private static int code(long profile, int column) {
+        return (int) (profile >>> (3 * column)) & 7;
+    }
+
+    /**
+     * Splits a bitboard into one 10 bit mask per row.
+     */
+    private static int[] rows(long lo, long hi) {
+        int[] rows = new int[10];
+        for (int idx = 0; idx < 100; idx++) {
+            if (PlacementIndex.covers(lo, hi, idx)) rows[idx / 10] |= 1 << (idx % 10);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayoutCounterTest {
+
+    @Test
+    void testSmallFleets() {
+        //one ship of length 2: 90 horizontal and 90 vertical placements
+        assertEquals(180, new LayoutCounter(new GameConfig(10, 10, 2)).count(0, 0, 0, 0).getLayouts());
+        //two submarines: pairs of locations minus the 342 pairs that touch
+        assertEquals(4950 - 342, new LayoutCounter(new GameConfig(10, 10, 1, 1)).count(0, 0, 0, 0).getLayouts());
+    }
+
+    @Test
+    void testMatchesEnumeration() {
+        SplittableRandom rd = new SplittableRandom(21);
+        for (int trial = 0; trial < 4; trial++) {
+            int[] fleet = trial % 2 == 0 ? new int[]{3, 2, 1} : new int[]{2, 1, 1};
+            //a random observation drawn from a real layout, so at least one layout agrees with it
+            BitboardOcean ocean = new BitboardOcean(new GameConfig(10, 10, fleet));
+            ocean.placeAllShipsWithBacktracking(rd);
+            for (int shot = 0; shot < 15 * trial; shot++) {
+                int idx = rd.nextInt(100);
+                ocean.shootAt(idx / 10, idx % 10);
+            }
+            LayoutCount count = new LayoutCounter(new GameConfig(10, 10, fleet)).count(ocean);
+
+            long[] occupied = new long[100];
+            long layouts = enumerate(fleet, 0, -1, 0, 0, 0, 0, ocean, occupied);
+            assertEquals(layouts, count.getLayouts());
+            assertTrue(layouts > 0);
+            for (int idx = 0; idx < 100; idx++) {
+                assertEquals(occupied[idx], count.getOccupied(idx / 10, idx % 10), "location " + idx);
+            }
+        }
+    }
+
+    @Test
+    void testStandardFleetObservation() {
+        BitboardOcean ocean = new BitboardOcean();
+        ocean.placeAllShipsFromSeed(17);
+        SplittableRandom rd = new SplittableRandom(17);
+        for (int shot = 0; shot < 40; shot++) {
+            int idx = rd.nextInt(100);
+            ocean.shootAt(idx / 10, idx % 10);
+        }
+        LayoutCount count = new LayoutCounter().count(ocean);
+        assertTrue(count.getLayouts() > 0);
+        long cells = 0;
+        for (int r = 0; r < 10; r++) {
+            for (int c = 0; c < 10; c++) {
+                int idx = r * 10 + c;
+                cells += count.getOccupied(r, c);
+                //hits are in every layout, misses in none
+                if (PlacementIndex.covers(ocean.getHitLo(), ocean.getHitHi(), idx)) {
+                    assertEquals(1.0, count.getProbability(r, c));
+                }
+                if (PlacementIndex.covers(ocean.getMissLo(), ocean.getMissHi(), idx)) {
+                    assertEquals(0, count.getOccupied(r, c));
+                }
+            }
+        }
+        //every layout has 20 ship locations
+        assertEquals(20 * count.getLayouts(), cells);
+    }
+
+    @Test
+    void testImpossibleObservation() {
+        //two touching hits in a line of misses cannot be a ship of the fleet {1}
+        LayoutCount count = new LayoutCounter(new GameConfig(10, 10, 1)).count(0, 0, 0b11, 0);
+        assertEquals(0, count.getLayouts());
+        assertEquals(0, count.getProbability(0, 0));
+    }
+
+    @Test
+    void testUnsupportedFleet() {
+        assertThrows(IllegalArgumentException.class, () -> new LayoutCounter(new GameConfig(10, 10, 7)));
+        assertThrows(IllegalArgumentException.class, () -> new LayoutCounter(new GameConfig(12, 10, 1)));
+    }
+
+    /**
+     * Counts the layouts of the ships from index i on by brute force, adding every full layout to
+     * the occupied counts. Ships of the same length take placement ids in increasing order, so
+     * every layout is counted once.
+     */
+    private static long enumerate(int[] fleet, int i, int previous, long occLo, long occHi, long bodyLo, long bodyHi,
+                                  BitboardOcean ocean, long[] occupied) {
+        if (i == fleet.length) {
+            //every hit must be covered by a ship
+            if ((ocean.getHitLo() & ~bodyLo) != 0 || (ocean.getHitHi() & ~bodyHi) != 0) return 0;
+            for (int idx = 0; idx < 100; idx++) {
+                if (PlacementIndex.covers(bodyLo, bodyHi, idx)) occupied[idx]++;
+            }
+            return 1;
+        }
+        long layouts = 0;
+        boolean sameLength = i > 0 && fleet[i - 1] == fleet[i];
+        for (int p : PlacementIndex.candidates(fleet[i])) {
+            if (sameLength && p <= previous) continue;
+            if (!PlacementIndex.isLegal(p, occLo, occHi)) continue;
+            if ((PlacementIndex.bodyLo(p) & ocean.getMissLo()) != 0 || (PlacementIndex.bodyHi(p) & ocean.getMissHi()) != 0) {
+                continue;
+            }
+            layouts += enumerate(fleet, i + 1, p, occLo | PlacementIndex.bodyLo(p), occHi | PlacementIndex.bodyHi(p),
+                    bodyLo | PlacementIndex.bodyLo(p), bodyHi | PlacementIndex.bodyHi(p), ocean, occupied);
+        }
+        return layouts;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test for GameServer: connects many players at once, each on a thread of its own (virtual
+ * when the runtime has them), and plays a full game per player with random shots. Every player
+ * keeps its connection open for the whole game, so the run also measures how many concurrent
+ * players a server holds.
+ */
+public class LoadTestClient {
+
+    //Address of the server
+    private final InetSocketAddress server;
+    //Games finished by the last run
+    private final LongAdder games = new LongAdder();
+    //Shots fired by the last run
+    private final LongAdder shots = new LongAdder();
+    //Players that failed in the last run
+    private final LongAdder failures = new LongAdder();
+    //Duration of the last run, in nanoseconds
+    private long nanos;
+
+    /**
+     * Creates a client for the server at the given address.
+     *
+     * @param server server address
+     */
+    public LoadTestClient(InetSocketAddress server) {
+        this.server = server;
+    }
+
+    /**
+     * Plays one game for each of the given number of players, all at the same time, and waits
+     * until every game is over.
+     *
+     * @param players number of concurrent players
+     * @param seed    seed of the random shots
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void run(int players, long seed) throws InterruptedException {
+        this.games.reset();
+        this.shots.reset();
+        this.failures.reset();
+        SplittableRandom root = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        ExecutorService executor = GameServer.newConnectionExecutor("battleship-player-");
+        for (int i = 0; i < players; i++) {
+            SplittableRandom rd = root.split();
+            executor.execute(() -> {
+                try {
+                    play(rd);
+                } catch (IOException | RuntimeException e) {
+                    this.failures.increment();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        this.nanos = Math.max(System.nanoTime() - start, 1);
+    }
+
+    /**
+     * Plays one game over a new connection.
+     */
+    private void play(SplittableRandom rd) throws IOException {
+        try (Socket socket = new Socket(this.server.getAddress(), this.server.getPort())) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+            if (!GameServer.WELCOME.equals(in.readLine())) throw new IOException("No welcome line");
+            ShotStrategy strategy = new RandomShotStrategy(rd);
+            int fleetSize = GameConfig.standard().getFleetSize();
+            for (int sunk = 0; sunk < fleetSize; ) {
+                int location = strategy.nextShot();
+                out.write(location / 10 + "," + location % 10 + "\n");
+                out.flush();
+                String reply = in.readLine();
+                if (reply == null) throw new IOException("Connection closed during the game");
+                this.shots.increment();
+                //a hit with a message after it sank a ship
+                if (reply.startsWith(GameSession.HIT) && reply.length() > GameSession.HIT.length()) sunk++;
+            }
+            //the results line follows the reply to the last shot
+            String results = in.readLine();
+            if (results == null || !results.startsWith("Game over!")) throw new IOException("No results line");
+            this.games.increment();
+        }
+    }
+
+    /**
+     * Returns the number of games finished by the last run
+     *
+     * @return finished games
+     */
+    public long getGames() {
+        return this.games.sum();
+    }
+
+    /**
+     * Returns the number of shots fired by the last run
+     *
+     * @return shots
+     */
+    public long getShots() {
+        return this.shots.sum();
+    }
+
+    /**
+     * Returns the number of players that failed in the last run
+     *
+     * @return failed players
+     */
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    /**
+     * Returns the shots answered per second by the last run
+     *
+     * @return shots per second
+     */
+    public double getShotsPerSecond() {
+        return getShots() * 1e9 / this.nanos;
+    }
+
+    /**
+     * Starts a server on the loopback interface, unless a port is given, and load tests it.
+     *
+     * @param args number of players (1000 by default), then optionally the port of a running server
+     * @throws Exception if the server cannot be started or the run is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        GameServer server = null;
+        int port;
+        if (args.length > 1) {
+            port = Integer.parseInt(args[1]);
+        } else {
+            server = new GameServer(new SessionManager(), GameServer.loopback(0));
+            port = server.getPort();
+        }
+        LoadTestClient client = new LoadTestClient(GameServer.loopback(port));
+        client.run(players, System.nanoTime());
+        System.out.printf("%d players: %d games, %d failures, %d shots, %.0f shots/s%n", players,
+                client.getGames(), client.getFailures(), client.getShots(), client.getShotsPerSecond());
+        if (server != null) server.close();
+    }
+}
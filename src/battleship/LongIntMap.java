@@ -0,0 +1,139 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to int values with open addressing, so that storing an entry does
+ * not create any objects. get() returns 0 for a missing key, so storing 0 removes the key.
+ * Used by SparseOcean to keep one entry per ship part and per shot instead of one per location
+ * of the board.
+ */
+class LongIntMap {
+
+    //Marks an unused slot; keys are board locations, which are never negative
+    private static final long FREE = -1;
+
+    //Keys, FREE for unused slots
+    private long[] keys;
+    //Values of the keys
+    private int[] values;
+    //The number of entries
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    LongIntMap() {
+        this.keys = new long[16];
+        Arrays.fill(this.keys, FREE);
+        this.values = new int[16];
+    }
+
+    /**
+     * Returns the number of entries
+     *
+     * @return number of entries
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the value of the key, or 0 if there is none
+     *
+     * @param key non-negative key
+     * @return value or 0
+     */
+    int get(long key) {
+        int mask = this.keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (this.keys[i] == key) return this.values[i];
+            if (this.keys[i] == FREE) return 0;
+        }
+    }
+
+    /**
+     * Sets the value of the key.
+     *
+     * @param key   non-negative key
+     * @param value value, 0 to remove the key
+     */
+    void put(long key, int value) {
+        int mask = this.keys.length - 1;
+        int i = slot(key, mask);
+        while (this.keys[i] != FREE && this.keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (value == 0) {
+            if (this.keys[i] == key) remove(i, mask);
+            return;
+        }
+        if (this.keys[i] == FREE) {
+            //keep the table at most half full
+            if (2 * (this.size + 1) > this.keys.length) {
+                grow();
+                put(key, value);
+                return;
+            }
+            this.keys[i] = key;
+            this.size++;
+        }
+        this.values[i] = value;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    void clear() {
+        Arrays.fill(this.keys, FREE);
+        this.size = 0;
+    }
+
+    /**
+     * Frees a used slot, moving back the entries after it that would no longer be found.
+     */
+    private void remove(int i, int mask) {
+        this.size--;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (this.keys[j] == FREE) break;
+            //the entry at j can fill the hole at i if its first slot is not between i and j
+            int home = slot(this.keys[j], mask);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                this.keys[i] = this.keys[j];
+                this.values[i] = this.values[j];
+                i = j;
+            }
+        }
+        this.keys[i] = FREE;
+    }
+
+    /**
+     * Returns the first slot to look at for the key.
+     */
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Doubles the table and moves every entry.
+     */
+    private void grow() {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        this.keys = new long[oldKeys.length * 2];
+        Arrays.fill(this.keys, FREE);
+        this.values = new int[oldValues.length * 2];
+        this.size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntMapTest {
+
+    @Test
+    void testPutZeroRemoves() {
+        LongIntMap map = new LongIntMap();
+        map.put(7, 3);
+        map.put(8, 4);
+        assertEquals(2, map.size());
+        map.put(7, 0);
+        assertEquals(1, map.size());
+        assertEquals(0, map.get(7));
+        assertEquals(4, map.get(8));
+        //removing a missing key changes nothing
+        map.put(7, 0);
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        LongIntMap map = new LongIntMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        SplittableRandom rd = new SplittableRandom(11);
+        //few keys and many removals, so that removed slots sit in the middle of probe chains
+        for (int i = 0; i < 20_000; i++) {
+            long key = rd.nextInt(200);
+            int value = rd.nextInt(3);
+            map.put(key, value);
+            if (value == 0) expected.remove(key);
+            else expected.put(key, value);
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key = 0; key < 200; key++) {
+            assertEquals(expected.getOrDefault(key, 0), map.get(key), "key " + key);
+        }
+    }
+}
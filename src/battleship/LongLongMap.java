@@ -0,0 +1,141 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from non-negative long keys to long values with open addressing, the long valued
+ * sibling of LongIntMap. get() returns 0 for a missing key. The entries can be walked without
+ * creating any objects:
+ * for (int i = map.nextSlot(0); i >= 0; i = map.nextSlot(i + 1)) { map.keyAt(i); map.valueAt(i); }
+ * Used by LayoutCounter to memoize the count of every state.
+ */
+class LongLongMap {
+
+    //Marks an unused slot; keys are never negative
+    private static final long FREE = -1;
+
+    //Keys, FREE for unused slots
+    private long[] keys;
+    //Values of the keys
+    private long[] values;
+    //The number of entries
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    LongLongMap() {
+        this.keys = new long[16];
+        Arrays.fill(this.keys, FREE);
+        this.values = new long[16];
+    }
+
+    /**
+     * Returns the number of entries
+     *
+     * @return number of entries
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the value of the key, or 0 if there is none
+     *
+     * @param key non-negative key
+     * @return value or 0
+     */
+    long get(long key) {
+        int mask = this.keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (this.keys[i] == key) return this.values[i];
+            if (this.keys[i] == FREE) return 0;
+        }
+    }
+
+    /**
+     * Sets the value of the key.
+     *
+     * @param key   non-negative key
+     * @param value value
+     */
+    void put(long key, long value) {
+        int mask = this.keys.length - 1;
+        int i = slot(key, mask);
+        while (this.keys[i] != FREE && this.keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (this.keys[i] == FREE) {
+            //keep the table at most half full
+            if (2 * (this.size + 1) > this.keys.length) {
+                grow();
+                put(key, value);
+                return;
+            }
+            this.keys[i] = key;
+            this.size++;
+        }
+        this.values[i] = value;
+    }
+
+    /**
+     * Returns the first slot at or after the given one that holds an entry, or -1 if there is none.
+     *
+     * @param from slot to start from
+     * @return slot of an entry, or -1
+     */
+    int nextSlot(int from) {
+        for (int i = from; i < this.keys.length; i++) {
+            if (this.keys[i] != FREE) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the key of the entry in the given slot.
+     *
+     * @param slot slot returned by nextSlot()
+     * @return key
+     */
+    long keyAt(int slot) {
+        return this.keys[slot];
+    }
+
+    /**
+     * Returns the value of the entry in the given slot.
+     *
+     * @param slot slot returned by nextSlot()
+     * @return value
+     */
+    long valueAt(int slot) {
+        return this.values[slot];
+    }
+
+    /**
+     * Returns the first slot to look at for the key.
+     */
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Doubles the table and moves every entry.
+     */
+    private void grow() {
+        long[] oldKeys = this.keys;
+        long[] oldValues = this.values;
+        this.keys = new long[oldKeys.length * 2];
+        Arrays.fill(this.keys, FREE);
+        this.values = new long[oldValues.length * 2];
+        this.size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A two-player game: each side has its own Ocean with the standard fleet, and the sides take
+ * turns firing one shot at the other side's ocean. The first side to sink the whole opposing
+ * fleet wins. Side 0 fires first.
+ * A match does not run by itself: a MatchLoop calls playTurn() whenever the player to move may
+ * have a shot ready, so one thread can drive many matches. Only the loop thread plays turns;
+ * submit() may be called from any thread.
+ */
+public class Match {
+
+    //playTurn() result: the next turn can be played at once
+    static final int READY = 0;
+    //playTurn() result: the player to move is waiting for a shot to be submitted
+    static final int WAITING = 1;
+    //playTurn() result: the match is over
+    static final int FINISHED = 2;
+    //Turns after which a match ends without a winner, in case a player never finishes
+    static final int MAX_TURNS = 2 * GameSimulator.DEFAULT_SHOT_LIMIT;
+
+    //The two players
+    private final Player[] players;
+    //The fleet of each side, fired at by the other side
+    private final Ocean[] oceans = new Ocean[2];
+    //Loop driving this match, set when the match is added to it
+    private volatile MatchLoop loop;
+    //Side whose turn it is
+    private volatile int turn;
+    //Number of shots fired by both sides
+    private int turns;
+    //Whether the match is over
+    private volatile boolean finished;
+    //Side that won, -1 while the match is running or if nobody won
+    private volatile int winner = -1;
+
+    /**
+     * Creates a match between two players, with both fleets placed at random.
+     *
+     * @param first  player of side 0, who fires first
+     * @param second player of side 1
+     * @param rd     random number generator for ship placement
+     */
+    public Match(Player first, Player second, RandomGenerator rd) {
+        this.players = new Player[]{first, second};
+        for (int side = 0; side < 2; side++) {
+            this.oceans[side] = new BitboardOcean();
+            this.oceans[side].placeAllShipsWithBacktracking(rd);
+            this.players[side].reset();
+        }
+    }
+
+    /**
+     * Plays one turn if the player to move has a shot ready. FINISHED is only returned by the
+     * turn that ends the match; afterwards the match answers WAITING, as it has nothing to play.
+     *
+     * @return READY, WAITING or FINISHED
+     */
+    int playTurn() {
+        if (this.finished) return WAITING;
+        int side = this.turn;
+        int location = this.players[side].nextShot();
+        if (location == Player.WAITING) return WAITING;
+        if (location < 0 || location >= BitboardOcean.CELLS) {
+            throw new IllegalStateException("Player " + side + " fired off the board: " + location);
+        }
+        Ocean target = this.oceans[1 - side];
+        //record original sunk count
+        int originalSunk = target.getShipsSunk();
+        boolean hit = target.shootAt(location / 10, location % 10);
+        //if newly sunk a ship, report its length
+        int sunkLength = target.getShipsSunk() > originalSunk ? target.getLastSunk().getLength() : 0;
+        this.turns++;
+        this.players[side].onResult(location, hit, sunkLength);
+        this.players[1 - side].onOpponentShot(location, hit, sunkLength);
+        if (target.isGameOver()) {
+            this.winner = side;
+            finish();
+            return FINISHED;
+        }
+        if (this.turns >= MAX_TURNS) {
+            finish();
+            return FINISHED;
+        }
+        this.turn = 1 - side;
+        return READY;
+    }
+
+    /**
+     * Ends the match and tells both players.
+     */
+    private void finish() {
+        this.finished = true;
+        this.players[0].onGameOver(this.winner == 0);
+        this.players[1].onGameOver(this.winner == 1);
+    }
+
+    /**
+     * Hands over the next shot of a human player and wakes the match up. May be called from any
+     * thread.
+     *
+     * @param side   side of the player
+     * @param row    row of the shot
+     * @param column column of the shot
+     * @throws IllegalArgumentException if the location is off the board
+     * @throws IllegalStateException    if the side is not a human player, it is not its turn, or
+     *                                  it already has a shot waiting
+     */
+    public void submit(int side, int row, int column) {
+        if (row < 0 || row > 9 || column < 0 || column > 9) {
+            throw new IllegalArgumentException("Location off the board: " + row + "," + column);
+        }
+        if (!(this.players[side] instanceof HumanPlayer)) {
+            throw new IllegalStateException("Side " + side + " is not a human player");
+        }
+        if (this.finished || this.turn != side) {
+            throw new IllegalStateException("Not the turn of side " + side);
+        }
+        if (!((HumanPlayer) this.players[side]).submit(row * 10 + column)) {
+            throw new IllegalStateException("Side " + side + " already has a shot waiting");
+        }
+        MatchLoop loop = this.loop;
+        if (loop != null) loop.wake(this);
+    }
+
+    /**
+     * Attaches the match to the loop that drives it.
+     *
+     * @param loop match loop
+     */
+    void setLoop(MatchLoop loop) {
+        this.loop = loop;
+    }
+
+    /**
+     * Returns the player of a side
+     *
+     * @param side 0 or 1
+     * @return player
+     */
+    public Player getPlayer(int side) {
+        return this.players[side];
+    }
+
+    /**
+     * Returns the fleet of a side, fired at by the other side. Only safe to read from the loop
+     * thread, or once the match is over.
+     *
+     * @param side 0 or 1
+     * @return ocean of the side
+     */
+    Ocean getOcean(int side) {
+        return this.oceans[side];
+    }
+
+    /**
+     * Returns the side whose turn it is
+     *
+     * @return 0 or 1
+     */
+    public int getTurn() {
+        return this.turn;
+    }
+
+    /**
+     * Returns the number of shots fired by both sides
+     *
+     * @return turns played
+     */
+    public int getTurns() {
+        return this.turns;
+    }
+
+    /**
+     * Returns true if the match is over
+     *
+     * @return whether the match is over
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Returns the side that won
+     *
+     * @return 0 or 1, or -1 while the match is running or if it ended without a winner
+     */
+    public int getWinner() {
+        return this.winner;
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drives many matches from one thread. Matches whose player to move has a shot ready sit in a
+ * run queue and play one turn each in round robin; a match waiting for a human is set aside
+ * until Match.submit() wakes it up, so idle matches cost nothing.
+ * A loop either runs on a thread of its own (start()), or is driven by the caller with
+ * runUntilIdle(), which plays matches between computer players headless at full speed without
+ * any thread switch.
+ */
+public class MatchLoop implements Closeable {
+
+    //Matches that can play a turn, only used by the loop thread
+    private final ArrayDeque<Match> ready = new ArrayDeque<>();
+    //Matches added or woken up from any thread, moved to ready by the loop thread
+    private final ConcurrentLinkedQueue<Match> woken = new ConcurrentLinkedQueue<>();
+    //Called on the loop thread with every match that ends, may be null
+    private final Consumer<Match> onFinish;
+    //Thread started by start(), null when the caller drives the loop
+    private volatile Thread thread;
+    //Cleared to stop the thread started by start()
+    private volatile boolean running;
+    //Number of matches finished
+    private volatile long matchesFinished;
+
+    /**
+     * Creates a loop without a finish callback.
+     */
+    public MatchLoop() {
+        this(null);
+    }
+
+    /**
+     * Creates a loop calling the given callback with every match that ends.
+     *
+     * @param onFinish called on the loop thread, may be null
+     */
+    public MatchLoop(Consumer<Match> onFinish) {
+        this.onFinish = onFinish;
+    }
+
+    /**
+     * Adds a match to the loop. May be called from any thread.
+     *
+     * @param match a new match
+     */
+    public void add(Match match) {
+        match.setLoop(this);
+        wake(match);
+    }
+
+    /**
+     * Puts a match back in the run queue, after a shot was submitted to it.
+     *
+     * @param match match with a shot ready
+     */
+    void wake(Match match) {
+        this.woken.add(match);
+        Thread thread = this.thread;
+        if (thread != null) LockSupport.unpark(thread);
+    }
+
+    /**
+     * Plays turns on the calling thread until no match can play, because every match is either
+     * over or waiting for a human. Must not be called while the loop runs on its own thread.
+     *
+     * @return the number of turns played
+     */
+    public long runUntilIdle() {
+        long turns = 0;
+        while (true) {
+            Match match;
+            while ((match = this.woken.poll()) != null) {
+                this.ready.add(match);
+            }
+            match = this.ready.poll();
+            if (match == null) return turns;
+            int state = match.playTurn();
+            if (state == Match.READY) {
+                turns++;
+                this.ready.add(match);
+            } else if (state == Match.FINISHED) {
+                turns++;
+                this.matchesFinished++;
+                if (this.onFinish != null) this.onFinish.accept(match);
+            }
+            //a WAITING match comes back through wake()
+        }
+    }
+
+    /**
+     * Starts a thread running the loop until close().
+     */
+    public void start() {
+        this.running = true;
+        Thread thread = new Thread(() -> {
+            while (this.running) {
+                runUntilIdle();
+                if (this.woken.isEmpty()) LockSupport.park(this);
+            }
+        }, "battleship-match-loop");
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Returns the number of matches finished so far
+     *
+     * @return finished matches
+     */
+    public long getMatchesFinished() {
+        return this.matchesFinished;
+    }
+
+    /**
+     * Stops the thread started by start(), if any. Matches still running are left as they are.
+     */
+    @Override
+    public void close() {
+        Thread thread = this.thread;
+        if (thread == null) return;
+        this.running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.thread = null;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchTest {
+
+    @Test
+    void testAiVsAiHeadless() {
+        SplittableRandom rd = new SplittableRandom(1);
+        List<Match> finished = new ArrayList<>();
+        MatchLoop loop = new MatchLoop(finished::add);
+        int count = 2000;
+        for (int i = 0; i < count; i++) {
+            loop.add(new Match(new StrategyPlayer(new RandomShotStrategy(rd.split())),
+                    new StrategyPlayer(new ProbabilityShotStrategy(GameConfig.standard(), rd.split())), rd));
+        }
+        long turns = loop.runUntilIdle();
+        assertEquals(count, loop.getMatchesFinished());
+        assertEquals(count, finished.size());
+        long total = 0;
+        int strategyWins = 0;
+        for (Match match : finished) {
+            assertTrue(match.isFinished());
+            int winner = match.getWinner();
+            //the winner sank the fleet of the loser, who fired at most one shot less
+            assertTrue(match.getOcean(1 - winner).isGameOver());
+            assertFalse(match.getOcean(winner).isGameOver());
+            int winnerShots = match.getOcean(1 - winner).getShotsFired();
+            assertEquals(winner == 0 ? winnerShots - 1 : winnerShots, match.getOcean(winner).getShotsFired());
+            assertEquals(match.getTurns(), winnerShots + match.getOcean(winner).getShotsFired());
+            total += match.getTurns();
+            if (winner == 1) strategyWins++;
+        }
+        assertEquals(total, turns);
+        //the probability strategy beats random shots nearly always
+        assertTrue(strategyWins > count * 9 / 10, "strategy won " + strategyWins);
+    }
+
+    @Test
+    void testHumanVsHuman() {
+        List<String> messages = new ArrayList<>();
+        HumanPlayer first = new HumanPlayer("A", messages::add);
+        HumanPlayer second = new HumanPlayer("B", messages::add);
+        Match match = new Match(first, second, new SplittableRandom(2));
+        MatchLoop loop = new MatchLoop();
+        loop.add(match);
+        assertEquals(0, loop.runUntilIdle());
+        assertEquals(List.of("A: Enter row,column:"), messages);
+        assertThrows(IllegalStateException.class, () -> match.submit(1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> match.submit(0, 0, 10));
+        match.submit(0, 3, 4);
+        assertThrows(IllegalStateException.class, () -> match.submit(0, 3, 5));
+        assertEquals(1, loop.runUntilIdle());
+        assertEquals(1, match.getTurn());
+        boolean hit = match.getOcean(1).isOccupied(3, 4);
+        String reply = hit ? GameSession.HIT : GameSession.MISS;
+        assertEquals(List.of("A: Enter row,column:", "A: 3,4: " + reply, "B: Opponent fired at 3,4: " + reply,
+                "B: Enter row,column:"), messages);
+
+        //both sides sweep the board until one fleet is sunk
+        while (!match.isFinished()) {
+            int side = match.getTurn();
+            int location = sweep(match, side);
+            match.submit(side, location / 10, location % 10);
+            assertEquals(1, loop.runUntilIdle());
+        }
+        int winner = match.getWinner();
+        assertTrue(match.getOcean(1 - winner).isGameOver());
+        assertFalse(match.getOcean(winner).isGameOver());
+        String[] names = {"A", "B"};
+        assertTrue(messages.contains(names[winner] + ": You win! You've sunk all the ships!"));
+        assertTrue(messages.contains(names[1 - winner] + ": You lose! All your ships have been sunk."));
+        assertEquals(1, loop.getMatchesFinished());
+        assertThrows(IllegalStateException.class, () -> match.submit(1, 0, 0));
+    }
+
+    /**
+     * Returns the first location the given side has not fired at, in row order.
+     */
+    private static int sweep(Match match, int side) {
+        BitboardOcean target = (BitboardOcean) match.getOcean(1 - side);
+        for (int location = 0; location < 100; location++) {
+            long bit = 1L << location;
+            long fired = location < 64 ? target.getHitLo() | target.getMissLo() : target.getHitHi() | target.getMissHi();
+            if ((fired & bit) == 0) return location;
+        }
+        throw new AssertionError("Every location was fired at");
+    }
+
+    @Test
+    void testHumanVsAiOnLoopThread() throws Exception {
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        HumanPlayer human = new HumanPlayer("Human", messages::add);
+        Match match = new Match(new StrategyPlayer(new RandomShotStrategy(new SplittableRandom(4))), human,
+                new SplittableRandom(3));
+        MatchLoop loop = new MatchLoop();
+        loop.start();
+        try {
+            loop.add(match);
+            int location = 0;
+            while (!match.isFinished()) {
+                //wait for the computer to move, then fire at the next location
+                if (match.getTurn() != 1) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                try {
+                    match.submit(1, location / 10, location % 10);
+                    location++;
+                } catch (IllegalStateException e) {
+                    //the previous shot was not fired yet, or the match just ended
+                    Thread.sleep(1);
+                }
+            }
+        } finally {
+            loop.close();
+        }
+        assertEquals(1, loop.getMatchesFinished());
+        assertTrue(match.getWinner() == 0 || match.getWinner() == 1);
+        assertTrue(match.getOcean(1 - match.getWinner()).isGameOver());
+        //the human saw every shot of the computer
+        long fired = messages.stream().filter(m -> m.startsWith("Human: Opponent fired at")).count();
+        assertEquals(match.getOcean(1).getShotsFired(), fired);
+        assertTrue(messages.get(messages.size() - 1).startsWith("Human: You "));
+    }
+
+    @Test
+    void testConsoleSubmit() {
+        Match match = new Match(new HumanPlayer("A", m -> { }), new HumanPlayer("B", m -> { }), new SplittableRandom(5));
+        assertEquals(GameSession.INVALID, TwoPlayerGame.submit(match, "a,b"));
+        assertEquals(GameSession.INVALID, TwoPlayerGame.submit(match, "3"));
+        assertEquals(GameSession.ROW_OUT_OF_BOUND, TwoPlayerGame.submit(match, "10,0"));
+        assertEquals(GameSession.COLUMN_OUT_OF_BOUND, TwoPlayerGame.submit(match, " 0 , -1"));
+        assertNull(TwoPlayerGame.submit(match, "1,2"));
+        assertEquals("Please wait for your turn.", TwoPlayerGame.submit(match, "1,3"));
+    }
+}
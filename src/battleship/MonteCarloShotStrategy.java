@@ -0,0 +1,254 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * A player that samples many fleet layouts agreeing with the shots seen so far and fires at the
+ * location occupied in most of them.
+ * Each layout places every ship still afloat with the rules of Ship.okToPlaceShipAt() (no ship
+ * touches another one or a sunk ship, even diagonally), never on a known location except the
+ * hits on ships not sunk yet, and covers all of those hits. The ships covering the hits are
+ * placed first, one hit at a time, then the other ships from the longest down; a layout that
+ * runs into a dead end is dropped.
+ * Sampling runs on all cores of the common fork-join pool. Every worker keeps its own random
+ * stream, scratch arrays and heatmap across moves, so a sample does not allocate. A move stops
+ * sampling at the time budget or at the sample limit, whichever comes first; when no layout was
+ * found in time, the move falls back to ProbabilityShotStrategy, which also keeps track of what
+ * the shots revealed. Only 10x10 boards are supported.
+ */
+public class MonteCarloShotStrategy implements ShotStrategy {
+
+    //Default time budget of a move, in nanoseconds
+    static final long DEFAULT_BUDGET_NANOS = 2_000_000;
+    //Default number of layouts sampled per move
+    static final int DEFAULT_MAX_SAMPLES = 20_000;
+    //Number of samples between two looks at the clock
+    static final int CLOCK_INTERVAL = 32;
+
+    //Knowledge of the board, and the move used when sampling finds nothing
+    private final ProbabilityShotStrategy tracker;
+    //Distinct ship lengths of the fleet, longest first
+    private final int[] lengths;
+    //Time budget of a move, in nanoseconds
+    private final long budgetNanos;
+    //Number of layouts sampled per move at most
+    private final int maxSamples;
+    //One worker per thread, kept across moves
+    private final Worker[] workers;
+    //Number of layouts found by the last move
+    private int lastSamples;
+
+    /**
+     * Creates a strategy for the standard fleet with the default budget, on all cores.
+     */
+    public MonteCarloShotStrategy() {
+        this(GameConfig.standard(), DEFAULT_BUDGET_NANOS, DEFAULT_MAX_SAMPLES,
+                Runtime.getRuntime().availableProcessors(), new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a strategy for the given configuration. With a budget long enough for maxSamples
+     * samples, the moves only depend on the seed.
+     *
+     * @param config      board size and fleet, the board must be 10x10
+     * @param budgetNanos time budget of a move, in nanoseconds
+     * @param maxSamples  number of layouts sampled per move at most
+     * @param threads     number of workers sampling in parallel
+     * @param seed        seed of the random streams
+     */
+    public MonteCarloShotStrategy(GameConfig config, long budgetNanos, int maxSamples, int threads, long seed) {
+        if (budgetNanos <= 0 || maxSamples <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Budget, samples and threads must be positive");
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        this.tracker = new ProbabilityShotStrategy(config, root.split());
+        this.lengths = Arrays.stream(config.getFleetLengths()).distinct()
+                .map(length -> -length).sorted().map(length -> -length).toArray();
+        this.budgetNanos = budgetNanos;
+        this.maxSamples = maxSamples;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            this.workers[i] = new Worker(root.split());
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.tracker.reset();
+        this.lastSamples = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        long deadline = System.nanoTime() + this.budgetNanos;
+        int perWorker = (this.maxSamples + this.workers.length - 1) / this.workers.length;
+        IntStream.range(0, this.workers.length).parallel()
+                .forEach(i -> this.workers[i].run(perWorker, deadline));
+
+        //add up the heatmaps and pick the unknown location occupied most often
+        this.lastSamples = 0;
+        for (Worker worker : this.workers) {
+            this.lastSamples += worker.samples;
+        }
+        if (this.lastSamples == 0) return this.tracker.nextShot();
+        long knownLo = this.tracker.getKnownLo();
+        long knownHi = this.tracker.getKnownHi();
+        int best = -1;
+        int bestHeat = 0;
+        for (int idx = 0; idx < 100; idx++) {
+            if (PlacementIndex.covers(knownLo, knownHi, idx)) continue;
+            int heat = 0;
+            for (Worker worker : this.workers) {
+                heat += worker.heat[idx];
+            }
+            if (heat > bestHeat) {
+                best = idx;
+                bestHeat = heat;
+            }
+        }
+        return best >= 0 ? best : this.tracker.nextShot();
+    }
+
+    @Override
+    public void onResult(int location, boolean hit, int sunkLength) {
+        this.tracker.onResult(location, hit, sunkLength);
+    }
+
+    /**
+     * Returns the number of layouts sampled for the last move.
+     *
+     * @return number of layouts
+     */
+    int getLastSamples() {
+        return this.lastSamples;
+    }
+
+    /**
+     * Samples layouts on one thread. Everything a sample needs is allocated once.
+     */
+    private final class Worker {
+
+        //Random stream of this worker
+        private final SplittableRandom rd;
+        //Number of layouts in which each location holds a ship, for the current move
+        private final int[] heat = new int[100];
+        //Placements to choose from for the current ship
+        private final int[] options = new int[200];
+        //Ships of each length still to place in the current layout
+        private final int[] remaining = new int[PlacementIndex.MAX_LENGTH + 1];
+        //Number of layouts found for the current move
+        private int samples;
+
+        /**
+         * Creates a worker drawing from the given random stream.
+         */
+        Worker(SplittableRandom rd) {
+            this.rd = rd;
+        }
+
+        /**
+         * Samples up to count layouts, stopping early at the deadline, and adds them to the heatmap.
+         */
+        void run(int count, long deadline) {
+            Arrays.fill(this.heat, 0);
+            this.samples = 0;
+            for (int attempt = 0; attempt < count; attempt++) {
+                if (attempt % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0) return;
+                if (sample()) this.samples++;
+            }
+        }
+
+        /**
+         * Draws one layout of the ships afloat and adds it to the heatmap.
+         * Returns false if the layout ran into a dead end.
+         */
+        private boolean sample() {
+            ProbabilityShotStrategy tracker = MonteCarloShotStrategy.this.tracker;
+            //sunk ships count as placed, so no ship is drawn next to them
+            long occupiedLo = tracker.getSunkLo();
+            long occupiedHi = tracker.getSunkHi();
+            //hits still to cover, and known locations no ship may cover
+            long openLo = tracker.getOpenHitLo();
+            long openHi = tracker.getOpenHitHi();
+            long forbiddenLo = tracker.getKnownLo() & ~openLo;
+            long forbiddenHi = tracker.getKnownHi() & ~openHi;
+            for (int length : MonteCarloShotStrategy.this.lengths) {
+                this.remaining[length] = tracker.getAfloat(length);
+            }
+            long shipsLo = 0;
+            long shipsHi = 0;
+
+            //first cover the open hits, lowest location first
+            while ((openLo | openHi) != 0) {
+                int hit = openLo != 0 ? Long.numberOfTrailingZeros(openLo) : 64 + Long.numberOfTrailingZeros(openHi);
+                int n = 0;
+                for (int p : PlacementIndex.bodyCovering(hit)) {
+                    if (this.remaining[PlacementIndex.length(p)] > 0
+                            && fits(p, occupiedLo, occupiedHi, forbiddenLo, forbiddenHi, openLo, openHi)) {
+                        this.options[n++] = p;
+                    }
+                }
+                if (n == 0) return false;
+                int p = this.options[this.rd.nextInt(n)];
+                this.remaining[PlacementIndex.length(p)]--;
+                occupiedLo |= PlacementIndex.bodyLo(p);
+                occupiedHi |= PlacementIndex.bodyHi(p);
+                shipsLo |= PlacementIndex.bodyLo(p);
+                shipsHi |= PlacementIndex.bodyHi(p);
+                openLo &= ~PlacementIndex.bodyLo(p);
+                openHi &= ~PlacementIndex.bodyHi(p);
+            }
+
+            //then the other ships, longest first
+            for (int length : MonteCarloShotStrategy.this.lengths) {
+                for (; this.remaining[length] > 0; this.remaining[length]--) {
+                    int n = 0;
+                    for (int p : PlacementIndex.candidates(length)) {
+                        if (fits(p, occupiedLo, occupiedHi, forbiddenLo, forbiddenHi, openLo, openHi)) this.options[n++] = p;
+                    }
+                    if (n == 0) return false;
+                    int p = this.options[this.rd.nextInt(n)];
+                    occupiedLo |= PlacementIndex.bodyLo(p);
+                    occupiedHi |= PlacementIndex.bodyHi(p);
+                    shipsLo |= PlacementIndex.bodyLo(p);
+                    shipsHi |= PlacementIndex.bodyHi(p);
+                }
+            }
+
+            //count the ships drawn on the unknown locations
+            addBits(this.heat, shipsLo & ~tracker.getKnownLo(), 0);
+            addBits(this.heat, shipsHi & ~tracker.getKnownHi(), 64);
+            return true;
+        }
+    }
+
+    /**
+     * Returns true if a placement touches no ship placed so far, covers no forbidden location and
+     * is not next to a hit it does not cover (that hit would belong to a ship touching it).
+     */
+    private static boolean fits(int p, long occupiedLo, long occupiedHi, long forbiddenLo, long forbiddenHi,
+                                long openLo, long openHi) {
+        long bodyLo = PlacementIndex.bodyLo(p);
+        long bodyHi = PlacementIndex.bodyHi(p);
+        return PlacementIndex.isLegal(p, occupiedLo, occupiedHi)
+                && ((bodyLo & forbiddenLo) | (bodyHi & forbiddenHi)) == 0
+                && ((PlacementIndex.haloLo(p) & ~bodyLo & openLo) | (PlacementIndex.haloHi(p) & ~bodyHi & openHi)) == 0;
+    }
+
+    /**
+     * Adds 1 to counts at every location set in one word of a bitboard.
+     */
+    private static void addBits(int[] counts, long word, int firstBit) {
+        while (word != 0) {
+            counts[firstBit + Long.numberOfTrailingZeros(word)]++;
+            word &= word - 1;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloShotStrategyTest {
+
+    @Test
+    void testFullGames() {
+        MonteCarloShotStrategy strategy = new MonteCarloShotStrategy(GameConfig.standard(), Long.MAX_VALUE / 4, 400, 2, 11);
+        GameSimulator simulator = new GameSimulator(strategy);
+        long[] shots = new long[1];
+        simulator.playGames(20, new SplittableRandom(12), (game, ocean, result) -> {
+            assertTrue(result.isFinished());
+            //never fires twice at a location
+            assertTrue(result.getShots() <= 100);
+            shots[0] += result.getShots();
+        });
+        //random play needs about 95 shots per game
+        assertTrue(shots[0] < 20 * 70, "shots " + shots[0]);
+    }
+
+    @Test
+    void testSameSeedSameGame() {
+        Ocean first = new BitboardOcean();
+        first.placeAllShipsFromSeed(4);
+        Ocean second = new BitboardOcean();
+        second.placeAllShipsFromSeed(4);
+        GameResult a = new GameSimulator(new MonteCarloShotStrategy(GameConfig.standard(), Long.MAX_VALUE / 4, 200, 3, 9))
+                .play(first, new GameResult());
+        GameResult b = new GameSimulator(new MonteCarloShotStrategy(GameConfig.standard(), Long.MAX_VALUE / 4, 200, 3, 9))
+                .play(second, new GameResult());
+        assertEquals(a.getShots(), b.getShots());
+        assertEquals(a.getSinkShot(0), b.getSinkShot(0));
+    }
+
+    @Test
+    void testSamplesAgreeWithHits() {
+        MonteCarloShotStrategy strategy = new MonteCarloShotStrategy(GameConfig.standard(), Long.MAX_VALUE / 4, 1000, 2, 3);
+        //a hit at (5, 5) with misses left and right of it: the ship is vertical
+        strategy.onResult(55, true, 0);
+        strategy.onResult(54, false, 0);
+        strategy.onResult(56, false, 0);
+        int next = strategy.nextShot();
+        assertTrue(next == 45 || next == 65, "shot " + next);
+        assertTrue(strategy.getLastSamples() > 0);
+    }
+
+    @Test
+    void testBudgetFallsBack() {
+        //a budget too short for any sample still gives a legal move
+        MonteCarloShotStrategy strategy = new MonteCarloShotStrategy(GameConfig.standard(), 1, 1000, 1, 3);
+        Ocean ocean = new BitboardOcean();
+        ocean.placeAllShipsFromSeed(6);
+        GameResult result = new GameSimulator(strategy).play(ocean, new GameResult());
+        assertTrue(result.isFinished());
+        assertTrue(result.getShots() <= 100);
+    }
+}
@@ -0,0 +1,425 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * A TCP server for the same line protocol as GameServer, with one selector thread multiplexing
+ * every connection instead of a thread per connection.
+ * Every connection borrows two direct buffers from a BufferPool, one for input and one for output.
+ * Shots are parsed straight from the input buffer and replies are copied from precomputed ASCII
+ * bytes into the output buffer, so once a connection is open, handling a shot creates no objects:
+ * no Strings, no split() arrays and no boxed numbers.
+ * A line longer than the input buffer is answered "Invalid inputs!" and skipped. When the output
+ * buffer is full the server stops reading from that client until the replies have been sent.
+ */
+public class NioGameServer implements Closeable {
+
+    //Capacity of the input and of the output buffer of a connection
+    static final int BUFFER_SIZE = 512;
+    //Most unused buffers kept in the pool
+    static final int MAX_IDLE_BUFFERS = 8192;
+    //Room needed in the output buffer to answer one more line: the longest reply plus results
+    static final int MAX_REPLY = 128;
+    //parseShot() result for a line that is not two integers separated by a comma
+    static final long INVALID_SHOT = Long.MIN_VALUE;
+
+    //Replies, as ASCII lines
+    private static final byte[] WELCOME = line(GameServer.WELCOME);
+    private static final byte[] HIT = line(GameSession.HIT);
+    private static final byte[] MISS = line(GameSession.MISS);
+    private static final byte[] INVALID = line(GameSession.INVALID);
+    private static final byte[] ROW_OUT_OF_BOUND = line(GameSession.ROW_OUT_OF_BOUND);
+    private static final byte[] COLUMN_OUT_OF_BOUND = line(GameSession.COLUMN_OUT_OF_BOUND);
+    //Reply to a shot that sinks a ship, for each length (the last one is used for longer ships)
+    private static final byte[][] SUNK = new byte[PlacementIndex.MAX_LENGTH + 1][];
+    //Parts of the results line around the two numbers
+    private static final byte[] RESULTS_SHOTS = "Game over! Total shots: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RESULTS_HITS = ", total hits: ".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (int length = 1; length < SUNK.length; length++) {
+            SUNK[length] = line(GameSession.HIT + " You just sank a ship - "
+                    + GameConfig.createShip(length).getShipType() + ".");
+        }
+    }
+
+    /**
+     * One client: its game, its buffers and where it is in the protocol.
+     */
+    private static final class Connection {
+        //Channel of the client
+        private final SocketChannel channel;
+        //Game of the client
+        private final GameSession session;
+        //Bytes received and not handled yet (in write mode)
+        private final ByteBuffer in;
+        //Replies not sent yet (in write mode)
+        private final ByteBuffer out;
+        //Registration of the channel
+        private SelectionKey key;
+        //Whether the rest of an overlong line is being skipped
+        private boolean skipping;
+        //Whether the game is over and the connection closes once the replies are sent
+        private boolean closing;
+
+        Connection(SocketChannel channel, GameSession session, ByteBuffer in, ByteBuffer out) {
+            this.channel = channel;
+            this.session = session;
+            this.in = in;
+            this.out = out;
+        }
+    }
+
+    //Games of the connected players
+    private final SessionManager sessions;
+    //Selector of the event loop
+    private final Selector selector;
+    //Listening channel
+    private final ServerSocketChannel serverChannel;
+    //Buffers of the connections
+    private final BufferPool pool = new BufferPool(BUFFER_SIZE, MAX_IDLE_BUFFERS);
+    //Handles one ready key, created once so that select() does not allocate
+    private final Consumer<SelectionKey> dispatch = this::dispatch;
+    //Event loop thread
+    private final Thread loop;
+    //Cleared to stop the event loop
+    private volatile boolean running = true;
+    //Number of open connections
+    private volatile int connectionCount;
+
+    /**
+     * Creates a server for the given sessions listening on the given address, and starts its
+     * event loop.
+     *
+     * @param sessions games of the players
+     * @param address  address to listen on, port 0 for any free port
+     * @throws IOException if the channel cannot be bound
+     */
+    public NioGameServer(SessionManager sessions, InetSocketAddress address) throws IOException {
+        this.sessions = sessions;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        this.serverChannel.bind(address, GameServer.BACKLOG);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.loop = new Thread(this::eventLoop, "battleship-nio");
+        this.loop.start();
+    }
+
+    /**
+     * Returns the port the server listens on
+     *
+     * @return local port
+     * @throws IOException if the channel is closed
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) this.serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Returns the number of connected clients
+     *
+     * @return open connections
+     */
+    public int getConnectionCount() {
+        return this.connectionCount;
+    }
+
+    /**
+     * Parses a line of the form "row,column" like BattleshipGame.getUserInput(): each number may
+     * have a sign and be surrounded by spaces, and anything after a second comma is ignored.
+     * Reads the bytes from start (inclusive) to end (exclusive) of buf without creating objects.
+     *
+     * @param buf   buffer holding the line
+     * @param start index of the first byte of the line
+     * @param end   index after the last byte of the line, without the line break
+     * @return row in the high 32 bits and column in the low 32 bits, or INVALID_SHOT
+     */
+    static long parseShot(ByteBuffer buf, int start, int end) {
+        int comma = start;
+        while (comma < end && buf.get(comma) != ',') comma++;
+        if (comma == end) return INVALID_SHOT;
+        int second = comma + 1;
+        while (second < end && buf.get(second) != ',') second++;
+        long row = parseInt(buf, start, comma);
+        long column = parseInt(buf, comma + 1, second);
+        if (row == INVALID_SHOT || column == INVALID_SHOT) return INVALID_SHOT;
+        return row << 32 | (column & 0xffffffffL);
+    }
+
+    /**
+     * Parses one int like Integer.parseInt(s.trim()), or returns INVALID_SHOT.
+     */
+    private static long parseInt(ByteBuffer buf, int start, int end) {
+        //trim() removes every character up to the space
+        while (start < end && (buf.get(start) & 0xff) <= ' ') start++;
+        while (end > start && (buf.get(end - 1) & 0xff) <= ' ') end--;
+        if (start == end) return INVALID_SHOT;
+        boolean negative = false;
+        byte first = buf.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++start == end) return INVALID_SHOT;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) return INVALID_SHOT;
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) return INVALID_SHOT;
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) return INVALID_SHOT;
+        return value;
+    }
+
+    /**
+     * Runs the event loop until the server is closed, then closes every connection.
+     */
+    private void eventLoop() {
+        try {
+            while (this.running) {
+                this.selector.select(this.dispatch);
+            }
+        } catch (IOException e) {
+            //the selector failed: stop serving
+        } finally {
+            for (SelectionKey key : this.selector.keys()) {
+                if (key.attachment() instanceof Connection) close((Connection) key.attachment());
+            }
+            try {
+                this.serverChannel.close();
+                this.selector.close();
+            } catch (IOException e) {
+                //nothing left to do
+            }
+        }
+    }
+
+    /**
+     * Handles one ready key.
+     */
+    private void dispatch(SelectionKey key) {
+        if (!key.isValid()) return;
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isWritable()) flush(connection);
+            if (key.isValid() && key.isReadable()) read(connection);
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    /**
+     * Accepts every pending connection and sends the welcome line.
+     */
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = this.serverChannel.accept();
+                if (channel == null) return;
+            } catch (IOException e) {
+                return;
+            }
+            Connection connection = new Connection(channel, this.sessions.open(), this.pool.acquire(), this.pool.acquire());
+            this.connectionCount++;
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                connection.key = channel.register(this.selector, SelectionKey.OP_READ, connection);
+                connection.out.put(WELCOME);
+                flush(connection);
+            } catch (IOException e) {
+                close(connection);
+            }
+        }
+    }
+
+    /**
+     * Reads what the client sent and answers every complete line.
+     */
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.in) < 0) {
+            close(connection);
+            return;
+        }
+        flush(connection);
+    }
+
+    /**
+     * Answers the complete lines in the input buffer while the output buffer has room, and keeps
+     * the rest for later.
+     *
+     * @return true if any input was used up
+     */
+    private boolean handleLines(Connection connection) {
+        ByteBuffer in = connection.in;
+        in.flip();
+        int start = in.position();
+        int first = start;
+        for (int i = start; i < in.limit() && !connection.closing; i++) {
+            if (in.get(i) != '\n') continue;
+            if (connection.skipping) {
+                //end of an overlong line, already answered
+                connection.skipping = false;
+            } else {
+                if (connection.out.remaining() < MAX_REPLY) break;
+                int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+                handleLine(connection, in, start, end);
+            }
+            start = i + 1;
+        }
+        in.position(start);
+        in.compact();
+        //a full buffer without a line break: answer now and skip to the next line break
+        if (!in.hasRemaining() && connection.out.remaining() >= MAX_REPLY) {
+            if (!connection.skipping) connection.out.put(INVALID);
+            connection.skipping = true;
+            in.clear();
+            return true;
+        }
+        return start > first;
+    }
+
+    /**
+     * Answers one line.
+     */
+    private void handleLine(Connection connection, ByteBuffer in, int start, int end) {
+        ByteBuffer out = connection.out;
+        long shot = parseShot(in, start, end);
+        if (shot == INVALID_SHOT) {
+            out.put(INVALID);
+            return;
+        }
+        int row = (int) (shot >> 32);
+        int column = (int) shot;
+        Ocean ocean = connection.session.getOcean();
+        if (row < 0 || row >= ocean.getRows()) {
+            out.put(ROW_OUT_OF_BOUND);
+            return;
+        }
+        if (column < 0 || column >= ocean.getColumns()) {
+            out.put(COLUMN_OUT_OF_BOUND);
+            return;
+        }
+        int outcome = connection.session.fire(row, column);
+        if (outcome == GameSession.MISSED) out.put(MISS);
+        else if (outcome == GameSession.HIT_AFLOAT) out.put(HIT);
+        else out.put(SUNK[Math.min(outcome, SUNK.length - 1)]);
+        if (ocean.isGameOver()) {
+            out.put(RESULTS_SHOTS);
+            putInt(out, ocean.getShotsFired());
+            out.put(RESULTS_HITS);
+            putInt(out, ocean.getHitCount());
+            out.put((byte) '\n');
+            connection.closing = true;
+        }
+    }
+
+    /**
+     * Sends as much of the output buffer as the channel takes, and waits for the channel to be
+     * writable again if some is left. Resumes reading once there is room for replies.
+     */
+    private void flush(Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        boolean progress = true;
+        while (progress) {
+            out.flip();
+            connection.channel.write(out);
+            out.compact();
+            //lines held back by a full output buffer can be answered now
+            progress = out.remaining() >= MAX_REPLY && connection.in.position() > 0 && !connection.closing
+                    && handleLines(connection);
+        }
+        if (out.position() == 0 && connection.closing) {
+            close(connection);
+            return;
+        }
+        int ops = out.position() > 0 ? SelectionKey.OP_WRITE : 0;
+        if (out.remaining() >= MAX_REPLY && !connection.closing) ops |= SelectionKey.OP_READ;
+        if (connection.key.interestOps() != ops) connection.key.interestOps(ops);
+    }
+
+    /**
+     * Closes a connection, ends its game and gives its buffers back to the pool.
+     */
+    private void close(Connection connection) {
+        if (!connection.channel.isOpen()) return;
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            //closed anyway
+        }
+        this.sessions.close(connection.session);
+        this.pool.release(connection.in);
+        this.pool.release(connection.out);
+        this.connectionCount--;
+    }
+
+    /**
+     * Writes a non-negative int in decimal.
+     */
+    private static void putInt(ByteBuffer out, int value) {
+        int divisor = 1;
+        while (divisor <= value / 10) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) {
+            out.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Returns a line of text as ASCII bytes with a line break.
+     */
+    private static byte[] line(String text) {
+        return (text + "\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Stops the event loop and closes every connection.
+     *
+     * @throws IOException never, the channels are closed by the event loop
+     */
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+        this.selector.wakeup();
+        try {
+            this.loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args optional port, 7071 by default
+     * @throws IOException if the channel cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7071;
+        NioGameServer server = new NioGameServer(new SessionManager(), new InetSocketAddress(port));
+        System.out.println("Battleship NIO server listening on port " + server.getPort());
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioGameServerTest {
+
+    /**
+     * Parses a line through a direct buffer, with some bytes before it.
+     */
+    private static long parse(String line) {
+        ByteBuffer buf = ByteBuffer.allocateDirect(64);
+        buf.put((byte) 'x').put(line.getBytes(StandardCharsets.US_ASCII)).put((byte) 'x');
+        return NioGameServer.parseShot(buf, 1, 1 + line.length());
+    }
+
+    @Test
+    void testParseShot() {
+        assertEquals(3L << 32 | 4, parse("3,4"));
+        assertEquals(3L << 32 | 4, parse(" 3 , 4 "));
+        assertEquals(3L << 32 | 4, parse("+3,4,whatever"));
+        assertEquals(-1L << 32 | (-12 & 0xffffffffL), parse("-1,-12"));
+        assertEquals((long) Integer.MIN_VALUE << 32 | Integer.MAX_VALUE, parse("-2147483648,2147483647"));
+        assertEquals(NioGameServer.INVALID_SHOT, parse("3"));
+        assertEquals(NioGameServer.INVALID_SHOT, parse("a,b"));
+        assertEquals(NioGameServer.INVALID_SHOT, parse(",4"));
+        assertEquals(NioGameServer.INVALID_SHOT, parse("3,"));
+        assertEquals(NioGameServer.INVALID_SHOT, parse("-,4"));
+        assertEquals(NioGameServer.INVALID_SHOT, parse("3 4,5"));
+        assertEquals(NioGameServer.INVALID_SHOT, parse("2147483648,0"));
+        assertEquals(NioGameServer.INVALID_SHOT, parse("99999999999999999999,0"));
+    }
+
+    @Test
+    void testBufferPool() {
+        BufferPool pool = new BufferPool(16, 1);
+        ByteBuffer a = pool.acquire();
+        ByteBuffer b = pool.acquire();
+        assertTrue(a.isDirect());
+        assertNotSame(a, b);
+        a.put((byte) 1);
+        pool.release(a);
+        pool.release(b);
+        assertEquals(1, pool.idleCount());
+        ByteBuffer c = pool.acquire();
+        assertSame(a, c);
+        assertEquals(0, c.position());
+        assertEquals(16, c.limit());
+    }
+
+    @Test
+    void testProtocol() throws Exception {
+        SessionManager sessions = new SessionManager();
+        try (NioGameServer server = new NioGameServer(sessions, GameServer.loopback(0));
+             Socket socket = new Socket(GameServer.loopback(0).getAddress(), server.getPort())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+            assertEquals(GameServer.WELCOME, in.readLine());
+            //pipelined lines, a CRLF line and a line split across writes
+            out.write("hello\n4,12\r\n12,".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            Thread.sleep(20);
+            out.write("0\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            assertEquals(GameSession.INVALID, in.readLine());
+            assertEquals(GameSession.COLUMN_OUT_OF_BOUND, in.readLine());
+            assertEquals(GameSession.ROW_OUT_OF_BOUND, in.readLine());
+            //a line longer than the input buffer gets one reply
+            out.write(("1" + " ".repeat(3 * NioGameServer.BUFFER_SIZE) + ",1\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(" 4 , 5 \n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            assertEquals(GameSession.INVALID, in.readLine());
+            String reply = in.readLine();
+            assertTrue(reply.equals(GameSession.HIT) || reply.equals(GameSession.MISS)
+                    || reply.startsWith(GameSession.HIT + " You just sank"), reply);
+            assertEquals(1, server.getConnectionCount());
+            assertEquals(1, sessions.size());
+        }
+    }
+
+    @Test
+    void testRepliesMatchSession() throws Exception {
+        SessionManager sessions = new SessionManager();
+        try (NioGameServer server = new NioGameServer(sessions, GameServer.loopback(0));
+             Socket socket = new Socket(GameServer.loopback(0).getAddress(), server.getPort())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertEquals(GameServer.WELCOME, in.readLine());
+            //the session is open once the welcome line is sent
+            GameSession session = sessions.get(0);
+            //send the whole board at once, more than the output buffer holds
+            StringBuilder shots = new StringBuilder();
+            for (int r = 0; r < 10; r++) {
+                for (int c = 0; c < 10; c++) shots.append(r).append(',').append(c).append('\n');
+            }
+            socket.getOutputStream().write(shots.toString().getBytes(StandardCharsets.US_ASCII));
+            Ocean ocean = session.getOcean();
+            int sinks = 0;
+            for (int r = 0; r < 10; r++) {
+                for (int c = 0; c < 10 && sinks < 10; c++) {
+                    String reply = in.readLine();
+                    if (!ocean.isOccupied(r, c)) {
+                        assertEquals(GameSession.MISS, reply);
+                    } else if (ocean.getShipArray()[r][c].isSunk() && !reply.equals(GameSession.HIT)) {
+                        assertEquals(GameSession.HIT + " You just sank a ship - "
+                                + ocean.getShipArray()[r][c].getShipType() + ".", reply);
+                        sinks++;
+                    } else {
+                        assertEquals(GameSession.HIT, reply);
+                    }
+                }
+            }
+            assertEquals(10, sinks);
+            assertEquals(session.getResults(), in.readLine());
+            //the server closes the connection after the results
+            assertNull(in.readLine());
+            for (int i = 0; i < 100 && server.getConnectionCount() > 0; i++) Thread.sleep(10);
+            assertEquals(0, server.getConnectionCount());
+            assertEquals(1, sessions.getGamesFinished());
+        }
+    }
+
+    @Test
+    void testLoadTest() throws Exception {
+        SessionManager sessions = new SessionManager();
+        try (NioGameServer server = new NioGameServer(sessions, GameServer.loopback(0))) {
+            LoadTestClient client = new LoadTestClient(GameServer.loopback(server.getPort()));
+            client.run(200, 2);
+            assertEquals(200, client.getGames());
+            assertEquals(0, client.getFailures());
+            assertTrue(client.getShots() >= 200 * 20 && client.getShots() <= 200 * 100);
+            for (int i = 0; i < 100 && sessions.getGamesFinished() < 200; i++) Thread.sleep(10);
+            assertEquals(200, sessions.getGamesFinished());
+            assertEquals(0, sessions.size());
+        }
+    }
+}
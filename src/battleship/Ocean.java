@@ -5,30 +5,75 @@
 
 package battleship;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * This contains a 10x10 array of Ships, representing an “ocean”, and some methods to manipulate it
+ * The board size and the fleet can be changed with a GameConfig.
  */
 public class Ocean {
 
+    //Lengths of the ships of the standard fleet of GameConfig.standard(), in placement order
+    static final int[] FLEET_LENGTHS = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+    //Largest number of locations for which Ocean.create() uses a ships array
+    static final int DENSE_LIMIT = 10_000;
+    //Outcome written by shootAll() for a shot that finds nothing (or a ship already sunk)
+    static final int SHOT_MISS = 0;
+    //Outcome written by shootAll() for a shot that hits a ship without sinking it
+    static final int SHOT_HIT = -1;
+    //Outcome written by shootAll() for a location off the board, not counted as a shot
+    static final int SHOT_OFF_BOARD = -2;
+    //Random positions tried for one ship before placeAllShipsRandomly() gives up
+    static final int MAX_PLACEMENT_ATTEMPTS = 1 << 20;
+
+    //Board size and fleet of this game
+    protected final GameConfig config;
     //Array used to quickly determine which ship is in any given location
-    private Ship[][] ships = new Ship[10][10];
+    private Ship[][] ships;
+    //Bitmap of the locations fired upon (bit row * columns + column), only with a ships array
+    private long[] fired;
     //The total number of shots fired by the user
-    private int shotsFired;
+    protected int shotsFired;
     //The number of times a shot hit a ship.
-    private int hitCount;
-    //The number of ships sunk (10 ships in all)
-    private int shipsSunk;
-    //A helper variable to store sunk message
-    private String sunkMessage;
+    protected int hitCount;
+    //The number of ships sunk (10 ships in all in the standard game)
+    protected int shipsSunk;
+    //The ship sunk most recently, null if no ship has been sunk yet
+    protected Ship lastSunk;
+    //Ships placed in this ocean, in order of placement; the id of a ship is its index here
+    protected Ship[] fleet = new Ship[10];
+    //The number of ships placed in this ocean
+    protected int fleetSize;
+    //Receives an event for every ship sunk, may be null
+    protected SinkListener sinkListener;
+    //Receives an event for every shot fired, may be null
+    protected ShotListener shotListener;
+    //Fleet of the last random placement, taken from FleetPool and given back by reset()
+    private Ship[] pooledFleet;
 
     /**
-     * Constructor creates an ”empty” ocean (and fills the ships array with EmptySea objects)
+     * Constructor creates an ”empty” ocean (and fills the ships array with the shared EmptySea)
      * Also initializes any game variables, such as how many shots have been fired.
      */
     public Ocean() {
+        this(GameConfig.standard());
+    }
+
+    /**
+     * Constructor creates an ”empty” ocean of the size given by the configuration. The ships
+     * array takes one reference per location, so for large boards use Ocean.create(), which
+     * picks a sparse representation.
+     *
+     * @param config board size and fleet
+     */
+    public Ocean(GameConfig config) {
+        this.config = config;
         // call create sea
+        this.ships = new Ship[config.getRows()][config.getColumns()];
+        this.fired = new long[(config.getRows() * config.getColumns() + 63) >>> 6];
         createEmptySea();
 
         // initializes any game variables
@@ -38,28 +83,95 @@ public class Ocean {
     }
 
     /**
-     * A private helper method to fill this ocean with EmptySea Objects for initialization.
+     * Constructor for alternative backends (such as BitboardOcean) that keep their own
+     * representation of the board, so no ships array is filled here.
+     *
+     * @param config board size and fleet
+     * @param ships  the array returned by getShipArray(), may be null if it is overridden
      */
-    private void createEmptySea() {
-        //Ship[][] emptySea = new Ship[10][10];
+    Ocean(GameConfig config, Ship[][] ships) {
+        this.config = config;
+        this.ships = ships;
+    }
 
+    /**
+     * Creates an empty ocean for the given configuration, choosing the representation by size:
+     * a BitboardOcean for 10x10 boards, an Ocean for other boards up to DENSE_LIMIT locations,
+     * and a SparseOcean, which only stores ship parts and shots, for larger boards.
+     *
+     * @param config board size and fleet
+     * @return an empty ocean
+     */
+    public static Ocean create(GameConfig config) {
+        if (config.isStandardSize()) return new BitboardOcean(config);
+        if ((long) config.getRows() * config.getColumns() <= DENSE_LIMIT) return new Ocean(config);
+        return new SparseOcean(config);
+    }
+
+    /**
+     * A private helper method to fill this ocean with the shared EmptySea for initialization.
+     */
+    private void createEmptySea() {
         //iterate over the rows
-        for (int i = 0; i < 10; i++) {
-            //iterate over the columns in each row
-            for (int j = 0; j < 10; j++) {
-                //fills the ships array with EmptySea objects
-                Ship ship = new EmptySea();
-                ship.placeShipAt(i, j, true, this); // this means create a new class ocean
-            }
+        for (Ship[] row : this.ships) {
+            Arrays.fill(row, EmptySea.SEA);
         }
     }
 
+    /**
+     * Returns the bit of the given location in the fired bitmap.
+     *
+     * @param row
+     * @param column
+     * @return row * columns + column
+     */
+    private int cell(int row, int column) {
+        return row * this.getColumns() + column;
+    }
+
+    /**
+     * Returns the board size and fleet of this ocean
+     *
+     * @return the game configuration
+     */
+    GameConfig getConfig() {
+        return this.config;
+    }
+
+    /**
+     * Returns the number of rows of the board
+     *
+     * @return number of rows
+     */
+    int getRows() {
+        return this.config.getRows();
+    }
+
+    /**
+     * Returns the number of columns of the board
+     *
+     * @return number of columns
+     */
+    int getColumns() {
+        return this.config.getColumns();
+    }
+
     /**
      * Place all ten ships randomly on the (initially empty) ocean. Place larger ships before
      * smaller ones, or you may end up with no legal place to put a large ship.
      */
     void placeAllShipsRandomly() {
-        Random rd = new Random();
+        placeAllShipsRandomly(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Place all ten ships randomly on the (initially empty) ocean, drawing positions from the
+     * given random number generator. The same generator state always gives the same board.
+     *
+     * @param rd random number generator, for example a SplittableRandom owned by the caller
+     * @throws IllegalStateException if a ship finds no legal position in MAX_PLACEMENT_ATTEMPTS tries
+     */
+    void placeAllShipsRandomly(RandomGenerator rd) {
 
         // row position and column position
         int rowShip;
@@ -68,26 +180,20 @@ public class Ocean {
         // boolean for whether horizontal
         boolean horizontal;
 
-        // create ships
-        Ship[] computerShip = new Ship[10];
-        computerShip[0] = new Battleship();
-        computerShip[1] = new Cruiser();
-        computerShip[2] = new Cruiser();
-        computerShip[3] = new Destroyer();
-        computerShip[4] = new Destroyer();
-        computerShip[5] = new Destroyer();
-        computerShip[6] = new Submarine();
-        computerShip[7] = new Submarine();
-        computerShip[8] = new Submarine();
-        computerShip[9] = new Submarine();
+        // take ships from the pool of this thread
+        Ship[] computerShip = this.acquireFleet();
 
         // for every ship of computerShip
         for (Ship s : computerShip) {
+            int attempts = 0;
             do {
-                //generate random number from 0 to 9
-                rowShip = rd.nextInt(10);
-                //generate random number from 0 to 9
-                columnShip = rd.nextInt(10);
+                if (attempts++ == MAX_PLACEMENT_ATTEMPTS) {
+                    throw new IllegalStateException("No legal placement for a ship of length " + s.getLength());
+                }
+                //generate random number from 0 to rows - 1
+                rowShip = rd.nextInt(this.getRows());
+                //generate random number from 0 to columns - 1
+                columnShip = rd.nextInt(this.getColumns());
                 //generate random number from 0 to 1
                 horizontal = rd.nextBoolean();
             } while (!s.okToPlaceShipAt(rowShip, columnShip, horizontal, this));
@@ -96,6 +202,167 @@ public class Ocean {
         }
     }
 
+    /**
+     * Place all ten ships randomly on the (initially empty) ocean without a rejection loop.
+     * Each ship is placed at a position drawn directly from the placements that are still legal,
+     * and if a later ship has nowhere to go, the previous ship is moved to another position.
+     * The amount of work is bounded, unlike placeAllShipsRandomly().
+     */
+    void placeAllShipsWithBacktracking() {
+        placeAllShipsWithBacktracking(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Place all ten ships on the (initially empty) ocean like placeAllShipsWithBacktracking(),
+     * drawing positions from the given random number generator. The same generator state always
+     * gives the same board. The placement masks only exist for 10x10 boards, so other board
+     * sizes fall back to placeAllShipsRandomly(rd); on large boards that are mostly empty sea,
+     * rejections are rare anyway.
+     *
+     * @param rd random number generator, for example a SplittableRandom owned by the caller
+     */
+    void placeAllShipsWithBacktracking(RandomGenerator rd) {
+        if (!this.config.isStandardSize()) {
+            placeAllShipsRandomly(rd);
+            return;
+        }
+        // choose all positions first with the sampler of this thread, then place the ships
+        FleetSampler sampler = FleetPool.sampler(this.config);
+        int[] placements = sampler.getPlacements();
+        if (!sampler.sample(rd, placements, 0)) {
+            throw new IllegalStateException("No legal placement for the fleet");
+        }
+        placeFleet(placements, 0);
+    }
+
+    /**
+     * Places the ships of the fleet at the given placements (see PlacementIndex), one placement
+     * id per ship starting at offset. Only for 10x10 boards.
+     *
+     * @param placements placement ids
+     * @param offset     index of the placement of the first ship
+     */
+    void placeFleet(int[] placements, int offset) {
+        Ship[] computerShip = this.acquireFleet();
+        for (int i = 0; i < computerShip.length; i++) {
+            int p = placements[offset + i];
+            computerShip[i].placeShipAt(PlacementIndex.row(p), PlacementIndex.column(p),
+                    PlacementIndex.isHorizontal(p), this);
+        }
+    }
+
+    /**
+     * Place all ten ships on the (initially empty) ocean from a 64-bit seed. The board only
+     * depends on the seed, so a game can be replayed by storing the seed instead of the board.
+     *
+     * @param seed seed of the SplittableRandom used for placement
+     */
+    void placeAllShipsFromSeed(long seed) {
+        placeAllShipsWithBacktracking(new SplittableRandom(seed));
+    }
+
+    /**
+     * Takes a fleet for a placement from the pool of the calling thread. reset() gives it back.
+     *
+     * @return ships to place
+     */
+    private Ship[] acquireFleet() {
+        Ship[] fleet = FleetPool.acquire(this.config);
+        //a fleet placed earlier without a reset stays with its ships in this ocean
+        this.pooledFleet = fleet;
+        return fleet;
+    }
+
+    /**
+     * Makes this ocean empty again, as if it had just been created, so that a new game can be
+     * played on it without allocating a new board. The ships of the last random placement go
+     * back to the fleet pool of the calling thread, to be placed again by the next game, so
+     * references to them (such as getLastSunk()) must not be used after a reset. Listeners stay
+     * set.
+     */
+    void reset() {
+        if (this.pooledFleet != null) {
+            FleetPool.release(this.pooledFleet);
+            this.pooledFleet = null;
+        }
+        Arrays.fill(this.fleet, 0, this.fleetSize, null);
+        this.fleetSize = 0;
+        this.shotsFired = 0;
+        this.hitCount = 0;
+        this.shipsSunk = 0;
+        this.lastSunk = null;
+        clearBoard();
+    }
+
+    /**
+     * Removes every ship and shot from the representation of the board. Called by reset();
+     * overridden by the backends that keep their own representation.
+     */
+    void clearBoard() {
+        createEmptySea();
+        Arrays.fill(this.fired, 0);
+    }
+
+    /**
+     * Adds a ship to the fleet of this ocean and gives it the next ship id.
+     *
+     * @param ship ship being placed in this ocean
+     * @return the id of the ship
+     */
+    protected int registerShip(Ship ship) {
+        //grow the fleet array if needed
+        if (this.fleetSize == this.fleet.length) {
+            this.fleet = Arrays.copyOf(this.fleet, this.fleetSize * 2);
+        }
+        int id = this.fleetSize++;
+        this.fleet[id] = ship;
+        ship.setShipId(id);
+        return id;
+    }
+
+    /**
+     * Returns the number of ships placed in this ocean
+     *
+     * @return number of ships
+     */
+    int getFleetSize() {
+        return this.fleetSize;
+    }
+
+    /**
+     * Returns the ship with the given id, ids being given in order of placement
+     *
+     * @param id id of the ship, from 0 to getFleetSize() - 1
+     * @return the ship
+     */
+    Ship getShip(int id) {
+        return this.fleet[id];
+    }
+
+    /**
+     * Puts a reference to the given ship in every location it covers. The ship's bow row,
+     * bow column and orientation must already be set. Called by Ship.placeShipAt().
+     *
+     * @param ship ship to record in this ocean
+     */
+    void putShip(Ship ship) {
+        registerShip(ship);
+        int row = ship.getBowRow();
+        int column = ship.getBowColumn();
+        //for each part of the ship, set ships[row][col] to this ship
+        if (ship.isHorizontal()) {
+            //if ship is put horizontally
+            for (int i = 0; i < ship.getLength(); i++) {
+                this.ships[row][column - i] = ship;
+            }
+        } else {
+            //if ship is put vertically
+            for (int i = 0; i < ship.getLength(); i++) {
+                this.ships[row - i][column] = ship;
+            }
+        }
+    }
+
     /**
      * Returns true if the given location contains a ship, false if it does not
      *
@@ -107,6 +374,19 @@ public class Ocean {
         return (this.ships[row][column].getShipType() != "empty");
     }
 
+    /**
+     * Empties the given location: it holds the shared EmptySea and has not been fired upon.
+     * Whatever ship covered it no longer does, but keeps its place in the fleet.
+     *
+     * @param row
+     * @param column
+     */
+    void clearLocation(int row, int column) {
+        int cell = cell(row, column);
+        this.ships[row][column] = EmptySea.SEA;
+        this.fired[cell >>> 6] &= ~(1L << cell);
+    }
+
     /**
      * Returns true if the given location contains a ”real” ship, still afloat, (not an EmptySea),
      * false if it does not. In addition, this method updates the number of shots that have been
@@ -118,12 +398,14 @@ public class Ocean {
      */
     boolean shootAt(int row, int column) {
         // if inputs are invalid, return false, and do not count in shotsFired
-        if (row < 0 || column < 0 || row > 9 || column > 9) {
+        if (row < 0 || column < 0 || row >= this.getRows() || column >= this.getColumns()) {
             return false;
         }
 
         // shotsFired increments
         this.shotsFired++;
+        int cell = cell(row, column);
+        this.fired[cell >>> 6] |= 1L << cell;
 
         Ship ship = this.ships[row][column];
         //if shot succeeds, meaning it's not empty and the ship was not sunk before this shot
@@ -133,20 +415,170 @@ public class Ocean {
             //if ship sinks after this shot, shipsSunk increments
             if (ship.isSunk()) {
                 this.shipsSunk++;
-                //update sunk message
-                sunkMessage = "You just sank a ship - " + ship.getShipType() + ".";
+                //remember the ship for the sunk message and report the sink
+                this.lastSunk = ship;
+                if (this.sinkListener != null) this.sinkListener.shipSunk(ship.getShipId(), ship);
+            }
+            if (this.shotListener != null) {
+                this.shotListener.shotFired(row, column, ship.isSunk() ? ship.getLength() : SHOT_HIT);
             }
             return true;
         }
         // if no ship at given location, or ship at this position is already sunk
+        if (this.shotListener != null) this.shotListener.shotFired(row, column, SHOT_MISS);
         return false;
     }
 
+    /**
+     * Fires a batch of shots, in order, with the same effect as calling shootAt() for each of
+     * them. The outcome of shot i is written to outcomes[i]: SHOT_MISS, SHOT_HIT, SHOT_OFF_BOARD,
+     * or the length of the ship it sank (always positive).
+     *
+     * @param rows     rows of the shots
+     * @param columns  columns of the shots, as many as rows
+     * @param outcomes array receiving one outcome per shot, at least as long as rows
+     * @return the number of shots that hit a ship
+     */
+    int shootAll(int[] rows, int[] columns, int[] outcomes) {
+        if (columns.length != rows.length) {
+            throw new IllegalArgumentException("Got " + rows.length + " rows and " + columns.length + " columns");
+        }
+        int hits = 0;
+        for (int i = 0; i < rows.length; i++) {
+            outcomes[i] = shootOne(rows[i], columns[i]);
+            if (outcomes[i] != SHOT_MISS && outcomes[i] != SHOT_OFF_BOARD) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * Fires a batch of shots given as packed locations, row * getColumns() + column, like
+     * shootAll(int[], int[], int[]). A location below 0 or past the last location is off the
+     * board.
+     *
+     * @param locations packed locations of the shots
+     * @param offset    index in locations of the first shot, and in outcomes of its outcome
+     * @param count     number of shots
+     * @param outcomes  array receiving one outcome per shot
+     * @return the number of shots that hit a ship
+     */
+    int shootAll(int[] locations, int offset, int count, int[] outcomes) {
+        int columns = this.getColumns();
+        long cells = (long) this.getRows() * columns;
+        int hits = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int location = locations[i];
+            outcomes[i] = location < 0 || location >= cells ? SHOT_OFF_BOARD
+                    : shootOne(location / columns, location % columns);
+            if (outcomes[i] != SHOT_MISS && outcomes[i] != SHOT_OFF_BOARD) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * Fires a salvo, the shots of one turn in the Salvo rules, at the locations set in a 10x10
+     * bitboard (bit row * 10 + column, bits 0-63 in lo and 64-99 in hi). Every location is shot
+     * once; the counters and sinks are the same as for shootAt() at each location in increasing
+     * order. Bits past location 99 are ignored.
+     *
+     * @param lo      locations 0 to 63 of the salvo
+     * @param hi      locations 64 to 99 of the salvo
+     * @param sunkIds array receiving the ids of the ships sunk by the salvo, in order of location;
+     *                getShipsAfloat() entries are always enough
+     * @return the number of ships sunk by the salvo
+     */
+    int shootSalvo(long lo, long hi, int[] sunkIds) {
+        return shootSalvo(lo, hi, sunkIds, null);
+    }
+
+    /**
+     * Fires a salvo like shootSalvo(lo, hi, sunkIds), and also reports the outcome of each shot
+     * as resolved by the salvo: Ocean.SHOT_MISS, Ocean.SHOT_HIT or the length of the ship sunk.
+     *
+     * @param lo       locations 0 to 63 of the salvo
+     * @param hi       locations 64 to 99 of the salvo
+     * @param sunkIds  array receiving the ids of the ships sunk by the salvo, in order of location
+     * @param outcomes array of 100 receiving the outcome of each shot at the index of its location,
+     *                 other entries are left alone; or null
+     * @return the number of ships sunk by the salvo
+     */
+    int shootSalvo(long lo, long hi, int[] sunkIds, int[] outcomes) {
+        if (!this.config.isStandardSize()) {
+            throw new IllegalArgumentException("Salvos are only supported on 10x10 boards");
+        }
+        int sunk = 0;
+        for (int word = 0; word < 2; word++) {
+            long bits = word == 0 ? lo : hi & BitboardOcean.HIGH_WORD;
+            while (bits != 0) {
+                int idx = word * 64 + Long.numberOfTrailingZeros(bits);
+                int outcome = shootOne(idx / 10, idx % 10);
+                if (outcome > 0) sunkIds[sunk++] = this.lastSunk.getShipId();
+                if (outcomes != null) outcomes[idx] = outcome;
+                bits &= bits - 1;
+            }
+        }
+        return sunk;
+    }
+
+    /**
+     * Returns the number of ships placed in this ocean and not sunk yet. In the Salvo rules, this
+     * is the number of shots in a salvo of the player owning the ocean.
+     *
+     * @return ships afloat
+     */
+    int getShipsAfloat() {
+        return this.fleetSize - this.shipsSunk;
+    }
+
+    /**
+     * Fires one shot of a batch through shootAt() and returns its outcome.
+     */
+    private int shootOne(int row, int column) {
+        if (row < 0 || column < 0 || row >= this.getRows() || column >= this.getColumns()) {
+            return SHOT_OFF_BOARD;
+        }
+        int originalSunk = this.shipsSunk;
+        if (!this.shootAt(row, column)) return SHOT_MISS;
+        return this.shipsSunk == originalSunk ? SHOT_HIT : this.lastSunk.getLength();
+    }
+
     /**
      * A helper method to print message when sinking a ship.
      */
     void printSunkMessage() {
-        System.out.println(this.sunkMessage);
+        if (this.lastSunk != null) {
+            System.out.println("You just sank a ship - " + this.lastSunk.getShipType() + ".");
+        }
+    }
+
+    /**
+     * Sets the listener that receives an event for every ship sunk from now on.
+     *
+     * @param sinkListener listener, or null to stop reporting sinks
+     */
+    void setSinkListener(SinkListener sinkListener) {
+        this.sinkListener = sinkListener;
+    }
+
+    /**
+     * Sets the listener that receives an event for every shot fired from now on.
+     *
+     * @param shotListener listener, or null to stop reporting shots
+     */
+    void setShotListener(ShotListener shotListener) {
+        this.shotListener = shotListener;
+    }
+
+    /**
+     * Sets the shots fired and hit counters of a restored game, whose shots were replayed once
+     * per location.
+     *
+     * @param shotsFired number of shots fired in the game
+     * @param hitCount   number of hits in the game
+     */
+    void restoreCounters(int shotsFired, int hitCount) {
+        this.shotsFired = shotsFired;
+        this.hitCount = hitCount;
     }
 
     /**
@@ -177,17 +609,26 @@ public class Ocean {
         return this.shipsSunk;
     }
 
+    /**
+     * Returns the ship sunk most recently (in the game)
+     *
+     * @return the last ship sunk, or null if no ship has been sunk yet
+     */
+    Ship getLastSunk() {
+        return this.lastSunk;
+    }
+
     /**
      * Returns true if all ships have been sunk, otherwise false
      *
      * @return if all ships have been sunk
      */
     boolean isGameOver() {
-        return this.shipsSunk == 10;
+        return this.shipsSunk == this.config.getFleetSize();
     }
 
     /**
-     * Returns the 10x10 array of Ships. The methods in the Ship class that take an
+     * Returns the 10x10 array of Ships (rows x columns for other board sizes). The methods in the Ship class that take an
      * Ocean parameter need to be able to look at the contents of this array;
      * the placeShipAt() method even needs to modify it. While it is undesirable to
      * allow methods in one class to directly access instance variables in another class,
@@ -199,10 +640,24 @@ public class Ocean {
         return this.ships;
     }
 
+    /**
+     * Returns true if the given location has been fired upon since it was last emptied. Every
+     * empty location holds the same EmptySea, so this is where the misses printed by print()
+     * are kept. Only for the ships array representation.
+     *
+     * @param row
+     * @param column
+     * @return whether the location was fired upon
+     */
+    boolean isFired(int row, int column) {
+        int cell = cell(row, column);
+        return (this.fired[cell >>> 6] & (1L << cell)) != 0;
+    }
+
     /**
      * Prints the Ocean. To aid the user, row numbers should be displayed along the left edge
      * of the array, and column numbers should be displayed along the top.
-     * Numbers' range: 0 to 9.
+     * Numbers' range: 0 to 9 (on the standard board).
      * Use ‘x’ to indicate a location that you have fired upon and hit a (real) ship.
      * Use ‘-’ to indicate a location that you have fired upon and found nothing there.
      * Use ‘s’ to indicate a location containing a sunken ship.
@@ -211,16 +666,16 @@ public class Ocean {
     void print() {
         //TODO
         //print column numbers on the top
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < this.getColumns(); i++) {
             System.out.print("\t" + i);
         }
         System.out.println();
         //print each line
-        for (int r = 0; r < 10; r++) {
+        for (int r = 0; r < this.getRows(); r++) {
             //print row column on the right
             System.out.print(r);
             //print element on each column
-            for (int c = 0; c < 10; c++) {
+            for (int c = 0; c < this.getColumns(); c++) {
                 //offset
                 System.out.print("\t");
                 //get the ship at the current location
@@ -229,7 +684,8 @@ public class Ocean {
                 int pos = cur.relativePos(r, c);
                 //if this location has been hit, print it;
                 // otherwise print "." to represent an unknown field
-                if (cur.getHit()[pos]) System.out.print(cur);
+                boolean hit = cur instanceof EmptySea ? isFired(r, c) : cur.getHit()[pos];
+                if (hit) System.out.print(cur);
                 else System.out.print(".");
             }
             System.out.println();
@@ -272,6 +728,9 @@ public class Ocean {
                 } else if (shipType[r][c] instanceof Submarine) {
                     // if it is a submarine, return b
                     System.out.print("s ");
+                } else if (shipType[r][c] instanceof Carrier) {
+                    // if it is a carrier, return a
+                    System.out.print("a ");
                 } else {
                     System.out.print("  ");
                 }
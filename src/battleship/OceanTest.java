@@ -8,7 +8,11 @@ package battleship;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,7 +27,14 @@ class OceanTest {
 
     @BeforeEach
     void setUp() throws Exception {
-        ocean = new Ocean();
+        ocean = createOcean();
+    }
+
+    /**
+     * Creates the ocean under test. Overridden to run these tests against other backends.
+     */
+    Ocean createOcean() {
+        return new Ocean();
     }
 
     @Test
@@ -41,14 +52,11 @@ class OceanTest {
             }
         }
 
-        assertEquals(0, ships[0][0].getBowRow());
-        assertEquals(0, ships[0][0].getBowColumn());
-
-        assertEquals(5, ships[5][5].getBowRow());
-        assertEquals(5, ships[5][5].getBowColumn());
-
-        assertEquals(9, ships[9][0].getBowRow());
-        assertEquals(0, ships[9][0].getBowColumn());
+        //one shared EmptySea, and each location is its only part
+        assertSame(ships[0][0], ships[5][5]);
+        assertEquals(0, ships[0][0].relativePos(0, 0));
+        assertEquals(0, ships[5][5].relativePos(5, 5));
+        assertEquals(0, ships[9][0].relativePos(9, 0));
     }
 
     @Test
@@ -70,7 +78,11 @@ class OceanTest {
         for (int i = 0; i < ships.length; i++) {
             for (int j = 0; j < ships[i].length; j++) {
                 Ship ship = ships[i][j];
-                if (!shipsFound.contains(ship)) {
+                if ("empty".equals(ship.getShipType())) {
+                    //every empty location holds the same EmptySea
+                    assertSame(EmptySea.SEA, ship);
+                    numEmptySeas++;
+                } else if (!shipsFound.contains(ship)) {
                     shipsFound.add(ship);
                 }
             }
@@ -85,8 +97,6 @@ class OceanTest {
                 numDestroyers++;
             } else if ("submarine".equals(ship.getShipType())) {
                 numSubmarines++;
-            } else if ("empty".equals(ship.getShipType())) {
-                numEmptySeas++;
             }
         }
 
@@ -102,10 +112,73 @@ class OceanTest {
                 + (NUM_DESTROYERS * 2)
                 + (NUM_SUBMARINES * 1);
 
-        //test number of empty seas, each with length of 1
+        //test number of empty locations
         assertEquals(totalSpaces - occupiedSpaces, numEmptySeas);
     }
 
+    @Test
+    void testPlaceAllShipsWithBacktracking() {
+
+        //tests that the fleet is complete and no two ships are adjacent
+
+        ocean.placeAllShipsWithBacktracking();
+
+        Ship[][] ships = ocean.getShipArray();
+        ArrayList<Ship> shipsFound = new ArrayList<Ship>();
+        int occupiedSpaces = 0;
+
+        for (int i = 0; i < ships.length; i++) {
+            for (int j = 0; j < ships[i].length; j++) {
+                Ship ship = ships[i][j];
+                if ("empty".equals(ship.getShipType())) continue;
+                occupiedSpaces++;
+                if (!shipsFound.contains(ship)) {
+                    shipsFound.add(ship);
+                }
+                //neighbours are either empty or part of the same ship
+                for (int r = i - 1; r <= i + 1; r++) {
+                    for (int c = j - 1; c <= j + 1; c++) {
+                        if (r < 0 || c < 0 || r >= OCEAN_SIZE || c >= OCEAN_SIZE) continue;
+                        Ship other = ships[r][c];
+                        assertTrue(other == ship || "empty".equals(other.getShipType()));
+                    }
+                }
+            }
+        }
+
+        assertEquals(NUM_BATTLESHIPS + NUM_CRUISERS + NUM_DESTROYERS + NUM_SUBMARINES, shipsFound.size());
+        assertEquals((NUM_BATTLESHIPS * 4) + (NUM_CRUISERS * 3) + (NUM_DESTROYERS * 2) + NUM_SUBMARINES,
+                occupiedSpaces);
+    }
+
+    @Test
+    void testPlaceAllShipsFromSeed() {
+
+        //the same seed gives the same board, for both placement methods
+
+        Ocean other = createOcean();
+        ocean.placeAllShipsFromSeed(42);
+        other.placeAllShipsFromSeed(42);
+        assertSameBoard(ocean, other);
+
+        ocean = createOcean();
+        other = createOcean();
+        ocean.placeAllShipsRandomly(new SplittableRandom(7));
+        other.placeAllShipsRandomly(new SplittableRandom(7));
+        assertSameBoard(ocean, other);
+    }
+
+    /**
+     * Asserts that the same locations are occupied by ships of the same type in both oceans.
+     */
+    void assertSameBoard(Ocean expected, Ocean actual) {
+        for (int i = 0; i < OCEAN_SIZE; i++) {
+            for (int j = 0; j < OCEAN_SIZE; j++) {
+                assertEquals(expected.getShipArray()[i][j].getShipType(), actual.getShipArray()[i][j].getShipType());
+            }
+        }
+    }
+
     @Test
     void testIsOccupied() {
 
@@ -148,6 +221,23 @@ class OceanTest {
         assertFalse(ocean.isOccupied(2, 7));
     }
 
+    @Test
+    void testClearLocation() {
+        Destroyer destroyer = new Destroyer();
+        destroyer.placeShipAt(1, 5, false, ocean);
+        ocean.shootAt(3, 3);
+        //the stern of the destroyer becomes empty sea, the bow stays
+        ocean.clearLocation(0, 5);
+        assertFalse(ocean.isOccupied(0, 5));
+        assertSame(EmptySea.SEA, ocean.getShipArray()[0][5]);
+        assertTrue(ocean.isOccupied(1, 5));
+        //the miss is forgotten on the shared sea
+        ocean.clearLocation(3, 3);
+        assertFalse(ocean.isOccupied(3, 3));
+        assertFalse(ocean.shootAt(0, 5));
+        assertTrue(ocean.shootAt(1, 5));
+    }
+
     @Test
     void testShootAt() {
 
@@ -353,6 +443,286 @@ class OceanTest {
 
     }
 
+    @Test
+    void testSinkListener() {
+
+        //each sink is reported once, with the id given in order of placement
+
+        ArrayList<Ship> sunk = new ArrayList<Ship>();
+        ArrayList<Integer> ids = new ArrayList<Integer>();
+        ocean.setSinkListener((shipId, ship) -> {
+            ids.add(shipId);
+            sunk.add(ship);
+        });
+
+        Destroyer destroyer = new Destroyer();
+        destroyer.placeShipAt(1, 5, false, ocean);
+        Ship submarine = new Submarine();
+        submarine.placeShipAt(5, 0, true, ocean);
+
+        assertTrue(ocean.shootAt(5, 0));
+        assertTrue(ocean.shootAt(1, 5));
+        //hitting the same part again does not sink the destroyer
+        assertTrue(ocean.shootAt(1, 5));
+        assertEquals(1, sunk.size());
+        assertTrue(ocean.shootAt(0, 5));
+        assertFalse(ocean.shootAt(0, 5));
+
+        assertEquals(2, sunk.size());
+        assertSame(submarine, sunk.get(0));
+        assertEquals(1, ids.get(0));
+        assertSame(destroyer, sunk.get(1));
+        assertEquals(0, ids.get(1));
+        assertSame(destroyer, ocean.getLastSunk());
+        assertEquals(2, ocean.getShipsSunk());
+    }
+
+    @Test
+    void testShotListener() {
+
+        //every shot on the board is reported with its outcome, through shootAt() and the batches
+
+        ArrayList<int[]> shots = new ArrayList<int[]>();
+        ocean.setShotListener((row, column, outcome) -> shots.add(new int[]{row, column, outcome}));
+
+        Destroyer destroyer = new Destroyer();
+        destroyer.placeShipAt(1, 5, false, ocean);
+        Ship submarine = new Submarine();
+        submarine.placeShipAt(5, 0, true, ocean);
+
+        assertTrue(ocean.shootAt(1, 5));
+        assertFalse(ocean.shootAt(-1, 5));
+        int[] outcomes = new int[4];
+        ocean.shootAll(new int[]{0, 9, 10, 5}, new int[]{5, 9, 0, 0}, outcomes);
+        ocean.shootSalvo(1L << 15, 0, new int[2]);
+        assertEquals(5, shots.size());
+        assertArrayEquals(new int[]{1, 5, Ocean.SHOT_HIT}, shots.get(0));
+        assertArrayEquals(new int[]{0, 5, 2}, shots.get(1));
+        assertArrayEquals(new int[]{9, 9, Ocean.SHOT_MISS}, shots.get(2));
+        assertArrayEquals(new int[]{5, 0, 1}, shots.get(3));
+        //a sunk ship is a miss
+        assertArrayEquals(new int[]{1, 5, Ocean.SHOT_MISS}, shots.get(4));
+        assertEquals(ocean.getShotsFired(), shots.size());
+
+        ocean.setShotListener(null);
+        ocean.shootAt(3, 3);
+        assertEquals(5, shots.size());
+    }
+
+    @Test
+    void testReset() {
+
+        //a reset ocean plays a new game exactly like a new ocean, with the same ships
+
+        ocean.placeAllShipsFromSeed(3);
+        Ship first = ocean.getShip(0);
+        for (int i = 0; i < 100; i += 3) ocean.shootAt(i / 10, i % 10);
+        assertTrue(ocean.getShipsSunk() > 0);
+        ocean.getShipArray();
+        int pooled = FleetPool.size();
+        ocean.reset();
+        assertEquals(pooled + 1, FleetPool.size());
+        assertEquals(0, ocean.getShotsFired());
+        assertEquals(0, ocean.getHitCount());
+        assertEquals(0, ocean.getShipsSunk());
+        assertEquals(0, ocean.getFleetSize());
+        assertNull(ocean.getLastSunk());
+        assertFalse(first.isSunk());
+        Ocean fresh = createOcean();
+        assertEquals(printed(fresh), printed(ocean));
+        for (int r = 0; r < OCEAN_SIZE; r++) {
+            for (int c = 0; c < OCEAN_SIZE; c++) assertFalse(ocean.isOccupied(r, c));
+        }
+
+        ocean.placeAllShipsFromSeed(4);
+        fresh.placeAllShipsFromSeed(4);
+        assertEquals(pooled, FleetPool.size());
+        assertSame(first, ocean.getShip(0));
+        //both placements drew from the sampler of this thread
+        FleetSampler sampler = FleetPool.sampler(GameConfig.standard());
+        ocean.reset();
+        ocean.placeAllShipsFromSeed(4);
+        assertSame(sampler, FleetPool.sampler(GameConfig.standard()));
+        for (int i = 0; i < 100; i++) {
+            int location = (i * 37) % 100;
+            assertEquals(fresh.shootAt(location / 10, location % 10), ocean.shootAt(location / 10, location % 10));
+        }
+        assertTrue(ocean.isGameOver());
+        assertEquals(fresh.getHitCount(), ocean.getHitCount());
+        assertEquals(printed(fresh), printed(ocean));
+    }
+
+    @Test
+    void testPrint() {
+
+        //misses are printed from the locations fired upon, hits from the ships
+
+        ocean.placeAllShipsFromSeed(9);
+        boolean[][] fired = new boolean[OCEAN_SIZE][OCEAN_SIZE];
+        for (int i = 0; i < 100; i += 7) {
+            ocean.shootAt(i / 10, i % 10);
+            fired[i / 10][i % 10] = true;
+        }
+        StringBuilder expected = new StringBuilder();
+        for (int c = 0; c < OCEAN_SIZE; c++) expected.append("\t").append(c);
+        expected.append(System.lineSeparator());
+        for (int r = 0; r < OCEAN_SIZE; r++) {
+            expected.append(r);
+            for (int c = 0; c < OCEAN_SIZE; c++) {
+                Ship ship = ocean.getShipArray()[r][c];
+                expected.append("\t").append(!fired[r][c] ? "." : !ocean.isOccupied(r, c) ? "-" : ship.isSunk() ? "s" : "x");
+            }
+            expected.append(System.lineSeparator());
+        }
+        assertEquals(expected.toString(), printed(ocean));
+    }
+
+    /**
+     * Returns what print() writes for the given ocean.
+     */
+    static String printed(Ocean ocean) {
+        PrintStream out = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed));
+        try {
+            ocean.print();
+        } finally {
+            System.setOut(out);
+        }
+        return printed.toString();
+    }
+
+    @Test
+    void testShootAll() {
+
+        //a batch has the same effect as its shots one at a time
+
+        Destroyer destroyer = new Destroyer();
+        destroyer.placeShipAt(1, 5, false, ocean);
+        Ship submarine = new Submarine();
+        submarine.placeShipAt(5, 0, true, ocean);
+
+        int[] rows = {5, 1, 1, 0, 0, -1, 9, 10};
+        int[] columns = {0, 5, 5, 5, 5, 3, 9, 0};
+        int[] outcomes = new int[rows.length];
+        assertEquals(4, ocean.shootAll(rows, columns, outcomes));
+        assertArrayEquals(new int[]{1, Ocean.SHOT_HIT, Ocean.SHOT_HIT, 2, Ocean.SHOT_MISS,
+                Ocean.SHOT_OFF_BOARD, Ocean.SHOT_MISS, Ocean.SHOT_OFF_BOARD}, outcomes);
+        assertEquals(6, ocean.getShotsFired());
+        assertEquals(4, ocean.getHitCount());
+        assertEquals(2, ocean.getShipsSunk());
+        assertSame(destroyer, ocean.getLastSunk());
+        assertThrows(IllegalArgumentException.class, () -> ocean.shootAll(new int[2], new int[1], new int[2]));
+
+        //packed locations, replaying a whole game against a copy played one shot at a time
+        Ocean batch = createOcean();
+        Ocean single = createOcean();
+        batch.placeAllShipsFromSeed(7);
+        single.placeAllShipsFromSeed(7);
+        int[] locations = new int[OCEAN_SIZE * OCEAN_SIZE + 2];
+        for (int i = 0; i < OCEAN_SIZE * OCEAN_SIZE; i++) locations[i + 1] = (i * 37) % (OCEAN_SIZE * OCEAN_SIZE);
+        locations[0] = -1;
+        locations[locations.length - 1] = OCEAN_SIZE * OCEAN_SIZE;
+        int[] packedOutcomes = new int[locations.length];
+        assertEquals(20, batch.shootAll(locations, 1, locations.length - 1, packedOutcomes));
+        assertEquals(Ocean.SHOT_OFF_BOARD, packedOutcomes[locations.length - 1]);
+        for (int i = 1; i < locations.length - 1; i++) {
+            int row = locations[i] / OCEAN_SIZE;
+            int column = locations[i] % OCEAN_SIZE;
+            int sunk = single.getShipsSunk();
+            boolean hit = single.shootAt(row, column);
+            int expected = !hit ? Ocean.SHOT_MISS
+                    : single.getShipsSunk() == sunk ? Ocean.SHOT_HIT : single.getLastSunk().getLength();
+            assertEquals(expected, packedOutcomes[i]);
+        }
+        assertTrue(batch.isGameOver());
+        assertEquals(single.getShotsFired(), batch.getShotsFired());
+        assertEquals(single.getHitCount(), batch.getHitCount());
+    }
+
+    @Test
+    void testShootSalvo() {
+
+        //a salvo sinks a ship hit at every location, reports it once and skips sunk ships
+
+        Destroyer destroyer = new Destroyer();
+        destroyer.placeShipAt(1, 5, false, ocean);
+        Ship submarine = new Submarine();
+        submarine.placeShipAt(9, 9, true, ocean);
+        assertEquals(2, ocean.getShipsAfloat());
+        int[] sunkIds = new int[2];
+        assertTrue(ocean.shootAt(0, 5));
+        //bits 5, 15 and 99
+        assertEquals(2, ocean.shootSalvo(1L << 5 | 1L << 15, 1L << 35, sunkIds));
+        assertArrayEquals(new int[]{0, 1}, sunkIds);
+        assertSame(submarine, ocean.getLastSunk());
+        assertTrue(destroyer.isSunk());
+        assertEquals(0, ocean.getShipsAfloat());
+        assertEquals(4, ocean.getShotsFired());
+        assertEquals(4, ocean.getHitCount());
+        //a location past 99 is ignored, a sunk ship is a miss
+        int[] outcomes = new int[100];
+        Arrays.fill(outcomes, 7);
+        assertEquals(0, ocean.shootSalvo(1L << 15, 1L << 36 | 1L << 63, sunkIds, outcomes));
+        assertEquals(Ocean.SHOT_MISS, outcomes[15]);
+        //other locations are left alone
+        assertEquals(7, outcomes[14]);
+        assertEquals(5, ocean.getShotsFired());
+        assertEquals(4, ocean.getHitCount());
+        //the outcomes are resolved in order of location: the second hit on a ship sinks it
+        Destroyer other = new Destroyer();
+        other.placeShipAt(5, 5, true, ocean);
+        assertEquals(1, ocean.shootSalvo(1L << 54 | 1L << 55, 0, sunkIds, outcomes));
+        assertEquals(Ocean.SHOT_HIT, outcomes[54]);
+        assertEquals(2, outcomes[55]);
+
+        //whole games of random salvos against a copy played one shot at a time
+        SplittableRandom rd = new SplittableRandom(3);
+        for (int game = 0; game < 20; game++) {
+            Ocean salvo = createOcean();
+            Ocean single = createOcean();
+            salvo.placeAllShipsFromSeed(game);
+            single.placeAllShipsFromSeed(game);
+            ArrayList<Integer> listened = new ArrayList<Integer>();
+            salvo.setSinkListener((shipId, ship) -> {
+                assertTrue(ship.isSunk());
+                listened.add(shipId);
+            });
+            int[] ids = new int[10];
+            int[] salvoOutcomes = new int[100];
+            while (!salvo.isGameOver()) {
+                long lo = 0;
+                long hi = 0;
+                for (int i = 0; i < salvo.getShipsAfloat(); i++) {
+                    int idx = rd.nextInt(100);
+                    if (idx < 64) lo |= 1L << idx;
+                    else hi |= 1L << idx;
+                }
+                //every other salvo asks for the outcomes too
+                boolean withOutcomes = (salvo.getShotsFired() & 1) == 0;
+                int sunk = withOutcomes ? salvo.shootSalvo(lo, hi, ids, salvoOutcomes) : salvo.shootSalvo(lo, hi, ids);
+                int k = 0;
+                for (int idx = 0; idx < 100; idx++) {
+                    if (((idx < 64 ? lo : hi) & 1L << idx) == 0) continue;
+                    int before = single.getShipsSunk();
+                    boolean hit = single.shootAt(idx / 10, idx % 10);
+                    boolean sank = single.getShipsSunk() > before;
+                    if (sank) assertEquals(single.getLastSunk().getShipId(), ids[k++]);
+                    if (withOutcomes) {
+                        int expected = sank ? single.getLastSunk().getLength() : hit ? Ocean.SHOT_HIT : Ocean.SHOT_MISS;
+                        assertEquals(expected, salvoOutcomes[idx], "location " + idx);
+                    }
+                }
+                assertEquals(k, sunk);
+                assertEquals(single.getShotsFired(), salvo.getShotsFired());
+                assertEquals(single.getHitCount(), salvo.getHitCount());
+                assertEquals(single.getShipsSunk(), salvo.getShipsSunk());
+            }
+            assertTrue(single.isGameOver());
+            assertEquals(10, listened.size());
+        }
+    }
+
     @Test
     void testGetShipArray() {
 
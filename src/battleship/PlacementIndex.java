@@ -0,0 +1,350 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Precomputed bitboard masks for every placement of a ship on the 10x10 board, so that checking
+ * a placement is two AND operations against the occupancy bitboard of a BitboardOcean instead
+ * of a cell by cell walk.
+ * A placement is identified by an int id built from the ship length, the orientation and the bow
+ * location; use length(), isHorizontal(), row() and column() to decode it.
+ * As in Ship.placeShipAt(), horizontal ships extend from the bow towards column 0 and vertical
+ * ships extend from the bow towards row 0.
+ */
+public final class PlacementIndex {
+
+    //The longest ship that fits on the board
+    static final int MAX_LENGTH = 10;
+    //Number of placement ids: 2 orientations x 100 bow locations for every length
+    static final int SIZE = MAX_LENGTH * 2 * 100;
+
+    //Locations covered by the ship itself
+    private static final long[] BODY_LO = new long[SIZE];
+    private static final long[] BODY_HI = new long[SIZE];
+    //Locations covered by the ship and every location adjacent to it (including diagonals)
+    private static final long[] HALO_LO = new long[SIZE];
+    private static final long[] HALO_HI = new long[SIZE];
+    //Whether the ship fits on the board at this placement
+    private static final boolean[] IN_BOUNDS = new boolean[SIZE];
+    //Ids of the placements that fit on the board, for each length
+    private static final int[][] CANDIDATES = new int[MAX_LENGTH + 1][];
+    //For each location, the ids of the placements whose body covers it
+    private static final int[][] BODY_COVERING = new int[100][];
+    //For each location, the ids of the placements whose halo covers it
+    private static final int[][] HALO_COVERING = new int[100][];
+
+    static {
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            int[] candidates = new int[200];
+            int count = 0;
+            for (int o = 0; o < 2; o++) {
+                boolean horizontal = o == 0;
+                //a ship of length 1 covers the same location either way: only the horizontal id exists
+                if (length == 1 && !horizontal) continue;
+                for (int row = 0; row < 10; row++) {
+                    for (int column = 0; column < 10; column++) {
+                        int p = id(length, row, column, horizontal);
+                        //the stern is the part farthest from the bow
+                        int sternRow = horizontal ? row : row - length + 1;
+                        int sternColumn = horizontal ? column - length + 1 : column;
+                        if (sternRow < 0 || sternColumn < 0) continue;
+                        IN_BOUNDS[p] = true;
+                        candidates[count++] = p;
+                        //the rectangle from stern to bow, grown by one location on every side
+                        for (int r = sternRow - 1; r <= row + 1; r++) {
+                            if (r < 0 || r > 9) continue;
+                            for (int c = sternColumn - 1; c <= column + 1; c++) {
+                                if (c < 0 || c > 9) continue;
+                                int idx = BitboardOcean.index(r, c);
+                                boolean body = r >= sternRow && r <= row && c >= sternColumn && c <= column;
+                                if (idx < 64) {
+                                    HALO_LO[p] |= 1L << idx;
+                                    if (body) BODY_LO[p] |= 1L << idx;
+                                } else {
+                                    HALO_HI[p] |= 1L << idx;
+                                    if (body) BODY_HI[p] |= 1L << idx;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            CANDIDATES[length] = Arrays.copyOf(candidates, count);
+        }
+        //invert the masks: which placements cover each location
+        int[] bodyCount = new int[100];
+        int[] haloCount = new int[100];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int p = 0; p < SIZE; p++) {
+                if (!IN_BOUNDS[p]) continue;
+                for (int idx = 0; idx < 100; idx++) {
+                    if (covers(BODY_LO[p], BODY_HI[p], idx)) {
+                        if (pass == 0) bodyCount[idx]++;
+                        else BODY_COVERING[idx][--bodyCount[idx]] = p;
+                    }
+                    if (covers(HALO_LO[p], HALO_HI[p], idx)) {
+                        if (pass == 0) haloCount[idx]++;
+                        else HALO_COVERING[idx][--haloCount[idx]] = p;
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int idx = 0; idx < 100; idx++) {
+                    BODY_COVERING[idx] = new int[bodyCount[idx]];
+                    HALO_COVERING[idx] = new int[haloCount[idx]];
+                }
+            }
+        }
+    }
+
+    /**
+     * No instances, this class only holds the static tables.
+     */
+    private PlacementIndex() {
+    }
+
+    /**
+     * Returns whether the given location is set in a bitboard.
+     *
+     * @param lo  bitboard, low word
+     * @param hi  bitboard, high word
+     * @param idx location as row * 10 + column
+     * @return if the bit of the location is set
+     */
+    static boolean covers(long lo, long hi, int idx) {
+        return ((idx < 64 ? lo : hi) & (1L << idx)) != 0;
+    }
+
+    /**
+     * Returns the ids of all placements (of any length) whose body covers the given location.
+     * The array is shared and must not be modified.
+     *
+     * @param idx location as row * 10 + column
+     * @return placement ids
+     */
+    static int[] bodyCovering(int idx) {
+        return BODY_COVERING[idx];
+    }
+
+    /**
+     * Returns the ids of all placements (of any length) whose halo, which includes the body,
+     * covers the given location. The array is shared and must not be modified.
+     *
+     * @param idx location as row * 10 + column
+     * @return placement ids
+     */
+    static int[] haloCovering(int idx) {
+        return HALO_COVERING[idx];
+    }
+
+    /**
+     * Returns the id of the given placement.
+     *
+     * @param length     ship length, 1 to 10
+     * @param row        bow row
+     * @param column     bow column
+     * @param horizontal whether the ship is horizontal
+     * @return placement id
+     */
+    static int id(int length, int row, int column, boolean horizontal) {
+        //a ship of length 1 has a single placement per location, the horizontal one
+        if (length == 1) horizontal = true;
+        return ((length - 1) * 2 + (horizontal ? 0 : 1)) * 100 + row * 10 + column;
+    }
+
+    /**
+     * Returns the ship length of the given placement.
+     *
+     * @param placement placement id
+     * @return ship length
+     */
+    static int length(int placement) {
+        return placement / 200 + 1;
+    }
+
+    /**
+     * Returns whether the given placement is horizontal.
+     *
+     * @param placement placement id
+     * @return whether the ship is horizontal
+     */
+    static boolean isHorizontal(int placement) {
+        return (placement / 100) % 2 == 0;
+    }
+
+    /**
+     * Returns the bow row of the given placement.
+     *
+     * @param placement placement id
+     * @return bow row
+     */
+    static int row(int placement) {
+        return (placement % 100) / 10;
+    }
+
+    /**
+     * Returns the bow column of the given placement.
+     *
+     * @param placement placement id
+     * @return bow column
+     */
+    static int column(int placement) {
+        return placement % 10;
+    }
+
+    /**
+     * Returns the low word (locations 0 to 63) of the body mask of the given placement.
+     *
+     * @param placement placement id
+     * @return body mask, low word
+     */
+    static long bodyLo(int placement) {
+        return BODY_LO[placement];
+    }
+
+    /**
+     * Returns the high word (locations 64 to 99) of the body mask of the given placement.
+     *
+     * @param placement placement id
+     * @return body mask, high word
+     */
+    static long bodyHi(int placement) {
+        return BODY_HI[placement];
+    }
+
+    /**
+     * Returns the low word of the halo mask (body plus adjacent locations) of the given placement.
+     *
+     * @param placement placement id
+     * @return halo mask, low word
+     */
+    static long haloLo(int placement) {
+        return HALO_LO[placement];
+    }
+
+    /**
+     * Returns the high word of the halo mask (body plus adjacent locations) of the given placement.
+     *
+     * @param placement placement id
+     * @return halo mask, high word
+     */
+    static long haloHi(int placement) {
+        return HALO_HI[placement];
+    }
+
+    /**
+     * Returns true if the id is a placement that fits on the board.
+     *
+     * @param placement any int
+     * @return if it is the id of a placement on the board
+     */
+    static boolean inBounds(int placement) {
+        return placement >= 0 && placement < SIZE && IN_BOUNDS[placement];
+    }
+
+    /**
+     * Returns true if the placement fits on the board and neither the ship nor any location
+     * adjacent to it is occupied. Same rules as Ship.okToPlaceShipAt().
+     *
+     * @param placement  placement id
+     * @param occupiedLo occupancy bitboard, low word
+     * @param occupiedHi occupancy bitboard, high word
+     * @return if it is legal to place the ship here
+     */
+    static boolean isLegal(int placement, long occupiedLo, long occupiedHi) {
+        return IN_BOUNDS[placement]
+                && ((occupiedLo & HALO_LO[placement]) | (occupiedHi & HALO_HI[placement])) == 0;
+    }
+
+    /**
+     * Returns true if a ship of the given length can be placed with its bow at the given location.
+     * Same rules as Ship.okToPlaceShipAt(), including the checks for illegal inputs.
+     *
+     * @param length     ship length
+     * @param row        bow row
+     * @param column     bow column
+     * @param horizontal whether the ship is horizontal
+     * @param occupiedLo occupancy bitboard, low word
+     * @param occupiedHi occupancy bitboard, high word
+     * @return if it is legal to place the ship here
+     */
+    static boolean isLegal(int length, int row, int column, boolean horizontal, long occupiedLo, long occupiedHi) {
+        if (row < 0 || column < 0 || row > 9 || column > 9 || length < 1 || length > MAX_LENGTH) return false;
+        return isLegal(id(length, row, column, horizontal), occupiedLo, occupiedHi);
+    }
+
+    /**
+     * Writes the ids of all placements of a ship of the given length that are legal on the given
+     * occupancy bitboard into out, and returns how many there are. out needs room for at most
+     * 200 ids.
+     *
+     * @param length     ship length
+     * @param occupiedLo occupancy bitboard, low word
+     * @param occupiedHi occupancy bitboard, high word
+     * @param out        array receiving the placement ids
+     * @return number of legal placements
+     */
+    public static int legalPlacements(int length, long occupiedLo, long occupiedHi, int[] out) {
+        int count = 0;
+        for (int p : CANDIDATES[length]) {
+            if (((occupiedLo & HALO_LO[p]) | (occupiedHi & HALO_HI[p])) == 0) out[count++] = p;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the ids of all placements of a ship of the given length that are currently legal in
+     * the given ocean into out, and returns how many there are.
+     *
+     * @param length ship length
+     * @param ocean  ocean to place the ship in
+     * @param out    array receiving the placement ids
+     * @return number of legal placements
+     */
+    public static int legalPlacements(int length, BitboardOcean ocean, int[] out) {
+        return legalPlacements(length, ocean.getOccupiedLo(), ocean.getOccupiedHi(), out);
+    }
+
+    /**
+     * Chooses a random legal placement for every ship of the fleet on an empty board, in the
+     * order given, and writes the placement ids into placements. Each ship is drawn uniformly
+     * from the placements still legal after the ships before it; when a ship has no legal
+     * placement left, the search backtracks and tries another placement for the ship before it.
+     * Returns false only if the fleet cannot be placed at all.
+     *
+     * @param lengths    ship lengths, in placement order
+     * @param rd         random number generator
+     * @param placements array receiving one placement id per ship
+     * @return whether a placement was found
+     */
+    static boolean sampleFleet(int[] lengths, RandomGenerator rd, int[] placements) {
+        return FleetPool.sampler(lengths).sample(rd, placements, 0);
+    }
+
+    /**
+     * Returns the ids of the placements of a ship of the given length that fit on an empty board.
+     * The array is shared and must not be modified.
+     *
+     * @param length ship length
+     * @return placement ids
+     */
+    static int[] candidates(int length) {
+        return CANDIDATES[length];
+    }
+
+    /**
+     * Returns the number of placements of a ship of the given length that fit on an empty board.
+     *
+     * @param length ship length
+     * @return number of placements
+     */
+    static int candidateCount(int length) {
+        return CANDIDATES[length].length;
+    }
+}
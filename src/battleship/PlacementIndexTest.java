@@ -0,0 +1,126 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlacementIndexTest {
+
+    @Test
+    void testDecode() {
+        int p = PlacementIndex.id(3, 7, 2, false);
+        assertEquals(3, PlacementIndex.length(p));
+        assertEquals(7, PlacementIndex.row(p));
+        assertEquals(2, PlacementIndex.column(p));
+        assertFalse(PlacementIndex.isHorizontal(p));
+
+        p = PlacementIndex.id(1, 0, 9, true);
+        assertEquals(1, PlacementIndex.length(p));
+        assertEquals(0, PlacementIndex.row(p));
+        assertEquals(9, PlacementIndex.column(p));
+        assertTrue(PlacementIndex.isHorizontal(p));
+    }
+
+    @Test
+    void testMasks() {
+        //horizontal cruiser with bow at (9,9) covers (9,9), (9,8) and (9,7), all in the high word
+        int p = PlacementIndex.id(3, 9, 9, true);
+        assertEquals(0, PlacementIndex.bodyLo(p));
+        assertEquals(3, Long.bitCount(PlacementIndex.bodyHi(p)));
+        //halo is rows 8-9, columns 6-9
+        assertEquals(8, Long.bitCount(PlacementIndex.haloHi(p)));
+
+        //submarine in the middle: 3x3 halo
+        p = PlacementIndex.id(1, 4, 4, true);
+        assertEquals(1, Long.bitCount(PlacementIndex.bodyLo(p)));
+        assertEquals(9, Long.bitCount(PlacementIndex.haloLo(p)));
+    }
+
+    @Test
+    void testCandidateCount() {
+        //a ship of length n has 10 * (11 - n) placements in each orientation, length 1 only one per location
+        assertEquals(100, PlacementIndex.candidateCount(1));
+        assertEquals(PlacementIndex.id(1, 3, 4, true), PlacementIndex.id(1, 3, 4, false));
+        assertEquals(140, PlacementIndex.candidateCount(4));
+        assertEquals(20, PlacementIndex.candidateCount(10));
+    }
+
+    @Test
+    void testMatchesOkToPlaceShipAt() {
+        //the mask check must agree with the cell by cell check of Ship on the same boards
+        for (int game = 0; game < 20; game++) {
+            Ocean ocean = new Ocean();
+            BitboardOcean board = new BitboardOcean();
+            ocean.placeAllShipsRandomly();
+            Ship[][] ships = ocean.getShipArray();
+            //copy the fleet into the bitboard ocean
+            for (int r = 0; r < 10; r++) {
+                for (int c = 0; c < 10; c++) {
+                    Ship ship = ships[r][c];
+                    if (ship.getBowRow() == r && ship.getBowColumn() == c && !"empty".equals(ship.getShipType())) {
+                        board.putShip(ship);
+                    }
+                }
+            }
+            Ship[] probes = {new Battleship(), new Cruiser(), new Destroyer(), new Submarine()};
+            int[] legal = new int[200];
+            for (Ship probe : probes) {
+                int expected = 0;
+                for (int r = 0; r < 10; r++) {
+                    for (int c = 0; c < 10; c++) {
+                        for (int h = 0; h < 2; h++) {
+                            boolean ok = probe.okToPlaceShipAt(r, c, h == 0, ocean);
+                            assertEquals(ok, probe.okToPlaceShipAt(r, c, h == 0, board));
+                            //a submarine has one placement per location
+                            if (ok && (h == 0 || probe.getLength() > 1)) expected++;
+                        }
+                    }
+                }
+                assertEquals(expected, PlacementIndex.legalPlacements(probe.getLength(), board, legal));
+            }
+        }
+    }
+
+    @Test
+    void testLegalPlacementsEmptyBoard() {
+        int[] legal = new int[200];
+        BitboardOcean board = new BitboardOcean();
+        assertEquals(100, PlacementIndex.legalPlacements(1, board, legal));
+        assertEquals(120, PlacementIndex.legalPlacements(5, board, legal));
+        assertFalse(PlacementIndex.isLegal(4, 2, 2, true, 0, 0));
+        assertTrue(PlacementIndex.isLegal(4, 3, 3, true, 0, 0));
+    }
+
+    @Test
+    void testSampleFleet() {
+        int[] lengths = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+        int[] placements = new int[lengths.length];
+        assertTrue(PlacementIndex.sampleFleet(lengths, new SplittableRandom(1), placements));
+        //every ship is legal given the ships before it
+        long lo = 0;
+        long hi = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            assertEquals(lengths[i], PlacementIndex.length(placements[i]));
+            assertTrue(PlacementIndex.isLegal(placements[i], lo, hi));
+            lo |= PlacementIndex.bodyLo(placements[i]);
+            hi |= PlacementIndex.bodyHi(placements[i]);
+        }
+    }
+
+    @Test
+    void testSampleFleetBacktracks() {
+        //five ships of length 10 only fit on rows (or columns) 0, 2, 4, 6 and 8
+        int[] lengths = {10, 10, 10, 10, 10};
+        int[] placements = new int[lengths.length];
+        assertTrue(PlacementIndex.sampleFleet(lengths, new SplittableRandom(1), placements));
+        //a sixth one never fits
+        assertFalse(PlacementIndex.sampleFleet(new int[]{10, 10, 10, 10, 10, 10}, new SplittableRandom(1), new int[6]));
+    }
+}
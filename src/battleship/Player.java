@@ -0,0 +1,57 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+/**
+ * One side of a two-player Match. A player is asked for a shot when it is its turn, and is told
+ * the outcome of its own shots and of the shots fired at its fleet. Locations are given as
+ * row * 10 + column, as for ShotStrategy.
+ * A player that cannot answer at once (a human) returns WAITING from nextShot(); the match then
+ * waits until a shot is submitted with Match.submit(). All methods are called by the thread
+ * running the match.
+ */
+public interface Player {
+
+    //Returned by nextShot() when the player has not chosen a shot yet
+    int WAITING = -1;
+
+    /**
+     * Forgets everything about the previous match. Called before the first turn of every match.
+     */
+    void reset();
+
+    /**
+     * Returns the next location to fire at, or WAITING.
+     *
+     * @return location as row * 10 + column, or WAITING
+     */
+    int nextShot();
+
+    /**
+     * Reports the outcome of the shot this player just fired.
+     *
+     * @param location   location fired at, as row * 10 + column
+     * @param hit        whether the shot hit a ship still afloat
+     * @param sunkLength length of the ship sunk by this shot, 0 if no ship was sunk
+     */
+    void onResult(int location, boolean hit, int sunkLength);
+
+    /**
+     * Reports a shot of the opponent at this player's fleet.
+     *
+     * @param location   location fired at, as row * 10 + column
+     * @param hit        whether the shot hit a ship still afloat
+     * @param sunkLength length of the ship sunk by this shot, 0 if no ship was sunk
+     */
+    void onOpponentShot(int location, boolean hit, int sunkLength);
+
+    /**
+     * Reports the end of the match.
+     *
+     * @param won whether this player sank the whole fleet of the opponent first
+     */
+    void onGameOver(boolean won);
+}
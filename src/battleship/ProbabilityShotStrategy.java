@@ -0,0 +1,376 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A hunt and target player that fires at the location most likely to hold a ship.
+ * For every ship still afloat, the strategy counts the placements (see PlacementIndex) that
+ * agree with everything seen so far: a placement is ruled out when its body covers a miss, a
+ * sunk ship or the empty sea around a sunk ship, or when its halo but not its body covers a hit,
+ * since ships never touch. The density of a location is the number of placements covering it,
+ * weighted by the number of ships of that length still afloat.
+ * The densities are kept up to date incrementally: a shot only visits the placements that cover
+ * its location, so choosing a shot is a scan of 100 counters and never allocates.
+ * While some hits belong to ships not sunk yet, the strategy is in target mode and only counts
+ * the placements that go through those hits, preferring placements that go through several.
+ * Only 10x10 boards are supported.
+ */
+public class ProbabilityShotStrategy implements ShotStrategy {
+
+    //Ship lengths of the fleet
+    private final int[] fleetLengths;
+    //Random stream used to break ties between equally likely locations
+    private final RandomGenerator rd;
+
+    //Whether the fleet has ships of each length, only those lengths are counted
+    private final boolean[] inFleet = new boolean[PlacementIndex.MAX_LENGTH + 1];
+    //Number of ships of each length still afloat
+    private final int[] afloat = new int[PlacementIndex.MAX_LENGTH + 1];
+    //Whether each placement has been ruled out
+    private final boolean[] ruledOut = new boolean[PlacementIndex.SIZE];
+    //Number of placements still possible that cover each location, for each length
+    private final int[][] coverCount = new int[PlacementIndex.MAX_LENGTH + 1][100];
+    //Density of each location: coverCount weighted by the number of ships afloat
+    private final int[] density = new int[100];
+    //Target mode scores, rebuilt for every shot
+    private final int[] targetScore = new int[100];
+    //Locations whose content is known: fired at, or next to a sunk ship
+    private long knownLo;
+    private long knownHi;
+    //Hits on ships that are not sunk yet
+    private long openHitLo;
+    private long openHitHi;
+    //Locations of sunk ships
+    private long sunkLo;
+    private long sunkHi;
+
+    /**
+     * Creates a strategy for the standard fleet with its own random stream.
+     */
+    public ProbabilityShotStrategy() {
+        this(GameConfig.standard(), new SplittableRandom());
+    }
+
+    /**
+     * Creates a strategy for the given configuration, breaking ties with the given random stream.
+     *
+     * @param config board size and fleet, the board must be 10x10
+     * @param rd     random number generator
+     */
+    public ProbabilityShotStrategy(GameConfig config, RandomGenerator rd) {
+        if (!config.isStandardSize()) {
+            throw new IllegalArgumentException("ProbabilityShotStrategy only supports 10x10 boards");
+        }
+        this.fleetLengths = config.getFleetLengths();
+        this.rd = rd;
+        for (int length : this.fleetLengths) {
+            this.inFleet[length] = true;
+        }
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(this.afloat, 0);
+        Arrays.fill(this.ruledOut, false);
+        Arrays.fill(this.density, 0);
+        for (int length : this.fleetLengths) {
+            this.afloat[length]++;
+        }
+        for (int length = 1; length <= PlacementIndex.MAX_LENGTH; length++) {
+            int[] count = this.coverCount[length];
+            Arrays.fill(count, 0);
+            if (!this.inFleet[length]) continue;
+            for (int p : PlacementIndex.candidates(length)) {
+                addBody(count, PlacementIndex.bodyLo(p), 0, 1);
+                addBody(count, PlacementIndex.bodyHi(p), 64, 1);
+            }
+            for (int idx = 0; idx < 100; idx++) {
+                this.density[idx] += this.afloat[length] * count[idx];
+            }
+        }
+        this.knownLo = 0;
+        this.knownHi = 0;
+        this.openHitLo = 0;
+        this.openHitHi = 0;
+        this.sunkLo = 0;
+        this.sunkHi = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        if ((this.openHitLo | this.openHitHi) != 0) {
+            int location = target();
+            if (location >= 0) return location;
+        }
+        return best(this.density);
+    }
+
+    @Override
+    public void onResult(int location, boolean hit, int sunkLength) {
+        long bit = 1L << location;
+        if (location < 64) this.knownLo |= bit;
+        else this.knownHi |= bit;
+        if (!hit) {
+            //nothing here: no ship can cover this location
+            ruleOutCovering(location);
+            return;
+        }
+        if (location < 64) this.openHitLo |= bit;
+        else this.openHitHi |= bit;
+        //a ship lies here, so no other ship can be next to it
+        for (int p : PlacementIndex.haloCovering(location)) {
+            if (!PlacementIndex.covers(PlacementIndex.bodyLo(p), PlacementIndex.bodyHi(p), location)) {
+                ruleOut(p);
+            }
+        }
+        if (sunkLength > 0) sink(location, sunkLength);
+    }
+
+    /**
+     * Returns the density of a location: the number of placements of ships afloat that agree
+     * with the shots seen so far and cover it.
+     *
+     * @param location location as row * 10 + column
+     * @return density of the location
+     */
+    int getDensity(int location) {
+        return this.density[location];
+    }
+
+    /**
+     * Returns the number of ships of the given length still afloat.
+     *
+     * @param length ship length
+     * @return ships afloat
+     */
+    int getAfloat(int length) {
+        return this.afloat[length];
+    }
+
+    /**
+     * Returns the low word of the bitboard of locations whose content is known: fired at, or
+     * next to a sunk ship
+     *
+     * @return known locations, low word
+     */
+    long getKnownLo() {
+        return this.knownLo;
+    }
+
+    /**
+     * Returns the high word of the bitboard of locations whose content is known
+     *
+     * @return known locations, high word
+     */
+    long getKnownHi() {
+        return this.knownHi;
+    }
+
+    /**
+     * Returns the low word of the bitboard of hits on ships not sunk yet
+     *
+     * @return open hits, low word
+     */
+    long getOpenHitLo() {
+        return this.openHitLo;
+    }
+
+    /**
+     * Returns the high word of the bitboard of hits on ships not sunk yet
+     *
+     * @return open hits, high word
+     */
+    long getOpenHitHi() {
+        return this.openHitHi;
+    }
+
+    /**
+     * Returns the low word of the bitboard of locations of sunk ships
+     *
+     * @return sunk locations, low word
+     */
+    long getSunkLo() {
+        return this.sunkLo;
+    }
+
+    /**
+     * Returns the high word of the bitboard of locations of sunk ships
+     *
+     * @return sunk locations, high word
+     */
+    long getSunkHi() {
+        return this.sunkHi;
+    }
+
+    /**
+     * Records the sinking of the ship that was hit at location. Since ships never touch, the
+     * ship is the group of connected open hits around location.
+     */
+    private void sink(int location, int length) {
+        //flood fill the open hits connected to location
+        long shipLo = 0;
+        long shipHi = 0;
+        long frontierLo = location < 64 ? 1L << location : 0;
+        long frontierHi = location < 64 ? 0 : 1L << location;
+        while ((frontierLo | frontierHi) != 0) {
+            shipLo |= frontierLo;
+            shipHi |= frontierHi;
+            long nextLo = 0;
+            long nextHi = 0;
+            for (int word = 0; word < 2; word++) {
+                long bits = word == 0 ? frontierLo : frontierHi;
+                while (bits != 0) {
+                    int idx = word * 64 + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    //the halo of a length 1 ship is its 8 neighbours, enough for a flood fill
+                    long haloLo = PlacementIndex.haloLo(PlacementIndex.id(1, idx / 10, idx % 10, true));
+                    long haloHi = PlacementIndex.haloHi(PlacementIndex.id(1, idx / 10, idx % 10, true));
+                    nextLo |= haloLo & this.openHitLo;
+                    nextHi |= haloHi & this.openHitHi;
+                }
+            }
+            frontierLo = nextLo & ~shipLo;
+            frontierHi = nextHi & ~shipHi;
+        }
+        this.openHitLo &= ~shipLo;
+        this.openHitHi &= ~shipHi;
+        this.sunkLo |= shipLo;
+        this.sunkHi |= shipHi;
+
+        //one ship fewer of this length: drop its share of the density
+        if (this.afloat[length] > 0) {
+            this.afloat[length]--;
+            int[] count = this.coverCount[length];
+            for (int idx = 0; idx < 100; idx++) {
+                this.density[idx] -= count[idx];
+            }
+        }
+
+        //the ship and the sea around it are known; no other ship covers any of it
+        long aroundLo = 0;
+        long aroundHi = 0;
+        for (int word = 0; word < 2; word++) {
+            long bits = word == 0 ? shipLo : shipHi;
+            while (bits != 0) {
+                int idx = word * 64 + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                aroundLo |= PlacementIndex.haloLo(PlacementIndex.id(1, idx / 10, idx % 10, true));
+                aroundHi |= PlacementIndex.haloHi(PlacementIndex.id(1, idx / 10, idx % 10, true));
+            }
+        }
+        long newLo = aroundLo & ~this.knownLo;
+        long newHi = aroundHi & ~this.knownHi;
+        this.knownLo |= aroundLo;
+        this.knownHi |= aroundHi;
+        for (int word = 0; word < 2; word++) {
+            long bits = word == 0 ? (newLo | shipLo) : (newHi | shipHi);
+            while (bits != 0) {
+                int idx = word * 64 + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                ruleOutCovering(idx);
+            }
+        }
+    }
+
+    /**
+     * Rules out every placement whose body covers the given location.
+     */
+    private void ruleOutCovering(int location) {
+        for (int p : PlacementIndex.bodyCovering(location)) {
+            ruleOut(p);
+        }
+    }
+
+    /**
+     * Rules out one placement and removes it from the counts of the locations it covers.
+     */
+    private void ruleOut(int placement) {
+        if (this.ruledOut[placement]) return;
+        this.ruledOut[placement] = true;
+        int length = PlacementIndex.length(placement);
+        //placements of lengths not in the fleet were never counted
+        if (!this.inFleet[length]) return;
+        int[] count = this.coverCount[length];
+        addBody(count, PlacementIndex.bodyLo(placement), 0, -1);
+        addBody(count, PlacementIndex.bodyHi(placement), 64, -1);
+        int weight = this.afloat[length];
+        if (weight == 0) return;
+        addBody(this.density, PlacementIndex.bodyLo(placement), 0, -weight);
+        addBody(this.density, PlacementIndex.bodyHi(placement), 64, -weight);
+    }
+
+    /**
+     * Scores the locations next to the open hits, counting only the placements of ships afloat
+     * that go through at least one open hit. A placement through k open hits counts k * k times.
+     * Returns the best location, or -1 if no placement goes through the open hits.
+     */
+    private int target() {
+        Arrays.fill(this.targetScore, 0);
+        boolean any = false;
+        for (int word = 0; word < 2; word++) {
+            long bits = word == 0 ? this.openHitLo : this.openHitHi;
+            while (bits != 0) {
+                int idx = word * 64 + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                for (int p : PlacementIndex.bodyCovering(idx)) {
+                    int weight = this.afloat[PlacementIndex.length(p)];
+                    if (this.ruledOut[p] || weight == 0) continue;
+                    long bodyLo = PlacementIndex.bodyLo(p);
+                    long bodyHi = PlacementIndex.bodyHi(p);
+                    //count every placement once, from its first open hit
+                    long throughLo = bodyLo & this.openHitLo;
+                    long throughHi = bodyHi & this.openHitHi;
+                    int first = throughLo != 0 ? Long.numberOfTrailingZeros(throughLo)
+                            : 64 + Long.numberOfTrailingZeros(throughHi);
+                    if (first != idx) continue;
+                    int k = Long.bitCount(throughLo) + Long.bitCount(throughHi);
+                    addBody(this.targetScore, bodyLo & ~this.knownLo, 0, weight * k * k);
+                    addBody(this.targetScore, bodyHi & ~this.knownHi, 64, weight * k * k);
+                    any = true;
+                }
+            }
+        }
+        return any ? best(this.targetScore) : -1;
+    }
+
+    /**
+     * Returns the unknown location with the highest score, breaking ties at random.
+     * Falls back to any unknown location if every score is 0.
+     */
+    private int best(int[] score) {
+        int bestLocation = -1;
+        int bestScore = -1;
+        int ties = 0;
+        for (int idx = 0; idx < 100; idx++) {
+            if (PlacementIndex.covers(this.knownLo, this.knownHi, idx)) continue;
+            int s = score[idx];
+            if (s > bestScore) {
+                bestLocation = idx;
+                bestScore = s;
+                ties = 1;
+            } else if (s == bestScore && this.rd.nextInt(++ties) == 0) {
+                bestLocation = idx;
+            }
+        }
+        //every location is known: the game is over, fire anywhere
+        return bestLocation >= 0 ? bestLocation : 0;
+    }
+
+    /**
+     * Adds delta to counts at every location set in one word of a bitboard.
+     */
+    private static void addBody(int[] counts, long word, int firstBit, int delta) {
+        while (word != 0) {
+            counts[firstBit + Long.numberOfTrailingZeros(word)] += delta;
+            word &= word - 1;
+        }
+    }
+}
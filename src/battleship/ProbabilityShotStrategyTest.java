@@ -0,0 +1,105 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbabilityShotStrategyTest {
+
+    @Test
+    void testDensityMatchesRecount() {
+        BitboardOcean ocean = new BitboardOcean();
+        ocean.placeAllShipsFromSeed(5);
+        ProbabilityShotStrategy strategy = new ProbabilityShotStrategy(GameConfig.standard(), new SplittableRandom(5));
+        //locations of sunk ships and the sea around them
+        long sunkLo = 0, sunkHi = 0, aroundLo = 0, aroundHi = 0;
+        while (!ocean.isGameOver()) {
+            int location = strategy.nextShot();
+            int sunk = ocean.getShipsSunk();
+            boolean hit = ocean.shootAt(location / 10, location % 10);
+            int sunkLength = 0;
+            if (ocean.getShipsSunk() > sunk) {
+                Ship ship = ocean.getLastSunk();
+                sunkLength = ship.getLength();
+                int p = PlacementIndex.id(ship.getLength(), ship.getBowRow(), ship.getBowColumn(), ship.isHorizontal());
+                sunkLo |= PlacementIndex.bodyLo(p);
+                sunkHi |= PlacementIndex.bodyHi(p);
+                aroundLo |= PlacementIndex.haloLo(p);
+                aroundHi |= PlacementIndex.haloHi(p);
+            }
+            strategy.onResult(location, hit, sunkLength);
+
+            //count the placements that agree with the shots from scratch
+            int[] afloat = new int[11];
+            for (int i = 0; i < ocean.getFleetSize(); i++) {
+                if (!ocean.getShip(i).isSunk()) afloat[ocean.getShip(i).getLength()]++;
+            }
+            int[] expected = new int[100];
+            for (int length = 1; length <= 4; length++) {
+                for (int p : PlacementIndex.candidates(length)) {
+                    long bodyLo = PlacementIndex.bodyLo(p), bodyHi = PlacementIndex.bodyHi(p);
+                    long edgeLo = PlacementIndex.haloLo(p) & ~bodyLo, edgeHi = PlacementIndex.haloHi(p) & ~bodyHi;
+                    boolean possible = ((bodyLo & (ocean.getMissLo() | aroundLo)) | (bodyHi & (ocean.getMissHi() | aroundHi))) == 0
+                            && ((edgeLo & ocean.getHitLo()) | (edgeHi & ocean.getHitHi())) == 0;
+                    if (!possible) continue;
+                    for (int idx = 0; idx < 100; idx++) {
+                        if (PlacementIndex.covers(bodyLo, bodyHi, idx)) expected[idx] += afloat[length];
+                    }
+                }
+            }
+            for (int idx = 0; idx < 100; idx++) {
+                assertEquals(expected[idx], strategy.getDensity(idx), "location " + idx);
+            }
+        }
+        assertTrue(ocean.getShotsFired() <= 100);
+    }
+
+    @Test
+    void testInitialDensityCountsEachPlacementOnce() {
+        ProbabilityShotStrategy strategy = new ProbabilityShotStrategy(GameConfig.standard(), new SplittableRandom(1));
+        //a corner is covered by one horizontal and one vertical placement of each longer ship,
+        //and by a single placement of a submarine: 1 * 2 + 2 * 2 + 3 * 2 + 4 * 1
+        assertEquals(16, strategy.getDensity(0));
+        assertEquals(16, strategy.getDensity(99));
+        //in the middle, a submarine still adds one placement per ship
+        assertEquals(1 * 8 + 2 * 6 + 3 * 4 + 4, strategy.getDensity(44));
+    }
+
+    @Test
+    void testTargetsNextToHit() {
+        Ocean ocean = new BitboardOcean();
+        Battleship battleship = new Battleship();
+        battleship.placeShipAt(5, 5, true, ocean);
+        ProbabilityShotStrategy strategy = new ProbabilityShotStrategy(GameConfig.standard(), new SplittableRandom(1));
+        strategy.onResult(54, true, 0);
+        //after an isolated hit, the next shot is right next to it
+        int next = strategy.nextShot();
+        int distance = Math.abs(next / 10 - 5) + Math.abs(next % 10 - 4);
+        assertEquals(1, distance);
+        //after a second hit in the row, the shots stay in that row
+        strategy.onResult(53, true, 0);
+        assertEquals(5, strategy.nextShot() / 10);
+    }
+
+    @Test
+    void testNeverRepeatsAndBeatsRandom() {
+        GameSimulator smart = new GameSimulator(new ProbabilityShotStrategy(GameConfig.standard(), new SplittableRandom(7)));
+        GameSimulator random = new GameSimulator(new RandomShotStrategy(new SplittableRandom(7)));
+        long[] shots = new long[2];
+        smart.playGames(200, new SplittableRandom(8), (game, ocean, result) -> {
+            assertTrue(result.isFinished());
+            assertTrue(result.getShots() <= 100);
+            shots[0] += result.getShots();
+        });
+        random.playGames(200, new SplittableRandom(8), (game, ocean, result) -> shots[1] += result.getShots());
+        //the density player needs far fewer shots than random play
+        assertTrue(shots[0] * 10 < shots[1] * 7, shots[0] + " vs " + shots[1]);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Fires at every location once, in random order. The baseline opponent.
+ */
+public class RandomShotStrategy implements ShotStrategy {
+
+    //Random stream used to choose shots
+    private final RandomGenerator rd;
+    //All locations; the first fired of them have been fired at
+    private final int[] order = new int[100];
+    //Number of shots fired in this game
+    private int fired;
+
+    /**
+     * Creates a strategy with its own random stream.
+     */
+    public RandomShotStrategy() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a strategy drawing shots from the given random stream.
+     *
+     * @param rd random number generator
+     */
+    public RandomShotStrategy(RandomGenerator rd) {
+        this.rd = rd;
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < 100; i++) {
+            this.order[i] = i;
+        }
+        this.fired = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        //pick one of the locations not fired at yet
+        int j = this.fired + this.rd.nextInt(100 - this.fired);
+        int location = this.order[j];
+        this.order[j] = this.order[this.fired];
+        this.order[this.fired] = location;
+        this.fired++;
+        return location;
+    }
+
+    @Override
+    public void onResult(int location, boolean hit, int sunkLength) {
+        //random play ignores the outcome
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts any number of concurrent games, each with its own Ocean, unlike BattleshipGame which
+ * keeps one game in static fields. Sessions are created with the fleet placed at random and
+ * looked up by id. All methods are thread safe.
+ * The open sessions of standard games can be saved to a snapshot file while they are being
+ * played, and restored with the same ids by a new manager, for example after a restart. The file
+ * starts with a HEADER_BYTES header (magic number, version and number of sessions) followed by
+ * one SESSION_BYTES record per session: its id, then its GameSnapshot image, little-endian.
+ */
+public class SessionManager {
+
+    //"BSSN", the first four bytes of every snapshot file
+    static final int MAGIC = 0x4253534e;
+    //Version of the snapshot file layout
+    static final int VERSION = 1;
+    //Size of the snapshot file header in bytes
+    static final int HEADER_BYTES = 16;
+    //Size of a session record in bytes: id and game image, padded to 8 bytes
+    static final int SESSION_BYTES = (8 + GameSnapshot.BYTES + 7) & ~7;
+    //Number of session records written or read at a time
+    static final int IO_BATCH = 1024;
+
+    //Board size and fleet of every game
+    private final GameConfig config;
+    //Open sessions by id
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    //Id of the next session
+    private final AtomicLong nextId = new AtomicLong();
+    //Number of sessions closed with the game over
+    private final LongAdder gamesFinished = new LongAdder();
+
+    /**
+     * Creates a manager of standard games.
+     */
+    public SessionManager() {
+        this(GameConfig.standard());
+    }
+
+    /**
+     * Creates a manager of games with the given board size and fleet.
+     *
+     * @param config board size and fleet
+     */
+    public SessionManager(GameConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Starts a new game with the fleet placed at random.
+     *
+     * @return the new session
+     */
+    public GameSession open() {
+        //a BitboardOcean for the standard board, a few hundred bytes per game
+        Ocean ocean = Ocean.create(this.config);
+        ocean.placeAllShipsWithBacktracking();
+        GameSession session = new GameSession(this.nextId.getAndIncrement(), ocean);
+        this.sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Returns the open session with the given id
+     *
+     * @param id session id
+     * @return the session, or null if there is none
+     */
+    public GameSession get(long id) {
+        return this.sessions.get(id);
+    }
+
+    /**
+     * Ends a session, whether its game is over or not.
+     *
+     * @param session session to end
+     */
+    public void close(GameSession session) {
+        if (this.sessions.remove(session.getId(), session) && session.isGameOver()) {
+            this.gamesFinished.increment();
+        }
+    }
+
+    /**
+     * Saves every open session to a snapshot file. Sessions may be played meanwhile: each one is
+     * saved as it is at some point during the call, and sessions opened or closed during the call
+     * may be missing or included. The file is written next to the target and moved over it once
+     * complete, so a crash never leaves a partial snapshot; if writing fails, the temporary file
+     * is deleted.
+     *
+     * @param file snapshot file
+     * @return number of sessions saved
+     * @throws IOException           if the file cannot be written
+     * @throws IllegalStateException if the games are not on 10x10 boards with the standard fleet
+     */
+    public int snapshot(Path file) throws IOException {
+        if (!BoardCodec.canEncode(this.config)) {
+            throw new IllegalStateException("Only games on 10x10 boards with the standard fleet can be saved");
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer buf = ByteBuffer.allocateDirect(IO_BATCH * SESSION_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int count = 0;
+        boolean moved = false;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = HEADER_BYTES;
+            for (GameSession session : this.sessions.values()) {
+                if (!buf.hasRemaining()) position = write(channel, buf, position);
+                int base = buf.position();
+                buf.putLong(base, session.getId());
+                session.snapshot(buf, base + 8);
+                for (int i = base + 8 + GameSnapshot.BYTES; i < base + SESSION_BYTES; i++) buf.put(i, (byte) 0);
+                buf.position(base + SESSION_BYTES);
+                count++;
+            }
+            write(channel, buf, position);
+            //the header goes last, with the number of sessions actually written
+            buf.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0);
+            write(channel, buf, 0);
+            channel.force(false);
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved) Files.deleteIfExists(temp);
+        }
+        return count;
+    }
+
+    /**
+     * Writes the content of buf at the given file position and clears it.
+     *
+     * @return file position after the data written
+     */
+    private static long write(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+        buf.clear();
+        return position;
+    }
+
+    /**
+     * Opens every session saved in a snapshot file, with the same id and game state. Sessions
+     * opened afterwards get ids past the restored ones. A session already open with the same id
+     * is replaced.
+     *
+     * @param file snapshot file written by snapshot()
+     * @return number of sessions restored
+     * @throws IOException           if the file cannot be read, is not a complete snapshot or holds
+     *                               a corrupt board
+     * @throws IllegalStateException if the games are not on 10x10 boards
+     */
+    public int restore(Path file) throws IOException {
+        if (!this.config.isStandardSize()) {
+            throw new IllegalStateException("Only games on 10x10 boards can be restored");
+        }
+        ByteBuffer buf = ByteBuffer.allocateDirect(IO_BATCH * SESSION_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf.limit(HEADER_BYTES);
+            long position = read(channel, buf, 0);
+            if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("Not a session snapshot: " + file);
+            }
+            int count = buf.getInt();
+            if (channel.size() != HEADER_BYTES + (long) count * SESSION_BYTES) {
+                throw new IOException("Incomplete session snapshot: " + file);
+            }
+            long maxId = -1;
+            for (int restored = 0; restored < count; ) {
+                buf.clear();
+                buf.limit(Math.min(count - restored, IO_BATCH) * SESSION_BYTES);
+                position = read(channel, buf, position);
+                for (int base = 0; base < buf.limit(); base += SESSION_BYTES) {
+                    long id = buf.getLong(base);
+                    BitboardOcean ocean;
+                    try {
+                        ocean = GameSnapshot.read(buf, base + 8);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Corrupt session " + id + " in snapshot " + file, e);
+                    }
+                    this.sessions.put(id, new GameSession(id, ocean));
+                    maxId = Math.max(maxId, id);
+                    restored++;
+                }
+            }
+            this.nextId.accumulateAndGet(maxId + 1, Math::max);
+            return count;
+        }
+    }
+
+    /**
+     * Fills buf from the given file position, up to its limit or the end of the file, and flips it.
+     *
+     * @return file position after the data read
+     */
+    private static long read(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, position);
+            if (read < 0) break;
+            position += read;
+        }
+        buf.flip();
+        return position;
+    }
+
+    /**
+     * Returns the number of open sessions
+     *
+     * @return open sessions
+     */
+    public int size() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Returns the number of sessions closed after their game was over
+     *
+     * @return finished games
+     */
+    public long getGamesFinished() {
+        return this.gamesFinished.sum();
+    }
+}
@@ -15,6 +15,8 @@ public abstract class Ship {
     private int length;         //The length of the ship
     private boolean horizontal; //whether the ship is going to be placed horizontally or vertically
     private boolean[] hit;      //whether that part of the ship has been hit or not
+    private int hitPoints;      //the number of parts that have not been hit yet
+    private int shipId;         //the id of the ship in the ocean it was last placed in
 
     /**
      * This constructor sets the length property of the particular ship and initializes
@@ -31,6 +33,8 @@ public abstract class Ship {
         for (int i = 0; i < length; i++) {
             hit[i] = false;
         }
+        this.hitPoints = length;
+        this.shipId = -1;
     }
 
     /**
@@ -87,6 +91,25 @@ public abstract class Ship {
         return this.hit;
     }
 
+    /**
+     * Returns the id of the ship in the ocean it was last placed in (its index in order of
+     * placement), or -1 if it has not been placed
+     *
+     * @return ship id as int
+     */
+    public int getShipId() {
+        return this.shipId;
+    }
+
+    /**
+     * Sets the ship id, called by the ocean when the ship is placed
+     *
+     * @param shipId
+     */
+    void setShipId(int shipId) {
+        this.shipId = shipId;
+    }
+
     /**
      * Returns whether the ship is horizontal or not
      *
@@ -126,7 +149,15 @@ public abstract class Ship {
      */
     boolean okToPlaceShipAt(int row, int column, boolean horizontal, Ocean ocean) {
         //deal with illegal inputs
-        if (row < 0 || column < 0 || row > 9 || column > 9) return false;
+        int rows = ocean.getRows();
+        int columns = ocean.getColumns();
+        if (row < 0 || column < 0 || row >= rows || column >= columns) return false;
+        //a bitboard ocean can check the whole placement with the precomputed masks
+        if (ocean instanceof BitboardOcean) {
+            BitboardOcean board = (BitboardOcean) ocean;
+            return PlacementIndex.isLegal(this.length, row, column, horizontal,
+                    board.getOccupiedLo(), board.getOccupiedHi());
+        }
         //check availability for each part & offset
         if (horizontal) {   //put the ship horizontally, parts on the same row, column range = ship length
             //check for body parts
@@ -143,9 +174,9 @@ public abstract class Ship {
             //check for offsets - no adjacency
             for (int i = -1; i < 2; i++) {
                 int r = row - i;    //offset above and below
-                if (r < 0 || r > 9) continue;   //if ship sit aside boundary, no need to check offset
+                if (r < 0 || r >= rows) continue;   //if ship sit aside boundary, no need to check offset
                 for (int j = -1; j <= this.length; j++) {
-                    if (column - j < 0 || column - j > 9)
+                    if (column - j < 0 || column - j >= columns)
                         continue;   //if ship sit aside boundary, no need to check offset
                     //if any of these locations is occupied, we cannot put the ship here, return false
                     if (ocean.isOccupied(r, column - j)) {
@@ -168,9 +199,9 @@ public abstract class Ship {
             //check for offsets - no adjacency
             for (int i = -1; i < 2; i++) {
                 int c = column - i;    //offset above and below
-                if (c < 0 || c > 9) continue;   //if ship sit aside boundary, no need to check offset
+                if (c < 0 || c >= columns) continue;   //if ship sit aside boundary, no need to check offset
                 for (int j = -1; j <= this.length; j++) {
-                    if (row - j < 0 || row - j > 9) continue;   //if ship sit aside boundary, no need to check offset
+                    if (row - j < 0 || row - j >= rows) continue;   //if ship sit aside boundary, no need to check offset
                     //if any of these locations is occupied, we cannot put the ship here, return false
                     if (ocean.isOccupied(row - j, c)) {
                         return false;
@@ -200,20 +231,8 @@ public abstract class Ship {
         this.bowRow = row;
         this.bowColumn = column;
         this.horizontal = horizontal;
-        //putting a reference to the ship in each location in the ships array in the Ocean object
-        Ship[][] ships = ocean.getShipArray();
-        //for each part of the ship, set ship[row][col] to
-        if (horizontal) {
-            //if ship is put horizontally
-            for (int i = 0; i < this.length; i++) {
-                ships[row][column - i] = this;
-            }
-        } else {
-            //if ship is put vertically
-            for (int i = 0; i < this.length; i++) {
-                ships[row - i][column] = this;
-            }
-        }
+        //putting a reference to the ship in each location it covers in the Ocean object
+        ocean.putShip(this);
     }
 
     /**
@@ -228,37 +247,50 @@ public abstract class Ship {
     boolean shootAt(int row, int column) {
         //check if the ship is already sunk
         if (this.isSunk()) return false;
-        //check if target is part of ship and mark as hit if it is
-        int r = this.bowRow;
-        int c = this.bowColumn;
-        //if target = bow
-        if (r == row && c == column) {
-            hit[0] = true;
-            return true;
-        }
-        //check if target is body of ship
+        //relative position of the target in the ship, index 0 is the bow
+        int pos;
         if (this.horizontal) {  //ship is horizontal
             //if target is not in the same row with bow, it's not part of ship
-            if (r != row) return false;
-            for (int i = 1; i < this.length; i++) {
-                if (c - i == column) {
-                    hit[i] = true;
-                    return true;
-                }
-            }
-            //if target is not part of ship, return false
-            return false;
+            if (this.bowRow != row) return false;
+            pos = this.bowColumn - column;
         } else {    //ship is vertical
             //if target is not in the same column with bow, it's not part of ship
-            if (c != column) return false;
-            for (int i = 1; i < this.length; i++) {
-                if (r - i == row) {
-                    hit[i] = true;
-                    return true;
-                }
-            }
-            //if target is not part of ship, return false
-            return false;
+            if (this.bowColumn != column) return false;
+            pos = this.bowRow - row;
+        }
+        //if target is not part of ship, return false
+        if (pos < 0 || pos >= this.length) return false;
+        //mark as hit; a part only loses a hit point the first time it is hit
+        if (!hit[pos]) {
+            hit[pos] = true;
+            this.hitPoints--;
+        }
+        return true;
+    }
+
+    /**
+     * Makes the ship as good as new, to be placed again: no part hit, no ship id.
+     */
+    void reset() {
+        for (int i = 0; i < this.length; i++) {
+            this.hit[i] = false;
+        }
+        this.hitPoints = this.length;
+        this.shipId = -1;
+    }
+
+    /**
+     * Undoes a hit: if a part of the ship occupies the given row and column and has been hit,
+     * marks it as not hit, which refloats the ship if it was sunk. Used to take shots back.
+     *
+     * @param row
+     * @param column
+     */
+    void repair(int row, int column) {
+        int pos = this.relativePos(row, column);
+        if (this.hit[pos]) {
+            this.hit[pos] = false;
+            this.hitPoints++;
         }
     }
 
@@ -268,13 +300,8 @@ public abstract class Ship {
      * @return if the ship is sunk, as boolean
      */
     boolean isSunk() {
-        boolean re = true;
-        //check all parts, if any part has not been hit, the ship is not sunk
-        for (boolean partHit : hit) {
-            //if any part has not been hit
-            if (!partHit) re = false;
-        }
-        return re;
+        //hit points are counted down in shootAt, so there is no need to check every part
+        return this.hitPoints == 0;
     }
 
     /**
@@ -398,21 +425,55 @@ class Submarine extends Ship {
     }
 }
 
+/**
+ * This class describes a ship of length 5 or more, for games with a custom fleet
+ */
+class Carrier extends Ship {
+    /**
+     * This constructor creates a ship of the given length, sets length and initialize hit array.
+     *
+     * @param length
+     */
+    public Carrier(int length) {
+        super(length);
+    }
+
+    /**
+     * Returns the type of ship as a String.
+     *
+     * @return
+     */
+    @Override
+    public String getShipType() {
+        return "carrier";
+    }
+}
+
 /**
  * This class describes a part of the ocean that doesn’t have a ship in it.
+ * Oceans put the shared SEA at every empty location and track the locations fired upon
+ * themselves, so an EmptySea holds no state and cannot be moved or placed: use
+ * Ocean.clearLocation() to empty a location.
  */
 class EmptySea extends Ship {
 
+    //The empty sea at every location without a ship, in every ocean
+    static final EmptySea SEA = new EmptySea();
+    //Hit array of the empty sea: it has no parts to hit
+    private static final boolean[] NO_HITS = new boolean[0];
+
     /**
-     * Constructor sets the length variable to 1 by calling the constructor in the super class
+     * Constructor sets the length variable to 1 by calling the constructor in the super class.
+     * Only SEA is ever created.
      */
-    public EmptySea() {
+    private EmptySea() {
         super(1);
     }
 
     /**
      * This method overrides shootAt(int row, int column) that is inherited
      * from Ship, and always returns false to indicate that nothing was hit.
+     * The miss is recorded by the ocean.
      *
      * @param row
      * @param column
@@ -420,10 +481,88 @@ class EmptySea extends Ship {
      */
     @Override
     boolean shootAt(int row, int column) {
-        this.getHit()[0] = true;
         return false;
     }
 
+    /**
+     * Every location of the empty sea is its only part, whatever its bow.
+     *
+     * @return 0
+     */
+    @Override
+    public int relativePos(int row, int column) {
+        return 0;
+    }
+
+    /**
+     * The empty sea is never hit: the misses live in the fired bitmap of each ocean
+     * (see Ocean.isFired()).
+     *
+     * @return a shared empty array
+     */
+    @Override
+    public boolean[] getHit() {
+        return NO_HITS;
+    }
+
+    /**
+     * The empty sea has no bow, it is everywhere.
+     *
+     * @param row
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setBowRow(int row) {
+        throw new UnsupportedOperationException("The empty sea cannot be moved");
+    }
+
+    /**
+     * The empty sea has no bow, it is everywhere.
+     *
+     * @param column
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setBowColumn(int column) {
+        throw new UnsupportedOperationException("The empty sea cannot be moved");
+    }
+
+    /**
+     * The empty sea has no orientation.
+     *
+     * @param horizontal
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setHorizontal(boolean horizontal) {
+        throw new UnsupportedOperationException("The empty sea cannot be moved");
+    }
+
+    /**
+     * The empty sea is shared by every location of every ocean, so it cannot be placed;
+     * use Ocean.clearLocation() instead.
+     *
+     * @param row
+     * @param column
+     * @param horizontal
+     * @param ocean
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    void placeShipAt(int row, int column, boolean horizontal, Ocean ocean) {
+        throw new UnsupportedOperationException("Use Ocean.clearLocation() to empty a location");
+    }
+
+    /**
+     * The empty sea holds no state to reset.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    void reset() {
+        throw new UnsupportedOperationException("The empty sea cannot be reset");
+    }
+
     /**
      * This method overrides isSunk() that is inherited from Ship, and always
      * returns false to indicate that you didn’t sink anything.
@@ -39,7 +39,7 @@ class ShipTest {
         assertEquals(1, ship.getLength());
         
         //There is 1 for submarine
-        ship = new EmptySea();
+        ship = EmptySea.SEA;
         assertEquals(1, ship.getLength());
     }
 
@@ -135,10 +135,24 @@ class ShipTest {
         assertEquals("submarine", ship.getShipType());
 
         //get empty for empty
-        ship = new EmptySea();
+        ship = EmptySea.SEA;
         assertEquals("empty", ship.getShipType());
     }
 
+    @Test
+    void testEmptySeaCannotChange() {
+        //the shared empty sea cannot be moved, placed or reset
+        Ship sea = EmptySea.SEA;
+        assertThrows(UnsupportedOperationException.class, () -> sea.setBowRow(3));
+        assertThrows(UnsupportedOperationException.class, () -> sea.setBowColumn(3));
+        assertThrows(UnsupportedOperationException.class, () -> sea.setHorizontal(false));
+        assertThrows(UnsupportedOperationException.class, () -> sea.placeShipAt(3, 3, true, new Ocean()));
+        assertThrows(UnsupportedOperationException.class, sea::reset);
+        //it has no hits to change
+        assertEquals(0, sea.getHit().length);
+        assertSame(sea.getHit(), sea.getHit());
+    }
+
     @Test
     void testIsHorizontal() {
         Ship battleship = new Battleship();
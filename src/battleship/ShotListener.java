@@ -0,0 +1,22 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+/**
+ * Receives an event from an Ocean for every shot fired at it, after the shot has been applied.
+ * Shots off the board are not counted by the ocean and are not reported.
+ */
+public interface ShotListener {
+
+    /**
+     * Called by Ocean.shootAt() (and the batch and salvo methods) once per shot.
+     *
+     * @param row     row of the shot
+     * @param column  column of the shot
+     * @param outcome Ocean.SHOT_MISS, Ocean.SHOT_HIT, or the length of the ship sunk by the shot
+     */
+    void shotFired(int row, int column, int outcome);
+}
@@ -0,0 +1,35 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+/**
+ * A computer player that chooses where to shoot. The game tells the strategy the outcome of
+ * every shot, so the strategy keeps whatever knowledge of the board it needs.
+ * Locations are given as row * 10 + column. A strategy plays one game at a time.
+ */
+public interface ShotStrategy {
+
+    /**
+     * Forgets everything about the previous game. Called before the first shot of every game.
+     */
+    void reset();
+
+    /**
+     * Returns the next location to fire at.
+     *
+     * @return location as row * 10 + column
+     */
+    int nextShot();
+
+    /**
+     * Reports the outcome of the shot just fired.
+     *
+     * @param location   location fired at, as row * 10 + column
+     * @param hit        whether the shot hit a ship still afloat
+     * @param sunkLength length of the ship sunk by this shot, 0 if no ship was sunk
+     */
+    void onResult(int location, boolean hit, int sunkLength);
+}
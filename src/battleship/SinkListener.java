@@ -0,0 +1,20 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+/**
+ * Receives an event from an Ocean every time a shot sinks a ship.
+ */
+public interface SinkListener {
+
+    /**
+     * Called by Ocean.shootAt() when the shot sinks a ship.
+     *
+     * @param shipId id of the ship in the ocean (its index in order of placement)
+     * @param ship   the ship sunk, getShipType() and getLength() tell what it was
+     */
+    void shipSunk(int shipId, Ship ship);
+}
@@ -0,0 +1,242 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+/**
+ * An Ocean for large boards (1000x1000 and beyond) that are mostly empty sea. Instead of a
+ * reference per location, it keeps a hash map entry per ship part and per location fired upon,
+ * so memory grows with the fleet and the number of shots, not with the size of the board.
+ * Location (row, column) is stored under the key row * columns + column.
+ */
+public class SparseOcean extends Ocean {
+
+    //Value in shots for a location fired upon that found nothing
+    private static final int MISS = 1;
+    //Value in shots for a location fired upon that hit a ship
+    private static final int HIT = 2;
+
+    //Id plus one of the ship at each occupied location
+    private final LongIntMap shipIds = new LongIntMap();
+    //MISS or HIT for each location fired upon
+    private final LongIntMap shots = new LongIntMap();
+    //Ship array view, only created if getShipArray() is called
+    private Ship[][] shipArray;
+
+    /**
+     * Constructor creates an empty ocean of the size given by the configuration.
+     * No ships array is created.
+     *
+     * @param config board size and fleet
+     */
+    public SparseOcean(GameConfig config) {
+        super(config, null);
+    }
+
+    /**
+     * Returns the key of the given location.
+     *
+     * @param row
+     * @param column
+     * @return row * columns + column
+     */
+    private long key(int row, int column) {
+        return (long) row * this.getColumns() + column;
+    }
+
+    /**
+     * Records the given ship in the ship map.
+     *
+     * @param ship ship to record in this ocean
+     */
+    @Override
+    void putShip(Ship ship) {
+        int id = registerShip(ship) + 1;
+        int row = ship.getBowRow();
+        int column = ship.getBowColumn();
+        for (int i = 0; i < ship.getLength(); i++) {
+            this.shipIds.put(key(row, column), id);
+            //keep the ship array view in sync
+            if (this.shipArray != null) this.shipArray[row][column] = ship;
+            if (ship.isHorizontal()) column--;
+            else row--;
+        }
+    }
+
+    /**
+     * Removes the location from the ship map.
+     *
+     * @param row
+     * @param column
+     */
+    @Override
+    void clearLocation(int row, int column) {
+        this.shipIds.put(key(row, column), 0);
+        if (this.shipArray != null) this.shipArray[row][column] = EmptySea.SEA;
+    }
+
+    /**
+     * Clears the ship and shot maps, keeping their capacity.
+     */
+    @Override
+    void clearBoard() {
+        this.shipIds.clear();
+        this.shots.clear();
+        this.shipArray = null;
+    }
+
+    /**
+     * Returns true if the given location contains a ship, false if it does not
+     *
+     * @param row
+     * @param column
+     * @return whether given location is occupied
+     */
+    @Override
+    boolean isOccupied(int row, int column) {
+        return this.shipIds.get(key(row, column)) != 0;
+    }
+
+    /**
+     * Returns true if the given location contains a ”real” ship, still afloat,
+     * false if it does not. Updates the number of shots fired, hits and ships sunk.
+     *
+     * @param row
+     * @param column
+     * @return if this shot succeeds
+     */
+    @Override
+    boolean shootAt(int row, int column) {
+        // if inputs are invalid, return false, and do not count in shotsFired
+        if (row < 0 || column < 0 || row >= this.getRows() || column >= this.getColumns()) {
+            return false;
+        }
+
+        // shotsFired increments
+        this.shotsFired++;
+
+        long key = key(row, column);
+        int id = this.shipIds.get(key);
+        //no ship here: record the miss
+        if (id == 0) {
+            this.shots.put(key, MISS);
+            if (this.shotListener != null) this.shotListener.shotFired(row, column, SHOT_MISS);
+            return false;
+        }
+        Ship ship = this.fleet[id - 1];
+        //ship at this position is already sunk
+        if (ship.isSunk()) {
+            if (this.shotListener != null) this.shotListener.shotFired(row, column, SHOT_MISS);
+            return false;
+        }
+        //hit counts every time, the ship only takes damage the first time a part is hit
+        this.hitCount++;
+        this.shots.put(key, HIT);
+        ship.shootAt(row, column);
+        if (ship.isSunk()) {
+            this.shipsSunk++;
+            this.lastSunk = ship;
+            if (this.sinkListener != null) this.sinkListener.shipSunk(id - 1, ship);
+        }
+        if (this.shotListener != null) {
+            this.shotListener.shotFired(row, column, ship.isSunk() ? ship.getLength() : SHOT_HIT);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of locations stored, ship parts plus locations fired upon. This is what
+     * the memory used by this ocean grows with.
+     *
+     * @return number of stored locations
+     */
+    int getStoredLocations() {
+        return this.shipIds.size() + this.shots.size();
+    }
+
+    /**
+     * Returns an array of Ships equivalent to the one kept by Ocean. It is built on the first call
+     * and kept in sync afterwards. This takes memory for every location of the board, so it is
+     * meant for tests and small boards only.
+     *
+     * @return Ship array
+     */
+    @Override
+    Ship[][] getShipArray() {
+        if (this.shipArray == null) {
+            Ship[][] ships = new Ship[this.getRows()][this.getColumns()];
+            for (int r = 0; r < ships.length; r++) {
+                for (int c = 0; c < ships[r].length; c++) {
+                    int id = this.shipIds.get(key(r, c));
+                    if (id != 0) {
+                        ships[r][c] = this.fleet[id - 1];
+                    } else {
+                        ships[r][c] = EmptySea.SEA;
+                    }
+                }
+            }
+            this.shipArray = ships;
+        }
+        return this.shipArray;
+    }
+
+    /**
+     * Prints the Ocean in the same format as Ocean.print(), reading the maps directly.
+     */
+    @Override
+    void print() {
+        //print column numbers on the top
+        for (int i = 0; i < this.getColumns(); i++) {
+            System.out.print("\t" + i);
+        }
+        System.out.println();
+        //print each line
+        for (int r = 0; r < this.getRows(); r++) {
+            System.out.print(r);
+            for (int c = 0; c < this.getColumns(); c++) {
+                System.out.print("\t");
+                long key = key(r, c);
+                int shot = this.shots.get(key);
+                if (shot == HIT) {
+                    System.out.print(this.fleet[this.shipIds.get(key) - 1].isSunk() ? "s" : "x");
+                } else if (shot == MISS) {
+                    System.out.print("-");
+                } else {
+                    System.out.print(".");
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * For debugging only. Prints the Ocean with ships in the same format as
+     * Ocean.printWithShips().
+     */
+    @Override
+    void printWithShips() {
+        //print column numbers on the top
+        System.out.print("  ");
+        for (int i = 0; i < this.getColumns(); i++) {
+            System.out.print(i + " ");
+        }
+        System.out.println();
+        //print each line
+        for (int r = 0; r < this.getRows(); r++) {
+            System.out.print(r + " ");
+            for (int c = 0; c < this.getColumns(); c++) {
+                int id = this.shipIds.get(key(r, c));
+                if (id == 0) {
+                    System.out.print("  ");
+                } else {
+                    //first letter of the ship type: b, c, d, s (or a for a carrier)
+                    Ship ship = this.fleet[id - 1];
+                    System.out.print((ship instanceof Carrier ? 'a' : ship.getShipType().charAt(0)) + " ");
+                }
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs all OceanTest tests against SparseOcean on the standard board, plus tests of other board
+ * sizes and fleets.
+ */
+class SparseOceanTest extends OceanTest {
+
+    @Override
+    Ocean createOcean() {
+        return new SparseOcean(GameConfig.standard());
+    }
+
+    @Test
+    void testLargeBoard() {
+        GameConfig config = new GameConfig(1000, 1000, 6, 5, 5, 4, 3, 3, 2, 1);
+        Ocean large = Ocean.create(config);
+        assertTrue(large instanceof SparseOcean);
+        large.placeAllShipsRandomly(new SplittableRandom(6));
+        assertEquals(8, large.getFleetSize());
+        //only the 29 ship parts are stored
+        assertEquals(29, ((SparseOcean) large).getStoredLocations());
+
+        //sink every ship by shooting at its parts
+        for (int id = 0; id < large.getFleetSize(); id++) {
+            Ship ship = large.getShip(id);
+            for (int i = 0; i < ship.getLength(); i++) {
+                int r = ship.isHorizontal() ? ship.getBowRow() : ship.getBowRow() - i;
+                int c = ship.isHorizontal() ? ship.getBowColumn() - i : ship.getBowColumn();
+                assertTrue(large.isOccupied(r, c));
+                assertTrue(large.shootAt(r, c));
+            }
+        }
+        assertFalse(large.shootAt(999, 999) && large.isOccupied(999, 999));
+        assertFalse(large.shootAt(1000, 0));
+        assertTrue(large.isGameOver());
+        assertEquals(29, large.getHitCount());
+        //a cleared location is no longer stored
+        int stored = ((SparseOcean) large).getStoredLocations();
+        large.clearLocation(large.getShip(0).getBowRow(), large.getShip(0).getBowColumn());
+        assertEquals(stored - 1, ((SparseOcean) large).getStoredLocations());
+    }
+
+    @Test
+    void testOtherSizes() {
+        GameConfig config = new GameConfig(6, 12, 5, 2);
+        Ocean dense = Ocean.create(config);
+        assertFalse(dense instanceof SparseOcean);
+        assertEquals(6, dense.getShipArray().length);
+        assertEquals(12, dense.getShipArray()[0].length);
+
+        Ship carrier = GameConfig.createShip(5);
+        assertEquals("carrier", carrier.getShipType());
+        //a horizontal carrier fits with its bow in column 11, a vertical one not with its bow in row 3
+        assertTrue(carrier.okToPlaceShipAt(5, 11, true, dense));
+        assertFalse(carrier.okToPlaceShipAt(3, 11, false, dense));
+        assertFalse(carrier.okToPlaceShipAt(6, 11, true, dense));
+        carrier.placeShipAt(5, 11, true, dense);
+        assertTrue(dense.isOccupied(5, 7));
+        assertFalse(new Destroyer().okToPlaceShipAt(4, 10, true, dense));
+        assertTrue(new Destroyer().okToPlaceShipAt(3, 10, true, dense));
+
+        //the game is over when both ships are sunk
+        Ship destroyer = new Destroyer();
+        destroyer.placeShipAt(1, 1, false, dense);
+        for (int c = 7; c <= 11; c++) dense.shootAt(5, c);
+        assertFalse(dense.isGameOver());
+        dense.shootAt(1, 1);
+        dense.shootAt(0, 1);
+        assertTrue(dense.isGameOver());
+    }
+
+    @Test
+    void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(0, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(5, 5, 6));
+        assertThrows(IllegalArgumentException.class, () -> new BitboardOcean(new GameConfig(9, 10, 1)));
+        //each ship fits alone, but not all four without touching
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(5, 5, 5, 5, 5, 5));
+        //two submarines always touch on a 2x2 board: random placement gives up instead of looping
+        Ocean ocean = new SparseOcean(new GameConfig(2, 2, 1, 1));
+        assertThrows(IllegalStateException.class, () -> ocean.placeAllShipsRandomly(new SplittableRandom(1)));
+    }
+}
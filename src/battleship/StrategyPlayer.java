@@ -0,0 +1,59 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+/**
+ * A computer player driven by a ShotStrategy. It always has a shot ready, so a match between two
+ * strategy players runs without waiting, and it ignores the shots fired at its own fleet.
+ */
+public class StrategyPlayer implements Player {
+
+    //Chooses the shots
+    private final ShotStrategy strategy;
+
+    /**
+     * Creates a player firing the shots of the given strategy.
+     *
+     * @param strategy strategy, used by this player only
+     */
+    public StrategyPlayer(ShotStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Returns the strategy of this player
+     *
+     * @return shot strategy
+     */
+    public ShotStrategy getStrategy() {
+        return this.strategy;
+    }
+
+    @Override
+    public void reset() {
+        this.strategy.reset();
+    }
+
+    @Override
+    public int nextShot() {
+        return this.strategy.nextShot();
+    }
+
+    @Override
+    public void onResult(int location, boolean hit, int sunkLength) {
+        this.strategy.onResult(location, hit, sunkLength);
+    }
+
+    @Override
+    public void onOpponentShot(int location, boolean hit, int sunkLength) {
+        //a strategy only looks at the opponent's board
+    }
+
+    @Override
+    public void onGameOver(boolean won) {
+        //nothing to do
+    }
+}
@@ -0,0 +1,506 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays shot strategies against each other in two-player matches and rates them.
+ * A tournament is a number of rounds. In a ROUND_ROBIN round every pair of entrants plays; in a
+ * SWISS round entrants are paired by rating, avoiding pairs that have met before when possible.
+ * Every pairing plays gamesPerPairing matches, alternating who fires first, split into chunks
+ * that run headless on a work-stealing pool, so a round keeps every core busy.
+ * Ratings are Elo ratings fitted to all results so far (the Bradley-Terry model), with a 95%
+ * confidence interval, so they do not depend on the order in which games finish. The random
+ * streams of the chunks are split on the calling thread, so a tournament with a given seed gives
+ * the same results on any number of threads. After each round the state can be written to a
+ * checkpoint file, and a tournament started with an existing checkpoint resumes from it.
+ */
+public class Tournament {
+
+    /**
+     * How entrants are paired in each round.
+     */
+    public enum Format {
+        ROUND_ROBIN, SWISS
+    }
+
+    /**
+     * Creates the strategy of an entrant. Called once per chunk of games, on the thread that plays
+     * them, so a strategy is never shared between threads.
+     */
+    public interface StrategyFactory {
+        /**
+         * Creates a strategy.
+         *
+         * @param rd random number generator for the strategy
+         * @return a new strategy
+         */
+        ShotStrategy create(SplittableRandom rd);
+    }
+
+    //Rating of an entrant without results, and mean rating of all entrants
+    static final double INITIAL_RATING = 1500;
+    //Games per task; a pairing is split into chunks of this size
+    static final int CHUNK_GAMES = 25;
+    //Virtual drawn games added between every two entrants, so ratings stay finite
+    static final double PRIOR_GAMES = 1;
+    //Number of standard deviations in the confidence interval (95%)
+    static final double Z95 = 1.96;
+    //First int of a checkpoint file
+    private static final int MAGIC = 0x42535450;
+    //Version of the checkpoint format
+    private static final int VERSION = 1;
+
+    //Pairing of every round
+    private final Format format;
+    //Number of rounds
+    private final int rounds;
+    //Matches per pairing in a round
+    private final int gamesPerPairing;
+    //Seed of all random streams
+    private final long seed;
+    //Names of the entrants
+    private final List<String> names = new ArrayList<>();
+    //Strategies of the entrants
+    private final List<StrategyFactory> factories = new ArrayList<>();
+    //Rounds played so far
+    private int roundsPlayed;
+    //points[i][j]: points of entrant i against entrant j, 1 per win and 1/2 per draw
+    private double[][] points = new double[0][0];
+    //games[i][j]: matches between entrants i and j
+    private int[][] games = new int[0][0];
+    //Fitted rating of each entrant
+    private double[] ratings = new double[0];
+    //Half width of the 95% confidence interval of each rating
+    private double[] errors = new double[0];
+
+    /**
+     * Creates a tournament without entrants.
+     *
+     * @param format          pairing of every round
+     * @param rounds          number of rounds
+     * @param gamesPerPairing matches per pairing in a round
+     * @param seed            seed of all random streams
+     */
+    public Tournament(Format format, int rounds, int gamesPerPairing, long seed) {
+        this.format = format;
+        this.rounds = rounds;
+        this.gamesPerPairing = gamesPerPairing;
+        this.seed = seed;
+    }
+
+    /**
+     * Adds an entrant. All entrants must be added before the first round.
+     *
+     * @param name    unique name of the entrant
+     * @param factory creates the strategy of the entrant
+     * @return this tournament
+     */
+    public Tournament add(String name, StrategyFactory factory) {
+        if (this.roundsPlayed > 0) throw new IllegalStateException("The tournament has started");
+        if (this.names.contains(name)) throw new IllegalArgumentException("Duplicate entrant: " + name);
+        this.names.add(name);
+        this.factories.add(factory);
+        int n = this.names.size();
+        this.points = new double[n][n];
+        this.games = new int[n][n];
+        fitRatings();
+        return this;
+    }
+
+    /**
+     * Plays every remaining round.
+     *
+     * @param pool       pool playing the games
+     * @param checkpoint file to resume from if it exists and to write after each round, or null
+     * @return the number of rounds played by this call
+     * @throws IOException if the checkpoint cannot be read or written, or belongs to another
+     *                     tournament
+     */
+    public int run(ForkJoinPool pool, Path checkpoint) throws IOException {
+        return run(pool, checkpoint, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Plays at most the given number of the remaining rounds.
+     *
+     * @param pool       pool playing the games
+     * @param checkpoint file to resume from if it exists and to write after each round, or null
+     * @param maxRounds  most rounds to play in this call
+     * @return the number of rounds played by this call
+     * @throws IOException if the checkpoint cannot be read or written, or belongs to another
+     *                     tournament
+     */
+    public int run(ForkJoinPool pool, Path checkpoint, int maxRounds) throws IOException {
+        if (this.names.size() < 2) throw new IllegalStateException("A tournament needs two entrants");
+        if (checkpoint != null && this.roundsPlayed == 0 && Files.exists(checkpoint)) {
+            readCheckpoint(checkpoint);
+        }
+        int played = 0;
+        while (this.roundsPlayed < this.rounds && played < maxRounds) {
+            playRound(pool, pairings());
+            this.roundsPlayed++;
+            played++;
+            fitRatings();
+            if (checkpoint != null) writeCheckpoint(checkpoint);
+        }
+        return played;
+    }
+
+    /**
+     * Returns the pairings of the next round, two entrant indexes per pairing.
+     *
+     * @return pairings as [first, second] arrays
+     */
+    List<int[]> pairings() {
+        int n = this.names.size();
+        List<int[]> pairs = new ArrayList<>();
+        if (this.format == Format.ROUND_ROBIN) {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) pairs.add(new int[]{i, j});
+            }
+            return pairs;
+        }
+        //Swiss: best rated first, each paired with the best rated entrant it has not met yet
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(this.ratings[b], this.ratings[a]));
+        boolean[] paired = new boolean[n];
+        for (int k = 0; k < n; k++) {
+            int a = order[k];
+            if (paired[a]) continue;
+            int opponent = -1;
+            for (int m = k + 1; m < n; m++) {
+                int b = order[m];
+                if (paired[b]) continue;
+                if (opponent < 0) opponent = b;
+                if (this.games[a][b] == 0) {
+                    opponent = b;
+                    break;
+                }
+            }
+            //with an odd number of entrants, the last one left sits the round out
+            if (opponent < 0) break;
+            paired[a] = true;
+            paired[opponent] = true;
+            pairs.add(new int[]{a, opponent});
+        }
+        return pairs;
+    }
+
+    /**
+     * Plays the matches of one round on the pool and adds their results.
+     */
+    private void playRound(ForkJoinPool pool, List<int[]> pairs) {
+        //one random stream per chunk, split here so that results do not depend on scheduling
+        SplittableRandom root = new SplittableRandom(this.seed + 0x9E3779B97F4A7C15L * (this.roundsPlayed + 1));
+        List<Callable<int[]>> chunks = new ArrayList<>();
+        for (int[] pair : pairs) {
+            for (int start = 0; start < this.gamesPerPairing; start += CHUNK_GAMES) {
+                int count = Math.min(CHUNK_GAMES, this.gamesPerPairing - start);
+                chunks.add(new Chunk(pair[0], pair[1], start, count, root.split()));
+            }
+        }
+        try {
+            for (Future<int[]> future : pool.invokeAll(chunks)) {
+                int[] result = future.get();
+                int a = result[0];
+                int b = result[1];
+                int draws = result[4];
+                this.points[a][b] += result[2] + draws / 2.0;
+                this.points[b][a] += result[3] + draws / 2.0;
+                this.games[a][b] += result[2] + result[3] + draws;
+                this.games[b][a] += result[2] + result[3] + draws;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed", e.getCause());
+        } catch (InterruptedException e) {
+            //invokeAll() has returned, so every chunk is done already
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the results", e);
+        }
+    }
+
+    /**
+     * Plays a chunk of the matches of one pairing, one match at a time on one MatchLoop.
+     */
+    private final class Chunk implements Callable<int[]> {
+        //Entrants of the pairing
+        private final int a;
+        private final int b;
+        //Index of the first match of the chunk in the pairing, decides who fires first
+        private final int start;
+        //Number of matches
+        private final int count;
+        //Random stream of the chunk
+        private final SplittableRandom rd;
+
+        Chunk(int a, int b, int start, int count, SplittableRandom rd) {
+            this.a = a;
+            this.b = b;
+            this.start = start;
+            this.count = count;
+            this.rd = rd;
+        }
+
+        /**
+         * Plays the matches.
+         *
+         * @return a, b, wins of a, wins of b, draws
+         */
+        @Override
+        public int[] call() {
+            Player playerA = new StrategyPlayer(Tournament.this.factories.get(this.a).create(this.rd.split()));
+            Player playerB = new StrategyPlayer(Tournament.this.factories.get(this.b).create(this.rd.split()));
+            MatchLoop loop = new MatchLoop();
+            int[] result = {this.a, this.b, 0, 0, 0};
+            for (int game = this.start; game < this.start + this.count; game++) {
+                //a fires first in even games
+                boolean aFirst = game % 2 == 0;
+                Match match = aFirst ? new Match(playerA, playerB, this.rd) : new Match(playerB, playerA, this.rd);
+                loop.add(match);
+                loop.runUntilIdle();
+                if (match.getWinner() < 0) result[4]++;
+                else if ((match.getWinner() == 0) == aFirst) result[2]++;
+                else result[3]++;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Fits the ratings to all results with the minorization-maximization algorithm for the
+     * Bradley-Terry model, and estimates their errors from the Fisher information.
+     */
+    private void fitRatings() {
+        int n = this.names.size();
+        double[] strength = new double[n];
+        Arrays.fill(strength, 1);
+        double[] wins = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j) wins[i] += this.points[i][j] + PRIOR_GAMES / 2;
+            }
+        }
+        for (int iteration = 0; iteration < 10_000; iteration++) {
+            double change = 0;
+            double logSum = 0;
+            double[] next = new double[n];
+            for (int i = 0; i < n; i++) {
+                double denominator = 0;
+                for (int j = 0; j < n; j++) {
+                    if (i != j) denominator += (this.games[i][j] + PRIOR_GAMES) / (strength[i] + strength[j]);
+                }
+                next[i] = wins[i] / denominator;
+                logSum += Math.log(next[i]);
+            }
+            //keep the geometric mean at 1, so the mean rating stays INITIAL_RATING
+            double scale = Math.exp(-logSum / n);
+            for (int i = 0; i < n; i++) {
+                next[i] *= scale;
+                change = Math.max(change, Math.abs(Math.log(next[i] / strength[i])));
+            }
+            strength = next;
+            if (change < 1e-12) break;
+        }
+        this.ratings = new double[n];
+        this.errors = new double[n];
+        double eloPerLog = 400 / Math.log(10);
+        for (int i = 0; i < n; i++) {
+            this.ratings[i] = INITIAL_RATING + eloPerLog * Math.log(strength[i]);
+            //diagonal of the Fisher information of the log strength
+            double information = 0;
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                double p = strength[i] / (strength[i] + strength[j]);
+                information += (this.games[i][j] + PRIOR_GAMES) * p * (1 - p);
+            }
+            this.errors[i] = Z95 * eloPerLog / Math.sqrt(information);
+        }
+    }
+
+    /**
+     * Writes the state after the last round to a file, replacing it atomically.
+     *
+     * @param file checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    void writeCheckpoint(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.format.ordinal());
+            out.writeInt(this.rounds);
+            out.writeInt(this.gamesPerPairing);
+            out.writeLong(this.seed);
+            out.writeInt(this.names.size());
+            for (String name : this.names) out.writeUTF(name);
+            out.writeInt(this.roundsPlayed);
+            for (int i = 0; i < this.names.size(); i++) {
+                for (int j = 0; j < this.names.size(); j++) {
+                    out.writeDouble(this.points[i][j]);
+                    out.writeInt(this.games[i][j]);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores the state written by writeCheckpoint().
+     *
+     * @param file checkpoint file
+     * @throws IOException if the file cannot be read or belongs to another tournament
+     */
+    void readCheckpoint(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a tournament checkpoint: " + file);
+            }
+            boolean same = in.readInt() == this.format.ordinal() && in.readInt() == this.rounds
+                    && in.readInt() == this.gamesPerPairing && in.readLong() == this.seed
+                    && in.readInt() == this.names.size();
+            for (int i = 0; same && i < this.names.size(); i++) {
+                same = in.readUTF().equals(this.names.get(i));
+            }
+            if (!same) throw new IOException("Checkpoint of another tournament: " + file);
+            this.roundsPlayed = in.readInt();
+            for (int i = 0; i < this.names.size(); i++) {
+                for (int j = 0; j < this.names.size(); j++) {
+                    this.points[i][j] = in.readDouble();
+                    this.games[i][j] = in.readInt();
+                }
+            }
+        }
+        fitRatings();
+    }
+
+    /**
+     * Returns the number of entrants
+     *
+     * @return entrants
+     */
+    public int size() {
+        return this.names.size();
+    }
+
+    /**
+     * Returns the name of an entrant
+     *
+     * @param entrant index of the entrant, in order of add()
+     * @return name
+     */
+    public String getName(int entrant) {
+        return this.names.get(entrant);
+    }
+
+    /**
+     * Returns the rating of an entrant
+     *
+     * @param entrant index of the entrant
+     * @return Elo rating, the mean rating being INITIAL_RATING
+     */
+    public double getRating(int entrant) {
+        return this.ratings[entrant];
+    }
+
+    /**
+     * Returns the half width of the 95% confidence interval of the rating of an entrant
+     *
+     * @param entrant index of the entrant
+     * @return error in Elo points
+     */
+    public double getError(int entrant) {
+        return this.errors[entrant];
+    }
+
+    /**
+     * Returns the points of an entrant, 1 per win and 1/2 per draw
+     *
+     * @param entrant index of the entrant
+     * @return points
+     */
+    public double getPoints(int entrant) {
+        double sum = 0;
+        for (double p : this.points[entrant]) sum += p;
+        return sum;
+    }
+
+    /**
+     * Returns the number of matches played by an entrant
+     *
+     * @param entrant index of the entrant
+     * @return matches
+     */
+    public int getGames(int entrant) {
+        int sum = 0;
+        for (int g : this.games[entrant]) sum += g;
+        return sum;
+    }
+
+    /**
+     * Returns the number of rounds played
+     *
+     * @return rounds played
+     */
+    public int getRoundsPlayed() {
+        return this.roundsPlayed;
+    }
+
+    /**
+     * Returns the standings, best rating first, one line per entrant.
+     *
+     * @return standings table
+     */
+    public String standings() {
+        Integer[] order = new Integer[size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(this.ratings[b], this.ratings[a]));
+        StringBuilder sb = new StringBuilder();
+        for (int i : order) {
+            sb.append(String.format("%-16s %7.1f +/- %5.1f  %8.1f / %d%n", this.names.get(i), this.ratings[i],
+                    this.errors[i], getPoints(i), getGames(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Runs a round-robin tournament of the built-in strategies on all cores.
+     *
+     * @param args optional rounds (10), games per pairing (200) and checkpoint file
+     * @throws IOException if the checkpoint cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Path checkpoint = args.length > 2 ? Path.of(args[2]) : null;
+        Tournament tournament = new Tournament(Format.ROUND_ROBIN, rounds, games, 42)
+                .add("random", RandomShotStrategy::new)
+                .add("probability", rd -> new ProbabilityShotStrategy(GameConfig.standard(), rd))
+                .add("montecarlo", rd -> new MonteCarloShotStrategy(GameConfig.standard(), 200_000, 500, 1, rd.nextLong()));
+        long start = System.nanoTime();
+        tournament.run(ForkJoinPool.commonPool(), checkpoint);
+        System.out.print(tournament.standings());
+        System.out.printf("%d rounds in %.1f s%n", tournament.getRoundsPlayed(), (System.nanoTime() - start) / 1e9);
+    }
+}
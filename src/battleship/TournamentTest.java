@@ -0,0 +1,119 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    /**
+     * Three entrants: two random players and the probability strategy.
+     */
+    private static Tournament create(Tournament.Format format, int rounds, int games) {
+        return new Tournament(format, rounds, games, 7)
+                .add("random-a", RandomShotStrategy::new)
+                .add("probability", rd -> new ProbabilityShotStrategy(GameConfig.standard(), rd))
+                .add("random-b", RandomShotStrategy::new);
+    }
+
+    /**
+     * Asserts that two tournaments have the same results.
+     */
+    private static void assertSameResults(Tournament expected, Tournament actual) {
+        assertEquals(expected.getRoundsPlayed(), actual.getRoundsPlayed());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getPoints(i), actual.getPoints(i));
+            assertEquals(expected.getGames(i), actual.getGames(i));
+            assertEquals(expected.getRating(i), actual.getRating(i), 1e-9);
+        }
+    }
+
+    @Test
+    void testRoundRobin() throws IOException {
+        Tournament tournament = create(Tournament.Format.ROUND_ROBIN, 2, 60);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        assertEquals(2, tournament.run(pool, null));
+        pool.shutdown();
+        assertEquals(0, tournament.run(ForkJoinPool.commonPool(), null));
+        //every entrant plays both others 60 times per round
+        double total = 0;
+        double meanRating = 0;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(240, tournament.getGames(i));
+            total += tournament.getPoints(i);
+            meanRating += tournament.getRating(i) / 3;
+        }
+        assertEquals(360, total, 1e-9);
+        assertEquals(Tournament.INITIAL_RATING, meanRating, 1e-6);
+        //the probability strategy is far ahead, beyond the confidence intervals
+        double best = tournament.getRating(1) - tournament.getError(1);
+        for (int i : new int[]{0, 2}) {
+            assertTrue(best > tournament.getRating(i) + tournament.getError(i), tournament.standings());
+            assertTrue(tournament.getError(i) > 0);
+        }
+        assertTrue(tournament.standings().startsWith("probability"));
+    }
+
+    @Test
+    void testSameResultsOnAnyPool() throws IOException {
+        Tournament single = create(Tournament.Format.SWISS, 3, 30);
+        ForkJoinPool one = new ForkJoinPool(1);
+        single.run(one, null);
+        one.shutdown();
+        Tournament parallel = create(Tournament.Format.SWISS, 3, 30);
+        ForkJoinPool four = new ForkJoinPool(4);
+        parallel.run(four, null);
+        four.shutdown();
+        assertSameResults(single, parallel);
+    }
+
+    @Test
+    void testSwissPairings() throws IOException {
+        Tournament tournament = new Tournament(Tournament.Format.SWISS, 2, 10, 1);
+        for (int i = 0; i < 5; i++) tournament.add("random-" + i, RandomShotStrategy::new);
+        //five entrants: two pairings, one entrant sits out
+        List<int[]> pairs = tournament.pairings();
+        assertEquals(2, pairs.size());
+        tournament.run(ForkJoinPool.commonPool(), null, 1);
+        //the next round avoids the pairings of the first
+        for (int[] pair : tournament.pairings()) {
+            for (int[] previous : pairs) {
+                assertFalse(pair[0] == previous[0] && pair[1] == previous[1]
+                        || pair[0] == previous[1] && pair[1] == previous[0]);
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> tournament.add("late", RandomShotStrategy::new));
+    }
+
+    @Test
+    void testResumeFromCheckpoint(@TempDir Path dir) throws IOException {
+        Tournament complete = create(Tournament.Format.SWISS, 4, 20);
+        complete.run(ForkJoinPool.commonPool(), null);
+
+        Path checkpoint = dir.resolve("tournament.bin");
+        Tournament interrupted = create(Tournament.Format.SWISS, 4, 20);
+        assertEquals(2, interrupted.run(ForkJoinPool.commonPool(), checkpoint, 2));
+        assertTrue(Files.exists(checkpoint));
+
+        //a new process resumes after round 2
+        Tournament resumed = create(Tournament.Format.SWISS, 4, 20);
+        assertEquals(2, resumed.run(ForkJoinPool.commonPool(), checkpoint));
+        assertSameResults(complete, resumed);
+
+        //a checkpoint of another tournament is refused
+        Tournament other = create(Tournament.Format.ROUND_ROBIN, 4, 20);
+        assertThrows(IOException.class, () -> other.run(ForkJoinPool.commonPool(), checkpoint));
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * @author: Jingzhuo Hu
+ * @author: Yuxin Meng
+ */
+
+package battleship;
+
+import java.util.Scanner;
+import java.util.SplittableRandom;
+
+/**
+ * Console front end of the two-player mode. Each side is "human" or "ai"; humans type
+ * "row,column" lines at the same console when it is their turn. A match between two computer
+ * players runs headless on the calling thread.
+ */
+public class TwoPlayerGame {
+
+    /**
+     * Plays one match.
+     *
+     * @param args kind of side 0 and of side 1, "human" or "ai" (human against ai by default)
+     */
+    public static void main(String[] args) {
+        SplittableRandom rd = new SplittableRandom();
+        Player first = createPlayer(args.length > 0 ? args[0] : "human", "Player 1", rd.split());
+        Player second = createPlayer(args.length > 1 ? args[1] : "ai", "Player 2", rd.split());
+        Match match = new Match(first, second, rd);
+        MatchLoop loop = new MatchLoop();
+        loop.add(match);
+        if (!(first instanceof HumanPlayer) && !(second instanceof HumanPlayer)) {
+            loop.runUntilIdle();
+        } else {
+            loop.start();
+            Scanner scan = new Scanner(System.in);
+            while (!match.isFinished() && scan.hasNextLine()) {
+                String reply = submit(match, scan.nextLine());
+                if (reply != null) System.out.println(reply);
+            }
+            loop.close();
+        }
+        System.out.println("Game over after " + match.getTurns() + " shots. "
+                + (match.getWinner() < 0 ? "Nobody won." : "Player " + (match.getWinner() + 1) + " won."));
+    }
+
+    /**
+     * Creates a player from its kind on the command line.
+     *
+     * @param kind "human" or "ai"
+     * @param name name shown to a human player
+     * @param rd   random number generator of a computer player
+     * @return the player
+     */
+    static Player createPlayer(String kind, String name, SplittableRandom rd) {
+        if (kind.equalsIgnoreCase("human")) return new HumanPlayer(name, System.out::println);
+        if (kind.equalsIgnoreCase("ai")) return new StrategyPlayer(new ProbabilityShotStrategy(GameConfig.standard(), rd));
+        throw new IllegalArgumentException("Unknown player kind: " + kind);
+    }
+
+    /**
+     * Submits a line typed by the human player whose turn it is.
+     *
+     * @param match the match
+     * @param line  "row,column"
+     * @return an error message, or null if the shot was submitted
+     */
+    static String submit(Match match, String line) {
+        String[] strs = line.split(",");
+        if (strs.length < 2) return GameSession.INVALID;
+        int row;
+        int column;
+        try {
+            row = Integer.parseInt(strs[0].trim());
+            column = Integer.parseInt(strs[1].trim());
+        } catch (final NumberFormatException e) {
+            return GameSession.INVALID;
+        }
+        if (row < 0 || row > 9) return GameSession.ROW_OUT_OF_BOUND;
+        if (column < 0 || column > 9) return GameSession.COLUMN_OUT_OF_BOUND;
+        try {
+            match.submit(match.getTurn(), row, column);
+            return null;
+        } catch (IllegalStateException e) {
+            return "Please wait for your turn.";
+        }
+    }
+}